@@ -9,7 +9,11 @@ import com.valerinsmp.vvotes.config.PluginConfig;
 import com.valerinsmp.vvotes.listener.VoteListener;
 import com.valerinsmp.vvotes.papi.VVotesExpansion;
 import com.valerinsmp.vvotes.reward.GrantDispatcher;
+import com.valerinsmp.vvotes.service.IngestSpool;
 import com.valerinsmp.vvotes.service.MessageService;
+import com.valerinsmp.vvotes.service.PeriodClock;
+import com.valerinsmp.vvotes.service.PlayerIdentity;
+import com.valerinsmp.vvotes.service.SnapshotImage;
 import com.valerinsmp.vvotes.service.SoundService;
 import com.valerinsmp.vvotes.service.MonthlyDrawResult;
 import com.valerinsmp.vvotes.service.VoteService;
@@ -54,11 +58,15 @@ public final class VVotesPlugin extends JavaPlugin {
         this.messageService = new MessageService(this);
         this.soundService = new SoundService(this);
         VotePlan.from(configService.get(), "startup-validation");
-        this.voteLedger = new VoteLedger(resolveDatabasePath(configService.get()), configService.get().busyTimeoutMs(),
-                Clock.systemUTC(), ZoneId.of(configService.get().timezone()));
+        Path databasePath = resolveDatabasePath(configService.get());
+        PeriodClock periods = new PeriodClock(Clock.systemUTC(), ZoneId.of(configService.get().timezone()));
+        this.voteLedger = new VoteLedger(databasePath, configService.get().busyTimeoutMs(), periods);
         this.voteLedger.initialize();
+        IngestSpool spool = new IngestSpool(databasePath.resolveSibling(databasePath.getFileName() + ".spool"));
         this.voteService = new VoteService(this, configService, messageService, soundService,
-                voteLedger, new GrantDispatcher());
+                voteLedger, periods, spool, new SnapshotImage(databasePath.resolveSibling(databasePath.getFileName() + ".image")),
+                new GrantDispatcher());
+        voteService.onMonthStarted(this::runMonthlyDraw);
         this.voteService.start();
 
         registerCommands();
@@ -146,7 +154,10 @@ public final class VVotesPlugin extends JavaPlugin {
     }
 
     private void registerListeners() {
-        getServer().getPluginManager().registerEvents(new VoteListener(this, voteService), this);
+        getServer().getPluginManager().registerEvents(new VoteListener(voteService), this);
+        for (var player : Bukkit.getOnlinePlayers()) {
+            voteService.playerOnline(new PlayerIdentity(player.getUniqueId(), player.getName()));
+        }
         getLogger().info("Integration enabled: VotifierPlus");
     }
 
@@ -181,13 +192,16 @@ public final class VVotesPlugin extends JavaPlugin {
         }
         int everyMinutes = Math.max(1, configService.get().monthlyDrawAutoCheckMinutes());
         long periodTicks = everyMinutes * 60L * 20L;
-        monthlyDrawTask = Bukkit.getScheduler().runTaskTimer(this, () -> {
-            voteService.drawMonthlyAsync(null, "auto").thenAccept(result -> {
-                if (result.status() == MonthlyDrawResult.Status.SUCCESS) {
-                    getLogger().info("Sorteo mensual automatico ejecutado para " + result.monthKey());
-                }
-            });
-        }, 20L, periodTicks);
+        monthlyDrawTask = Bukkit.getScheduler().runTaskTimer(this, this::runMonthlyDraw, 20L, periodTicks);
+    }
+
+    /** Timer retries cover restarts and failed draws; the month rollover itself triggers one immediately. */
+    private void runMonthlyDraw() {
+        voteService.drawMonthlyAsync(null, "auto").thenAccept(result -> {
+            if (result.status() == MonthlyDrawResult.Status.SUCCESS) {
+                getLogger().info("Sorteo mensual automatico ejecutado para " + result.monthKey());
+            }
+        });
     }
 
     private void stopMonthlyDrawTask() {
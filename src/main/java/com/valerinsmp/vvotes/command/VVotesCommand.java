@@ -52,7 +52,7 @@ public final class VVotesCommand implements CommandExecutor, TabCompleter {
         java.util.UUID playerId = player.getUniqueId();
         String playerName = player.getName();
         plugin.getVoteService().toggleVoteAnnouncementsAsync(playerId).thenAccept(muted ->
-                Bukkit.getScheduler().runTask(plugin, () -> {
+                plugin.getVoteService().runOnMain(() -> {
                     Player exact = Bukkit.getPlayerExact(playerName);
                     if (exact == null || !exact.getUniqueId().equals(playerId)) return;
                     plugin.getMessageService().send(exact,
@@ -73,7 +73,7 @@ public final class VVotesCommand implements CommandExecutor, TabCompleter {
     private void scheduleOnMain(CommandSender sender, String commandName, String label, String[] args) {
         java.util.UUID playerId = sender instanceof Player player ? player.getUniqueId() : null;
         String exactName = sender instanceof Player player ? player.getName() : "";
-        Bukkit.getScheduler().runTask(plugin, () -> {
+        plugin.getVoteService().runOnMain(() -> {
             if (!plugin.isEnabled()) return;
             Command resolvedCommand = plugin.getCommand(commandName);
             if (resolvedCommand == null) return;
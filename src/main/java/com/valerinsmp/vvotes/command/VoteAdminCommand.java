@@ -51,6 +51,8 @@ public final class VoteAdminCommand implements CommandExecutor, TabCompleter {
             case "help", "ayuda" -> plugin.getMessageService().sendAdminHelp(sender,
                     args.length >= 2 ? positiveInt(args[1], 1) : 1);
             case "about", "info" -> plugin.getMessageService().sendAbout(sender);
+            case "status" -> plugin.getMessageService().sendStatus(sender, plugin.getVoteService().mainThreadStats(),
+                    plugin.getVoteService().ingestBacklog(), plugin.getVoteService().writerStats());
             case "reload" -> {
                 try {
                     plugin.reloadPlugin();
@@ -235,8 +237,7 @@ public final class VoteAdminCommand implements CommandExecutor, TabCompleter {
                 }));
             }
             case "topmonth" -> {
-                java.time.ZoneId zone = java.time.ZoneId.of(plugin.getVoteService().getTimezoneId());
-                String monthKey = args.length >= 2 ? args[1] : java.time.YearMonth.now(zone).toString();
+                String monthKey = args.length >= 2 ? args[1] : plugin.getVoteService().currentMonthKey();
                 plugin.getVoteService().getTopMonthAsync(monthKey, 10).whenComplete((top, throwable) -> reply.sync(resolved -> {
                     if (top == null || top.isEmpty()) {
                         plugin.getMessageService().send(resolved, "admin-topmonth-empty", Map.of("month", monthKey));
@@ -307,7 +308,7 @@ public final class VoteAdminCommand implements CommandExecutor, TabCompleter {
             return Collections.emptyList();
         }
         if (args.length == 1) {
-            return filter(List.of("help", "about", "reload", "add", "resetdaily", "resetmonthly", "adddaily", "removedaily", "addglobaldaily", "removeglobaldaily", "drawmonthly", "drawhistory", "topmonth", "ambiguous"), args[0]);
+            return filter(List.of("help", "about", "reload", "add", "resetdaily", "resetmonthly", "adddaily", "removedaily", "addglobaldaily", "removeglobaldaily", "drawmonthly", "drawhistory", "topmonth", "ambiguous", "status"), args[0]);
         }
         if (args.length == 2 && (args[0].equalsIgnoreCase("add") || args[0].equalsIgnoreCase("resetmonthly")
                 || args[0].equalsIgnoreCase("adddaily") || args[0].equalsIgnoreCase("removedaily"))) {
@@ -316,9 +317,8 @@ public final class VoteAdminCommand implements CommandExecutor, TabCompleter {
             return filter(names, args[1]);
         }
         if (args.length == 2 && (args[0].equalsIgnoreCase("drawmonthly") || args[0].equalsIgnoreCase("drawhistory") || args[0].equalsIgnoreCase("topmonth"))) {
-            java.time.ZoneId zone = java.time.ZoneId.of(plugin.getVoteService().getTimezoneId());
-            java.time.YearMonth now = java.time.YearMonth.now(zone);
-            return filter(List.of(now.minusMonths(1).toString(), now.toString()), args[1]);
+            return filter(List.of(plugin.getVoteService().previousMonthKey(), plugin.getVoteService().currentMonthKey()),
+                    args[1]);
         }
         if (args.length == 3 && (args[0].equalsIgnoreCase("add")
                 || args[0].equalsIgnoreCase("adddaily")
@@ -373,7 +373,7 @@ public final class VoteAdminCommand implements CommandExecutor, TabCompleter {
                 if (player != null && player.getUniqueId().equals(playerId)) action.accept(player);
             };
             if (Bukkit.isPrimaryThread()) resolvedAction.run();
-            else Bukkit.getScheduler().runTask(plugin, resolvedAction);
+            else plugin.getVoteService().runOnMain(resolvedAction);
         }
     }
 
@@ -34,7 +34,7 @@ public final class VoteCommand implements CommandExecutor {
     private void scheduleOnMain(CommandSender sender, String commandName, String label, String[] args) {
         java.util.UUID playerId = sender instanceof Player player ? player.getUniqueId() : null;
         String exactName = sender instanceof Player player ? player.getName() : "";
-        Bukkit.getScheduler().runTask(plugin, () -> {
+        plugin.getVoteService().runOnMain(() -> {
             if (!plugin.isEnabled()) return;
             Command resolvedCommand = plugin.getCommand(commandName);
             if (resolvedCommand == null) return;
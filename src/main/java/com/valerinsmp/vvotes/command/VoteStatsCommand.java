@@ -1,7 +1,7 @@
 package com.valerinsmp.vvotes.command;
 
 import com.valerinsmp.vvotes.VVotesPlugin;
-import com.valerinsmp.vvotes.model.PlayerStats;
+import com.valerinsmp.vvotes.service.VoteService;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -9,6 +9,7 @@ import org.bukkit.entity.Player;
 import org.bukkit.Bukkit;
 
 import java.util.Map;
+import java.util.UUID;
 
 public final class VoteStatsCommand implements CommandExecutor {
     private final VVotesPlugin plugin;
@@ -34,17 +35,19 @@ public final class VoteStatsCommand implements CommandExecutor {
             return;
         }
 
-        PlayerStats stats = plugin.getVoteService().getStats(player.getUniqueId(), player.getName());
-        double globalDaily = plugin.getVoteService().getGlobalDailyVotes();
+        VoteService votes = plugin.getVoteService();
+        UUID uuid = player.getUniqueId();
+        double monthly = votes.monthlyVotes(uuid, player.getName());
+        double globalDaily = votes.getGlobalDailyVotes();
         Map<String, String> placeholders = Map.of(
                 "player", player.getName(),
-                "total", plugin.getVoteService().formatDouble(stats.totalVotes()),
-                "daily", plugin.getVoteService().formatDouble(stats.dailyVotes()),
-                "monthly", plugin.getVoteService().formatDouble(stats.monthlyVotes()),
-                "streak_monthly", Integer.toString(stats.streakMonthly()),
-                "global_daily", plugin.getVoteService().formatDouble(globalDaily),
-                "next_global_goal", Integer.toString(plugin.getVoteService().nextGlobalGoal(globalDaily)),
-                "next_monthly_goal", Integer.toString(plugin.getVoteService().nextMonthlyGoal(stats.monthlyVotes()))
+                "total", votes.formatDouble(votes.totalVotes(uuid, player.getName())),
+                "daily", votes.formatDouble(votes.dailyVotes(uuid, player.getName())),
+                "monthly", votes.formatDouble(monthly),
+                "streak_monthly", Integer.toString(votes.monthlyStreak(uuid, player.getName())),
+                "global_daily", votes.formatDouble(globalDaily),
+                "next_global_goal", Integer.toString(votes.nextGlobalGoal(globalDaily)),
+                "next_monthly_goal", Integer.toString(votes.nextMonthlyGoal(monthly))
         );
 
         plugin.getMessageService().send(player, "vote-status", placeholders);
@@ -53,7 +56,7 @@ public final class VoteStatsCommand implements CommandExecutor {
     private void scheduleOnMain(CommandSender sender, String commandName, String label, String[] args) {
         java.util.UUID playerId = sender instanceof Player player ? player.getUniqueId() : null;
         String exactName = sender instanceof Player player ? player.getName() : "";
-        Bukkit.getScheduler().runTask(plugin, () -> {
+        plugin.getVoteService().runOnMain(() -> {
             if (!plugin.isEnabled()) return;
             Command resolvedCommand = plugin.getCommand(commandName);
             if (resolvedCommand == null) return;
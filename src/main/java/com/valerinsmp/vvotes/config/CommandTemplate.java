@@ -0,0 +1,119 @@
+package com.valerinsmp.vvotes.config;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A reward command parsed once into literal text and placeholder slots, then rendered in a single pass. Slots are
+ * {@code <name>} or {@code %name%} for the names in {@link #PLACEHOLDERS}; any other token is plain text, so
+ * MiniMessage tags and PlaceholderAPI placeholders reach the command untouched. A slot without a value is written
+ * back as it was typed. Substituted values are never scanned again.
+ */
+public final class CommandTemplate {
+    public static final String PLAYER = "player";
+    public static final String UUID = "uuid";
+    public static final Set<String> PLACEHOLDERS = Set.of(PLAYER, UUID, "goal", "month", "service", "timestamp");
+
+    /** Placeholders each command section can fill; anything else of {@link #PLACEHOLDERS} would stay literal. */
+    public enum Scope {
+        VOTE(Set.of(PLAYER, UUID, "service", "timestamp")),
+        PLAYER_GOAL(Set.of(PLAYER, UUID, "goal", "service", "timestamp")),
+        GLOBAL_GOAL(Set.of("goal", "service", "timestamp")),
+        DRAW(Set.of(PLAYER, UUID, "month"));
+
+        private final Set<String> placeholders;
+
+        Scope(Set<String> placeholders) {
+            this.placeholders = placeholders;
+        }
+
+        public Set<String> placeholders() { return placeholders; }
+    }
+
+    private static final int MAX_CACHED = 4_096;
+    private static final Map<String, CommandTemplate> CACHE = new ConcurrentHashMap<>();
+
+    private final String source;
+    private final String[] literals; // one more than slots: text before each slot, then the tail
+    private final String[] slots;
+    private final String[] tokens;
+    private final int literalLength;
+
+    private CommandTemplate(String source, List<String> literals, List<String> slots, List<String> tokens) {
+        this.source = source;
+        this.literals = literals.toArray(String[]::new);
+        this.slots = slots.toArray(String[]::new);
+        this.tokens = tokens.toArray(String[]::new);
+        int length = 0;
+        for (String literal : this.literals) length += literal.length();
+        this.literalLength = length;
+    }
+
+    /** The compiled form of {@code command}, parsed on first use and shared afterwards. */
+    public static CommandTemplate of(String command) {
+        CommandTemplate cached = CACHE.get(command);
+        if (cached != null) return cached;
+        CommandTemplate compiled = compile(command);
+        if (CACHE.size() >= MAX_CACHED) CACHE.clear();
+        CACHE.putIfAbsent(command, compiled);
+        return compiled;
+    }
+
+    static CommandTemplate compile(String command) {
+        List<String> literals = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        List<String> tokens = new ArrayList<>();
+        int literalStart = 0;
+        int index = 0;
+        while (index < command.length()) {
+            char open = command.charAt(index);
+            if (open == '<' || open == '%') {
+                int close = command.indexOf(open == '<' ? '>' : '%', index + 1);
+                if (close > index + 1) {
+                    String name = command.substring(index + 1, close);
+                    if (PLACEHOLDERS.contains(name)) {
+                        literals.add(command.substring(literalStart, index));
+                        slots.add(name);
+                        tokens.add(command.substring(index, close + 1));
+                        index = close + 1;
+                        literalStart = index;
+                        continue;
+                    }
+                }
+            }
+            index++;
+        }
+        literals.add(command.substring(literalStart));
+        return new CommandTemplate(command, literals, slots, tokens);
+    }
+
+    /** Placeholder names this command uses, in order of first appearance. */
+    public Set<String> placeholders() {
+        return new LinkedHashSet<>(List.of(slots));
+    }
+
+    public String source() { return source; }
+
+    /** {@code player} and {@code uuid} may be null (global goals); other slots read {@code values}. */
+    public String render(String player, String uuid, Map<String, String> values) {
+        if (slots.length == 0) return source;
+        String[] resolved = new String[slots.length];
+        int length = literalLength;
+        for (int i = 0; i < slots.length; i++) {
+            String value = switch (slots[i]) {
+                case PLAYER -> player;
+                case UUID -> uuid;
+                default -> values.get(slots[i]);
+            };
+            resolved[i] = value == null ? tokens[i] : value;
+            length += resolved[i].length();
+        }
+        StringBuilder out = new StringBuilder(length);
+        for (int i = 0; i < slots.length; i++) out.append(literals[i]).append(resolved[i]);
+        return out.append(literals[slots.length]).toString();
+    }
+}
@@ -49,8 +49,10 @@ public final class ConfigService {
         PluginConfig current = get();
         if (!current.sqliteFile().equals(candidate.sqliteFile())
                 || current.busyTimeoutMs() != candidate.busyTimeoutMs()
-                || !current.timezone().equals(candidate.timezone())) {
-            throw new IllegalArgumentException("storage.sqlite-file, storage.busy-timeout-ms y timezone requieren reinicio");
+                || !current.timezone().equals(candidate.timezone())
+                || current.performance().snapshotMode() != candidate.performance().snapshotMode()) {
+            throw new IllegalArgumentException(
+                    "storage.sqlite-file, storage.busy-timeout-ms, timezone y performance.snapshot-mode requieren reinicio");
         }
     }
 
@@ -67,7 +69,8 @@ public final class ConfigService {
         int suspiciousWindow = bounded(file.getInt("global.suspicious-window-seconds", 10), 0, 86_400,
                 "global.suspicious-window-seconds");
 
-        TreeMap<Integer, List<String>> globalDaily = parseGoalCommands(file.getConfigurationSection("goals.global-daily"));
+        TreeMap<Integer, List<String>> globalDaily = parseGoalCommands(file.getConfigurationSection("goals.global-daily"),
+                "goals.global-daily", CommandTemplate.Scope.GLOBAL_GOAL);
         int recurringStart = nonNegative(file.getInt("goals.global-recurring.start-after", 0),
                 "goals.global-recurring.start-after");
         int recurringEvery = nonNegative(file.getInt("goals.global-recurring.every", 0),
@@ -75,13 +78,16 @@ public final class ConfigService {
         if ((recurringStart == 0) != (recurringEvery == 0)) {
             throw new IllegalArgumentException("La meta recurrente debe definir start-after y every juntos");
         }
-        List<String> recurringCommands = commands(file.getStringList("goals.global-recurring.commands"));
+        List<String> recurringCommands = commands(file.getStringList("goals.global-recurring.commands"),
+                "goals.global-recurring.commands", CommandTemplate.Scope.GLOBAL_GOAL);
         Map<String, List<String>> forcedCommands = parseCommandMap(file.getConfigurationSection("services.force-player-command"));
-        TreeMap<Integer, List<String>> playerMonthly = parseGoalCommands(file.getConfigurationSection("goals.player-monthly"));
-        TreeMap<Integer, List<String>> monthlyStreak = parseGoalCommands(file.getConfigurationSection("rewards.streak-monthly"));
+        TreeMap<Integer, List<String>> playerMonthly = parseGoalCommands(file.getConfigurationSection("goals.player-monthly"),
+                "goals.player-monthly", CommandTemplate.Scope.PLAYER_GOAL);
+        TreeMap<Integer, List<String>> monthlyStreak = parseGoalCommands(file.getConfigurationSection("rewards.streak-monthly"),
+                "rewards.streak-monthly", CommandTemplate.Scope.PLAYER_GOAL);
 
-        String drawCommand = command(file.getString("monthly-draw.reward-command",
-                "lp user <player> parent addtemp arcano 30d"));
+        String drawCommand = template(command(file.getString("monthly-draw.reward-command",
+                "lp user <player> parent addtemp arcano 30d")), "monthly-draw.reward-command", CommandTemplate.Scope.DRAW);
         int requiredSites = bounded(file.getInt("triple-site-bonus.required-sites", 3), 1, 64,
                 "triple-site-bonus.required-sites");
         return new PluginConfig(
@@ -89,7 +95,8 @@ public final class ConfigService {
                 file.getBoolean("provider.process-test-votes", false),
                 file.getBoolean("global.broadcast-on-vote", true), suspiciousWindow,
                 forcedCommands, globalDaily, recurringStart, recurringEvery, recurringCommands,
-                playerMonthly, commands(file.getStringList("rewards.vote")), monthlyStreak,
+                playerMonthly, commands(file.getStringList("rewards.vote"), "rewards.vote", CommandTemplate.Scope.VOTE),
+                monthlyStreak,
                 file.getBoolean("monthly-draw.enabled", true),
                 bounded(file.getInt("monthly-draw.min-votes", 1), 1, 1_000_000, "monthly-draw.min-votes"),
                 drawCommand,
@@ -97,12 +104,48 @@ public final class ConfigService {
                         "monthly-draw.auto-check-minutes"),
                 file.getBoolean("triple-site-bonus.enabled", true), requiredSites,
                 boundedText(file.getString("triple-site-bonus.message", ""), 2_048, "triple-site-bonus.message"),
-                commands(readCommands(file, "triple-site-bonus")),
+                commands(readCommands(file, "triple-site-bonus"), "triple-site-bonus.commands", CommandTemplate.Scope.VOTE),
                 boundedText(file.getString("triple-site-bonus.placeholder-icon", " ☁ "), 64,
-                        "triple-site-bonus.placeholder-icon")
+                        "triple-site-bonus.placeholder-icon"),
+                parsePerformance(file)
         );
     }
 
+    private PerformanceSettings parsePerformance(YamlConfiguration file) {
+        PerformanceSettings defaults = PerformanceSettings.defaults();
+        return new PerformanceSettings(
+                bounded(file.getInt("performance.ingest-batch-size", defaults.ingestBatchSize()), 1, 1_000,
+                        "performance.ingest-batch-size"),
+                bounded(file.getInt("performance.ingest-batch-window-ms", defaults.ingestBatchWindowMs()), 0, 1_000,
+                        "performance.ingest-batch-window-ms"),
+                bounded(file.getInt("performance.grant-claim-batch-size", defaults.grantClaimBatchSize()), 1, 500,
+                        "performance.grant-claim-batch-size"),
+                bounded(file.getInt("performance.dispatch-tick-budget-ms", defaults.dispatchTickBudgetMs()), 1, 50,
+                        "performance.dispatch-tick-budget-ms"),
+                bounded(file.getInt("performance.main-thread-budget-ms", defaults.mainThreadBudgetMs()), 1, 50,
+                        "performance.main-thread-budget-ms"),
+                bounded(file.getInt("performance.writer-queue-capacity", defaults.writerQueueCapacity()), 10, 100_000,
+                        "performance.writer-queue-capacity"),
+                snapshotMode(file.getString("performance.snapshot-mode", "full")),
+                bounded(file.getInt("performance.snapshot-max-players", defaults.snapshotMaxPlayers()), 100, 10_000_000,
+                        "performance.snapshot-max-players"),
+                bounded(file.getInt("performance.snapshot-idle-minutes", defaults.snapshotIdleMinutes()), 1, 10_080,
+                        "performance.snapshot-idle-minutes"),
+                bounded(file.getInt("performance.snapshot-recent-days", defaults.snapshotRecentDays()), 0, 3_650,
+                        "performance.snapshot-recent-days"),
+                bounded(file.getInt("performance.snapshot-image-minutes", defaults.snapshotImageMinutes()), 0, 1_440,
+                        "performance.snapshot-image-minutes")
+        );
+    }
+
+    private PerformanceSettings.SnapshotMode snapshotMode(String value) {
+        return switch (value == null ? "" : value.strip().toLowerCase(Locale.ROOT)) {
+            case "full" -> PerformanceSettings.SnapshotMode.FULL;
+            case "bounded" -> PerformanceSettings.SnapshotMode.BOUNDED;
+            default -> throw new IllegalArgumentException("performance.snapshot-mode debe ser full o bounded");
+        };
+    }
+
     private List<String> readCommands(YamlConfiguration file, String parent) {
         List<String> list = new ArrayList<>(file.getStringList(parent + ".commands"));
         if (list.isEmpty()) {
@@ -112,7 +155,8 @@ public final class ConfigService {
         return list;
     }
 
-    private TreeMap<Integer, List<String>> parseGoalCommands(ConfigurationSection section) {
+    private TreeMap<Integer, List<String>> parseGoalCommands(ConfigurationSection section, String path,
+                                                            CommandTemplate.Scope scope) {
         TreeMap<Integer, List<String>> result = new TreeMap<>();
         if (section == null) return result;
         for (String key : section.getKeys(false)) {
@@ -123,7 +167,7 @@ public final class ConfigService {
                 throw new IllegalArgumentException("Meta invalida: " + key, invalid);
             }
             if (threshold <= 0) throw new IllegalArgumentException("Meta no positiva: " + key);
-            result.put(threshold, commands(section.getStringList(key)));
+            result.put(threshold, commands(section.getStringList(key), path + "." + key, scope));
         }
         return result;
     }
@@ -143,23 +187,34 @@ public final class ConfigService {
                 continue;
             }
             if (path.length() > 128) throw new IllegalArgumentException("Nombre de servicio demasiado largo");
+            String where = "services.force-player-command." + path;
             List<String> values = section.isList(key)
-                    ? commands(section.getStringList(key))
-                    : commands(List.of(section.getString(key, "")));
+                    ? commands(section.getStringList(key), where, CommandTemplate.Scope.VOTE)
+                    : commands(List.of(section.getString(key, "")), where, CommandTemplate.Scope.VOTE);
             if (!values.isEmpty()) out.put(path.toLowerCase(Locale.ROOT), values);
         }
     }
 
-    private List<String> commands(List<String> input) {
+    private List<String> commands(List<String> input, String path, CommandTemplate.Scope scope) {
         if (input == null) return List.of();
         List<String> result = new ArrayList<>();
         for (String value : input) {
             if (value == null || value.isBlank()) continue;
-            result.add(command(value));
+            result.add(template(command(value), path, scope));
         }
         return List.copyOf(result);
     }
 
+    /** Compiles the command now so votes reuse it, rejecting vVotes placeholders its section never fills. */
+    private String template(String command, String path, CommandTemplate.Scope scope) {
+        for (String placeholder : CommandTemplate.of(command).placeholders()) {
+            if (!scope.placeholders().contains(placeholder)) {
+                throw new IllegalArgumentException("Placeholder <" + placeholder + "> no disponible en " + path);
+            }
+        }
+        return command;
+    }
+
     private String command(String value) {
         String command = value == null ? "" : value.strip();
         if (command.isBlank() || command.length() > 1_024 || command.indexOf('\n') >= 0 || command.indexOf('\r') >= 0) {
@@ -0,0 +1,23 @@
+package com.valerinsmp.vvotes.config;
+
+/** Throughput knobs for the writer; none of them change what is journaled, only how it is batched. */
+public record PerformanceSettings(
+        int ingestBatchSize,
+        int ingestBatchWindowMs,
+        int grantClaimBatchSize,
+        int dispatchTickBudgetMs,
+        int mainThreadBudgetMs,
+        int writerQueueCapacity,
+        SnapshotMode snapshotMode,
+        int snapshotMaxPlayers,
+        int snapshotIdleMinutes,
+        int snapshotRecentDays,
+        int snapshotImageMinutes
+) {
+    public static PerformanceSettings defaults() {
+        return new PerformanceSettings(64, 5, 32, 2, 5, 1_000, SnapshotMode.FULL, 10_000, 30, 7, 10);
+    }
+
+    /** {@code FULL} keeps every player in memory; {@code BOUNDED} keeps online and recent voters, loading the rest. */
+    public enum SnapshotMode { FULL, BOUNDED }
+}
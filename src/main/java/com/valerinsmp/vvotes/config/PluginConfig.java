@@ -31,7 +31,8 @@ public record PluginConfig(
         int doubleSiteBonusRequiredSites,
         String doubleSiteBonusMessage,
         List<String> doubleSiteBonusCommands,
-        String doubleSiteTodayIcon
+        String doubleSiteTodayIcon,
+        PerformanceSettings performance
 ) {
     public PluginConfig {
         Map<String, List<String>> services = new HashMap<>();
@@ -46,6 +47,7 @@ public record PluginConfig(
         voteRewards = List.copyOf(voteRewards == null ? List.of() : voteRewards);
         monthlyStreakRewards = immutableTree(monthlyStreakRewards);
         doubleSiteBonusCommands = List.copyOf(doubleSiteBonusCommands == null ? List.of() : doubleSiteBonusCommands);
+        if (performance == null) performance = PerformanceSettings.defaults();
     }
 
     public List<String> forcedServiceCommands(String serviceName) {
@@ -61,7 +63,7 @@ public record PluginConfig(
                 "lp user <player> parent addtemp arcano 30d", 5, true, 3,
                 "<player> <green>Has votado en los 3 sitios y ganado Fly por 1 hora.</green>",
                 List.of("lp user <player> permission settemp protectionblocks.fly true 1h server=survival"),
-                " ☁ "
+                " ☁ ", PerformanceSettings.defaults()
         );
     }
 
@@ -0,0 +1,65 @@
+package com.valerinsmp.vvotes.papi;
+
+import com.valerinsmp.vvotes.service.VoteService;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Placeholder parameters resolved once; lookups of the canonical lowercase spelling never allocate.
+ * {@code top_monthly_<n>_name|votes} are precompiled for every position the leaderboard keeps.
+ */
+enum Placeholder {
+    TOTAL("total", "votes_total"),
+    DAILY("daily", "votes_daily"),
+    MONTHLY("monthly", "votes_monthly"),
+    STREAK_MONTHLY("streak_monthly"),
+    UNSUPPORTED_STREAK("streak_daily", "streak_weekly"),
+    GLOBAL_DAILY("global_daily"),
+    NEXT_GLOBAL_GOAL("next_global_goal"),
+    NEXT_MONTHLY_GOAL("next_monthly_goal"),
+    DOUBLE_SITE_TODAY_ICON("double_site_today_icon", "voted_two_sites_today_icon"),
+    ANNOUNCEMENTS_ENABLED("vote_announcements_enabled", "announcements_enabled"),
+    ANNOUNCEMENTS_STATE("vote_announcements_state", "announcements_state"),
+    RANK_MONTHLY("rank_monthly"),
+    RANK_TOTAL("rank_total"),
+    TOP_MONTHLY_NAME,
+    TOP_MONTHLY_VOTES;
+
+    private static final int MAX_FOLDED = 512;
+    private static final Map<String, Resolved> CANONICAL = new HashMap<>();
+    /** Other spellings seen at runtime, folded to lowercase once; bounded because params come from user config. */
+    private static final Map<String, Resolved> FOLDED = new ConcurrentHashMap<>();
+
+    static {
+        for (Placeholder placeholder : values()) {
+            for (String alias : placeholder.aliases) CANONICAL.put(alias, new Resolved(placeholder, 0));
+        }
+        for (int position = 1; position <= VoteService.LEADERBOARD_SIZE; position++) {
+            CANONICAL.put("top_monthly_" + position + "_name", new Resolved(TOP_MONTHLY_NAME, position));
+            CANONICAL.put("top_monthly_" + position + "_votes", new Resolved(TOP_MONTHLY_VOTES, position));
+        }
+    }
+
+    private final String[] aliases;
+
+    Placeholder(String... aliases) {
+        this.aliases = aliases;
+    }
+
+    /** Returns null for unknown parameters, which PlaceholderAPI reports as unresolved. */
+    static Resolved resolve(String params) {
+        Resolved resolved = CANONICAL.get(params);
+        if (resolved != null) return resolved;
+        resolved = FOLDED.get(params);
+        if (resolved != null) return resolved;
+        resolved = CANONICAL.get(params.toLowerCase(Locale.ROOT));
+        if (resolved != null && FOLDED.size() < MAX_FOLDED) FOLDED.put(params, resolved);
+        return resolved;
+    }
+
+    /** {@code position} is the 1-based leaderboard slot for the {@code TOP_MONTHLY_*} placeholders, 0 otherwise. */
+    record Resolved(Placeholder placeholder, int position) {}
+}
@@ -1,13 +1,15 @@
 package com.valerinsmp.vvotes.papi;
 
 import com.valerinsmp.vvotes.VVotesPlugin;
-import com.valerinsmp.vvotes.model.PlayerStats;
+import com.valerinsmp.vvotes.service.TopMonthEntry;
 import com.valerinsmp.vvotes.service.VoteService;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import org.bukkit.OfflinePlayer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.UUID;
+
 public final class VVotesExpansion extends PlaceholderExpansion {
     private final VVotesPlugin plugin;
     private final VoteService voteService;
@@ -43,21 +45,32 @@ public final class VVotesExpansion extends PlaceholderExpansion {
             return "0";
         }
 
-        PlayerStats stats = voteService.getStats(player.getUniqueId(), player.getName());
-        boolean muted = voteService.isVoteAnnouncementMuted(player.getUniqueId(), player.getName());
-        return switch (params.toLowerCase()) {
-            case "total", "votes_total" -> voteService.formatDouble(stats.totalVotes());
-            case "daily", "votes_daily" -> voteService.formatDouble(stats.dailyVotes());
-            case "monthly", "votes_monthly" -> voteService.formatDouble(stats.monthlyVotes());
-            case "streak_monthly" -> Integer.toString(stats.streakMonthly());
-            case "streak_daily", "streak_weekly" -> "0";
-            case "global_daily" -> voteService.formatDouble(voteService.getGlobalDailyVotes());
-            case "next_global_goal" -> Integer.toString(voteService.nextGlobalGoal(voteService.getGlobalDailyVotes()));
-            case "next_monthly_goal" -> Integer.toString(voteService.nextMonthlyGoal(stats.monthlyVotes()));
-            case "double_site_today_icon", "voted_two_sites_today_icon" -> voteService.getDoubleSiteTodayIcon(player.getUniqueId());
-            case "vote_announcements_enabled", "announcements_enabled" -> muted ? "false" : "true";
-            case "vote_announcements_state", "announcements_state" -> muted ? "OFF" : "ON";
-            default -> null;
+        Placeholder.Resolved resolved = Placeholder.resolve(params);
+        if (resolved == null) return null;
+        UUID uuid = player.getUniqueId();
+        String name = player.getName();
+        return switch (resolved.placeholder()) {
+            case TOTAL -> voteService.formatDouble(voteService.totalVotes(uuid, name));
+            case DAILY -> voteService.formatDouble(voteService.dailyVotes(uuid, name));
+            case MONTHLY -> voteService.formatDouble(voteService.monthlyVotes(uuid, name));
+            case STREAK_MONTHLY -> VoteService.formatCount(voteService.monthlyStreak(uuid, name));
+            case UNSUPPORTED_STREAK -> "0";
+            case GLOBAL_DAILY -> voteService.globalDailyText();
+            case NEXT_GLOBAL_GOAL -> voteService.nextGlobalGoalText();
+            case NEXT_MONTHLY_GOAL -> VoteService.formatCount(voteService.nextMonthlyGoal(voteService.monthlyVotes(uuid, name)));
+            case DOUBLE_SITE_TODAY_ICON -> voteService.getDoubleSiteTodayIcon(uuid);
+            case ANNOUNCEMENTS_ENABLED -> voteService.isVoteAnnouncementMuted(uuid, name) ? "false" : "true";
+            case ANNOUNCEMENTS_STATE -> voteService.isVoteAnnouncementMuted(uuid, name) ? "OFF" : "ON";
+            case RANK_MONTHLY -> VoteService.formatCount(voteService.monthlyRank(uuid));
+            case RANK_TOTAL -> VoteService.formatCount(voteService.totalRank(uuid, name));
+            case TOP_MONTHLY_NAME -> {
+                TopMonthEntry entry = voteService.topMonthly(resolved.position());
+                yield entry == null ? "" : entry.playerName();
+            }
+            case TOP_MONTHLY_VOTES -> {
+                TopMonthEntry entry = voteService.topMonthly(resolved.position());
+                yield entry == null ? "0" : voteService.formatDouble(entry.votes());
+            }
         };
     }
 }
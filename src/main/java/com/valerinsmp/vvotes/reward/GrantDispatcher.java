@@ -1,9 +1,15 @@
 package com.valerinsmp.vvotes.reward;
 
 import com.valerinsmp.vvotes.service.GrantClaim;
+import com.valerinsmp.vvotes.service.GrantOutcome;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 /** The only runtime boundary allowed to invoke external reward commands. */
 public final class GrantDispatcher {
     private final CommandRuntime runtime;
@@ -40,6 +46,35 @@ public final class GrantDispatcher {
         }
     }
 
+    /**
+     * Runs claims in order until {@code budgetNanos} is spent; the first claim always runs so a round makes progress.
+     * Once a claim of a batch is not DONE, its later sequences are released unrun, preserving batch ordering.
+     */
+    public List<GrantOutcome> dispatchAll(List<GrantClaim> claims, long budgetNanos) {
+        List<GrantOutcome> outcomes = new ArrayList<>(claims.size());
+        Set<String> stoppedBatches = new HashSet<>();
+        long start = runtime.nanoTime();
+        for (GrantClaim claim : claims) {
+            if (stoppedBatches.contains(claim.batchKey())) {
+                outcomes.add(GrantOutcome.released(claim, "previous sequence not completed"));
+                continue;
+            }
+            if (!outcomes.isEmpty() && runtime.nanoTime() - start >= budgetNanos) {
+                stoppedBatches.add(claim.batchKey());
+                outcomes.add(GrantOutcome.deferred(claim));
+                continue;
+            }
+            GrantOutcome outcome = switch (dispatch(claim)) {
+                case DONE -> GrantOutcome.done(claim);
+                case NOT_DISPATCHED -> GrantOutcome.released(claim, "target unavailable before dispatch");
+                case AMBIGUOUS -> GrantOutcome.ambiguous(claim, "dispatch returned false or threw");
+            };
+            if (!outcome.state().equals("DONE")) stoppedBatches.add(claim.batchKey());
+            outcomes.add(outcome);
+        }
+        return outcomes;
+    }
+
     public enum DispatchResult { DONE, NOT_DISPATCHED, AMBIGUOUS }
 
     interface CommandRuntime {
@@ -47,6 +82,8 @@ public final class GrantDispatcher {
         boolean isExactPlayerOnline(GrantClaim claim);
         boolean dispatchPlayer(GrantClaim claim, String command);
         boolean dispatchConsole(String command);
+
+        default long nanoTime() { return System.nanoTime(); }
     }
 
     private static final class BukkitCommandRuntime implements CommandRuntime {
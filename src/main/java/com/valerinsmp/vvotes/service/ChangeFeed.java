@@ -0,0 +1,17 @@
+package com.valerinsmp.vvotes.service;
+
+/** Tables whose rows carry the ledger change sequence and can be streamed with {@link VoteLedger#streamChanges}. */
+public enum ChangeFeed {
+    PLAYERS("players"),
+    MONTHLY_SNAPSHOTS("monthly_snapshots"),
+    DAILY_GLOBAL_SNAPSHOTS("daily_global_snapshots"),
+    REWARD_GRANTS("reward_grants");
+
+    private final String table;
+
+    ChangeFeed(String table) {
+        this.table = table;
+    }
+
+    public String table() { return table; }
+}
@@ -0,0 +1,109 @@
+package com.valerinsmp.vvotes.service;
+
+import com.valerinsmp.vvotes.config.CommandTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+
+/**
+ * Reward commands of one vote, materialized and hashed before it reaches the writer: every batch its plan could
+ * produce for that event and voter, keyed by batch. The writer transaction only decides which batches apply.
+ * Recurring global goals depend on the running total, so they are still built inside the transaction.
+ * Goal batches are only prepared for the next few thresholds above the counters last seen; a batch that was not
+ * prepared is built by the writer as before.
+ */
+public final class GrantCandidates {
+    /** Thresholds prepared per goal kind above the last seen counter. */
+    static final int GOAL_LOOKAHEAD = 2;
+
+    private final Map<String, List<Grant>> batches;
+
+    private GrantCandidates(Map<String, List<Grant>> batches) {
+        this.batches = batches;
+    }
+
+    /** Prepares every goal batch; see {@link #prepare(VoteEnvelope, PlayerIdentity, VotePlan, long, long, long)}. */
+    static GrantCandidates prepare(VoteEnvelope event, PlayerIdentity identity, VotePlan plan) {
+        return prepare(event, identity, plan, -1, -1, -1);
+    }
+
+    /**
+     * Counters are the voter's monthly votes and streak and the global daily votes as last seen, or -1 when unknown.
+     * They only decide which goals are worth preparing, never which ones apply.
+     */
+    static GrantCandidates prepare(VoteEnvelope event, PlayerIdentity identity, VotePlan plan,
+                                   long monthlyVotes, long monthlyStreak, long globalVotes) {
+        Map<String, List<Grant>> batches = new HashMap<>();
+        add(batches, event, identity, "VOTE", null, plan.voteCommands(), "CONSOLE");
+        add(batches, event, identity, "SERVICE_PLAYER", null, plan.servicePlayerCommands(), "PLAYER");
+        goals(batches, event, identity, "MONTHLY_GOAL", plan.monthlyGoals(), monthlyVotes);
+        goals(batches, event, identity, "MONTHLY_STREAK", plan.monthlyStreakGoals(), monthlyStreak);
+        goals(batches, event, null, "GLOBAL_GOAL", plan.globalGoals(), globalVotes);
+        if (plan.tripleSiteEnabled()) add(batches, event, identity, "TRIPLE_SITE", null, plan.tripleSiteCommands(), "CONSOLE");
+        return new GrantCandidates(batches);
+    }
+
+    /** The prepared batch, or null when it was not prepared. */
+    List<Grant> batch(String batchKey) {
+        return batches.get(batchKey);
+    }
+
+    /** Goal batches carry their threshold: one vote may cross several goals of the same kind. */
+    static String batchKey(String eventHash, String kind, String goal) {
+        return eventHash + ":" + kind.toLowerCase(Locale.ROOT) + (goal == null ? "" : ":" + goal);
+    }
+
+    static List<Grant> build(String batch, List<String> commands, PlayerIdentity target,
+                             Map<String, String> placeholders, String executor) {
+        List<Grant> grants = new ArrayList<>(commands.size());
+        String player = target == null ? null : target.exactName();
+        String uuid = target == null ? null : target.uuid().toString();
+        for (int i = 0; i < commands.size(); i++) {
+            String command = CommandTemplate.of(commands.get(i)).render(player, uuid, placeholders);
+            grants.add(new Grant(grantId(batch, i, command, executor), command));
+        }
+        return grants;
+    }
+
+    static String grantId(String batch, int sequence, String command, String executor) {
+        return VoteEnvelope.hashFields("vvotes-grant-v1", batch, Integer.toString(sequence), command, executor);
+    }
+
+    static String materialize(String command, PlayerIdentity player, Map<String, String> placeholders) {
+        return CommandTemplate.of(command).render(player == null ? null : player.exactName(),
+                player == null ? null : player.uuid().toString(), placeholders);
+    }
+
+    /** Placeholders of a vote grant besides player and uuid. */
+    static Map<String, String> placeholders(Map<String, String> extra, VoteEnvelope event) {
+        Map<String, String> map = new HashMap<>(extra);
+        map.put("service", event.normalizedService());
+        map.put("timestamp", event.providerTimestamp());
+        return map;
+    }
+
+    private static void goals(Map<String, List<Grant>> batches, VoteEnvelope event, PlayerIdentity target, String kind,
+                              NavigableMap<Integer, List<String>> goals, long seen) {
+        NavigableMap<Integer, List<String>> ahead = seen < 0 ? goals
+                : goals.tailMap((int) Math.min(seen, Integer.MAX_VALUE), false);
+        int prepared = 0;
+        for (Map.Entry<Integer, List<String>> goal : ahead.entrySet()) {
+            if (seen >= 0 && prepared++ == GOAL_LOOKAHEAD) break;
+            add(batches, event, target, kind, goal.getKey(), goal.getValue(), "CONSOLE");
+        }
+    }
+
+    private static void add(Map<String, List<Grant>> batches, VoteEnvelope event, PlayerIdentity target, String kind,
+                            Integer goal, List<String> commands, String executor) {
+        String threshold = goal == null ? null : goal.toString();
+        String batch = batchKey(event.eventHash(), kind, threshold);
+        batches.put(batch, build(batch, commands, target,
+                placeholders(threshold == null ? Map.of() : Map.of("goal", threshold), event), executor));
+    }
+
+    record Grant(String id, String command) {}
+}
@@ -0,0 +1,23 @@
+package com.valerinsmp.vvotes.service;
+
+/**
+ * Main-thread verdict for one claim, journaled by {@link VoteLedger#completeGrants}. {@code deferred} marks a claim
+ * released unrun because the tick budget ran out, which is worth reclaiming at once unlike an offline target.
+ */
+public record GrantOutcome(GrantClaim claim, String state, String reason, boolean deferred) {
+    public static GrantOutcome done(GrantClaim claim) {
+        return new GrantOutcome(claim, "DONE", "", false);
+    }
+
+    public static GrantOutcome released(GrantClaim claim, String reason) {
+        return new GrantOutcome(claim, "PENDING", reason, false);
+    }
+
+    public static GrantOutcome deferred(GrantClaim claim) {
+        return new GrantOutcome(claim, "PENDING", "tick budget exhausted", true);
+    }
+
+    public static GrantOutcome ambiguous(GrantClaim claim, String reason) {
+        return new GrantOutcome(claim, "AMBIGUOUS", reason, false);
+    }
+}
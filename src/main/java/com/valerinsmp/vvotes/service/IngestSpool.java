@@ -0,0 +1,275 @@
+package com.valerinsmp.vvotes.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped journal of captured provider events. A record is written before the event reaches the
+ * writer queue and acknowledged once the ledger committed it; anything past the checkpoint is replayed at startup.
+ * Replays are safe because the ledger rejects an event hash it already planned.
+ *
+ * <p>Layout: a 32-byte header (magic, version, epoch, checkpoint) followed by records of
+ * {@code [length][epoch][crc32][payload]}. When every record is acknowledged the spool rewinds and bumps the epoch,
+ * so stale bytes from an older epoch end the scan instead of being replayed.
+ *
+ * <p>A record the writer gave up on is {@link #retire retired}: copied to a sidecar file of {@code [length][crc32]
+ * [payload]} records and acknowledged, so it no longer holds the rewind back. The next {@link #open()} appends the
+ * sidecar back into the spool and replays it with everything else.
+ */
+public final class IngestSpool implements AutoCloseable {
+    private static final int MAGIC = 0x56565350; // "VVSP"
+    private static final int VERSION = 1;
+    private static final int HEADER = 32;
+    private static final int RECORD_HEADER = 12;
+    private static final int MAX_PAYLOAD = 4_096;
+    private static final long INITIAL_CAPACITY = 1L << 20;
+    private static final long MAX_CAPACITY = 64L << 20;
+
+    private final Path path;
+    private final Path retiredPath;
+    private final TreeMap<Long, Long> unacknowledged = new TreeMap<>();
+    private FileChannel channel;
+    private MappedByteBuffer map;
+    private int epoch;
+    private long checkpoint;
+    private long writeOffset;
+    private long forcedOffset;
+
+    public IngestSpool(Path path) {
+        this.path = path.toAbsolutePath();
+        this.retiredPath = this.path.resolveSibling(this.path.getFileName() + ".retired");
+    }
+
+    /** Maps the spool and returns the entries nobody acknowledged, in append order; they stay unacknowledged. */
+    synchronized List<Entry> open() throws IOException {
+        Path parent = path.getParent();
+        if (parent != null) Files.createDirectories(parent);
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        map(Math.max(INITIAL_CAPACITY, channel.size()));
+        if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+            epoch = 1;
+            rewind();
+            return List.of();
+        }
+        epoch = map.getInt(8);
+        checkpoint = Math.max(HEADER, Math.min(map.getLong(16), map.capacity()));
+        List<Entry> entries = new ArrayList<>();
+        long offset = checkpoint;
+        while (true) {
+            Entry entry = readAt(offset);
+            if (entry == null) break;
+            entries.add(entry);
+            unacknowledged.put(entry.offset(), entry.end());
+            offset = entry.end();
+        }
+        writeOffset = offset;
+        forcedOffset = offset;
+        entries.addAll(restoreRetired());
+        return entries;
+    }
+
+    /** Returns the record offset to acknowledge later, or -1 when the spool is closed or full. */
+    synchronized long append(VoteEnvelope event, PlayerIdentity identity) {
+        if (map == null) return -1;
+        return appendPayload(encode(event, identity));
+    }
+
+    private long appendPayload(byte[] payload) {
+        if (payload.length > MAX_PAYLOAD) return -1;
+        long end = writeOffset + RECORD_HEADER + payload.length;
+        try {
+            if (end + RECORD_HEADER > map.capacity()) {
+                if (end + RECORD_HEADER > MAX_CAPACITY) return -1;
+                map(Math.min(MAX_CAPACITY, Math.max(map.capacity() * 2L, end + RECORD_HEADER)));
+            }
+        } catch (IOException exception) {
+            return -1;
+        }
+        int start = (int) writeOffset;
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        map.putInt(start + 4, epoch);
+        map.putInt(start + 8, (int) crc.getValue());
+        map.put(start + RECORD_HEADER, payload);
+        map.putInt((int) end, 0);
+        map.putInt(start, payload.length); // published last: a torn append reads as the end of the spool
+        unacknowledged.put(writeOffset, end);
+        writeOffset = end;
+        return start;
+    }
+
+    /** Up to {@code limit} records from {@code offset} on, in append order; acknowledgement is unchanged. */
+    synchronized List<Entry> readFrom(long offset, int limit) {
+        if (map == null) return List.of();
+        List<Entry> entries = new ArrayList<>(Math.min(limit, 1_024));
+        long next = offset;
+        while (entries.size() < limit && next < writeOffset) {
+            Entry entry = readAt(next);
+            if (entry == null) break;
+            entries.add(entry);
+            next = entry.end();
+        }
+        return entries;
+    }
+
+    /** Flushes appended records to the device; the writer calls it before committing the batch they belong to. */
+    synchronized void force() {
+        if (map == null || forcedOffset >= writeOffset) return;
+        map.force((int) forcedOffset, (int) (writeOffset - forcedOffset));
+        forcedOffset = writeOffset;
+    }
+
+    /**
+     * Moves an unacknowledged record to the sidecar and acknowledges it; it is replayed at the next {@link #open()}.
+     * Returns false, leaving the record in place, when it is unknown or the sidecar cannot be written.
+     */
+    synchronized boolean retire(long offset) {
+        if (map == null || offset < 0 || !unacknowledged.containsKey(offset)) return false;
+        int start = (int) offset;
+        int length = map.getInt(start);
+        ByteBuffer record = ByteBuffer.allocate(8 + length);
+        record.putInt(length).putInt(map.getInt(start + 8));
+        record.put(map.slice(start + RECORD_HEADER, length)).flip();
+        try (FileChannel sidecar = FileChannel.open(retiredPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            while (record.hasRemaining()) sidecar.write(record);
+            sidecar.force(false);
+        } catch (IOException exception) {
+            return false;
+        }
+        acknowledge(offset);
+        return true;
+    }
+
+    synchronized void acknowledge(long offset) {
+        if (map == null || offset < 0 || unacknowledged.remove(offset) == null) return;
+        if (unacknowledged.isEmpty()) {
+            epoch++;
+            rewind();
+            return;
+        }
+        checkpoint = unacknowledged.firstKey();
+        map.putLong(16, checkpoint);
+    }
+
+    synchronized int pending() {
+        return unacknowledged.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (map != null) map.force();
+        map = null;
+        if (channel != null) {
+            try { channel.close(); } catch (IOException ignored) { }
+            channel = null;
+        }
+        unacknowledged.clear();
+    }
+
+    /** Appends the retired records back as ordinary entries; a crash before the sidecar is deleted only replays twice. */
+    private List<Entry> restoreRetired() throws IOException {
+        if (!Files.exists(retiredPath)) return List.of();
+        ByteBuffer records = ByteBuffer.wrap(Files.readAllBytes(retiredPath));
+        List<Entry> entries = new ArrayList<>();
+        while (records.remaining() >= 8) {
+            int length = records.getInt();
+            int checksum = records.getInt();
+            if (length <= 0 || length > MAX_PAYLOAD || length > records.remaining()) break;
+            byte[] payload = new byte[length];
+            records.get(payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) break;
+            long offset = appendPayload(payload);
+            if (offset < 0) throw new IOException("Spool full while restoring retired records");
+            entries.add(decode(payload, offset, writeOffset));
+        }
+        force();
+        Files.delete(retiredPath);
+        return entries;
+    }
+
+    private void rewind() {
+        checkpoint = HEADER;
+        writeOffset = HEADER;
+        map.putInt(0, MAGIC);
+        map.putInt(4, VERSION);
+        map.putInt(8, epoch);
+        map.putLong(16, checkpoint);
+        map.putInt(HEADER, 0);
+        map.force(0, HEADER + 4);
+        forcedOffset = writeOffset;
+    }
+
+    private void map(long capacity) throws IOException {
+        if (map != null) map.force();
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    private Entry readAt(long offset) {
+        if (offset + RECORD_HEADER > map.capacity()) return null;
+        int start = (int) offset;
+        int length = map.getInt(start);
+        if (length <= 0 || length > MAX_PAYLOAD || offset + RECORD_HEADER + length > map.capacity()) return null;
+        if (map.getInt(start + 4) != epoch) return null;
+        byte[] payload = new byte[length];
+        map.get(start + RECORD_HEADER, payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != map.getInt(start + 8)) return null;
+        try {
+            return decode(payload, offset, offset + RECORD_HEADER + length);
+        } catch (IOException | RuntimeException corrupt) {
+            return null;
+        }
+    }
+
+    private static byte[] encode(VoteEnvelope event, PlayerIdentity identity) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(event.eventHash());
+            out.writeUTF(event.normalizedName());
+            out.writeUTF(event.displayName());
+            out.writeUTF(event.normalizedService());
+            out.writeUTF(event.providerTimestamp());
+            out.writeBoolean(event.hasEconomicIdentity());
+            out.writeBoolean(event.testVote());
+            out.writeBoolean(identity != null);
+            if (identity != null) {
+                out.writeLong(identity.uuid().getMostSignificantBits());
+                out.writeLong(identity.uuid().getLeastSignificantBits());
+                out.writeUTF(identity.exactName());
+            }
+        } catch (IOException impossible) {
+            throw new IllegalStateException(impossible);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Entry decode(byte[] payload, long offset, long end) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            VoteEnvelope event = new VoteEnvelope(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(),
+                    in.readBoolean(), in.readBoolean());
+            PlayerIdentity identity = in.readBoolean()
+                    ? new PlayerIdentity(new UUID(in.readLong(), in.readLong()), in.readUTF()) : null;
+            return new Entry(event, identity, offset, end);
+        }
+    }
+
+    record Entry(VoteEnvelope event, PlayerIdentity identity, long offset, long end) {}
+}
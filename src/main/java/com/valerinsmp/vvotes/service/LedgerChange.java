@@ -0,0 +1,13 @@
+package com.valerinsmp.vvotes.service;
+
+import java.util.Map;
+
+/**
+ * Current state of one row written by the transaction {@code sequence}. Columns keep their SQLite names; uuids are
+ * {@link java.util.UUID}, hashes lowercase hex and counters {@code Long}.
+ */
+public record LedgerChange(
+        ChangeFeed feed,
+        long sequence,
+        Map<String, Object> columns
+) {}
@@ -0,0 +1,20 @@
+package com.valerinsmp.vvotes.service;
+
+import com.valerinsmp.vvotes.model.PlayerStats;
+
+/**
+ * Projection committed by a ledger write, captured inside its transaction so snapshots never trail SQLite.
+ * When the write was a vote, {@code standingMonth} and {@code standingVotes} mirror the player's
+ * {@code monthly_snapshots} row and {@code previousTotal} is the total before it; otherwise the month is empty and
+ * {@code previousTotal} is -1.
+ */
+public record LedgerPostState(PlayerStats stats, int distinctServicesToday, double globalDaily, String dayKey,
+                              String standingMonth, double standingVotes, double previousTotal) {
+    public LedgerPostState(PlayerStats stats, int distinctServicesToday, double globalDaily, String dayKey) {
+        this(stats, distinctServicesToday, globalDaily, dayKey, "", 0, -1);
+    }
+
+    LedgerPostState withVote(String monthKey, double votes, double totalBefore) {
+        return new LedgerPostState(stats, distinctServicesToday, globalDaily, dayKey, monthKey, votes, totalBefore);
+    }
+}
@@ -0,0 +1,4 @@
+package com.valerinsmp.vvotes.service;
+
+/** One committed chunk of the legacy pending migration; {@code scanned} is 0 when done and -1 when SQLite failed. */
+public record LegacyChunk(int scanned, int migrated, long lastId) {}
@@ -0,0 +1,90 @@
+package com.valerinsmp.vvotes.service;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Main-thread work of vVotes, posted from any thread and run by one repeating task per tick. Tasks run in the order
+ * they were posted, so everything queued for one player keeps its order; a tick stops once its budget is spent and
+ * the rest carries over to the next tick. Tasks posted while draining also wait for the next tick.
+ */
+public final class MainThreadMailbox {
+    /** Consecutive ticks with leftovers before the backlog is reported (5 s at 20 TPS). */
+    static final int CARRY_WARNING_TICKS = 100;
+
+    private final ConcurrentLinkedQueue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger backlog = new AtomicInteger();
+    private final Logger logger;
+    private final LongSupplier nanoTime;
+    private volatile int peakBacklog;
+    private volatile long carriedTicks;
+    private int carryStreak; // main thread only
+
+    public MainThreadMailbox(Logger logger) {
+        this(logger, System::nanoTime);
+    }
+
+    MainThreadMailbox(Logger logger, LongSupplier nanoTime) {
+        this.logger = logger;
+        this.nanoTime = nanoTime;
+    }
+
+    public void post(Runnable task) {
+        queue.add(task);
+        backlog.incrementAndGet();
+    }
+
+    /**
+     * Main thread only. Runs at least one task, then keeps going while {@code budgetNanos} lasts; returns how many
+     * tasks ran. A failing task is logged and does not stop the others.
+     */
+    public int drain(long budgetNanos) {
+        int pending = backlog.get();
+        if (pending > peakBacklog) peakBacklog = pending;
+        long startedAt = nanoTime.getAsLong();
+        int ran = 0;
+        while (ran < pending) {
+            if (ran > 0 && nanoTime.getAsLong() - startedAt >= budgetNanos) break;
+            Runnable task = queue.poll();
+            if (task == null) break;
+            backlog.decrementAndGet();
+            ran++;
+            try {
+                task.run();
+            } catch (RuntimeException failure) {
+                logger.log(Level.WARNING, "vVotes main-thread task failed", failure);
+            }
+        }
+        if (ran < pending) {
+            carriedTicks++;
+            if (++carryStreak == CARRY_WARNING_TICKS) {
+                logger.warning("Main-thread backlog carried over " + CARRY_WARNING_TICKS + " ticks in a row ("
+                        + backlog.get() + " tasks waiting)");
+            }
+        } else {
+            carryStreak = 0;
+        }
+        return ran;
+    }
+
+    /** Drops every queued task; used once the plugin stops. */
+    public void clear() {
+        while (queue.poll() != null) backlog.decrementAndGet();
+    }
+
+    /** Tasks waiting for a tick. */
+    public int backlog() { return backlog.get(); }
+
+    /** Largest backlog seen at the start of a tick. */
+    public int peakBacklog() { return peakBacklog; }
+
+    /** Ticks that hit the budget and left work for the next one. */
+    public long carriedTicks() { return carriedTicks; }
+
+    public Stats stats() { return new Stats(backlog(), peakBacklog, carriedTicks); }
+
+    public record Stats(int backlog, int peakBacklog, long carriedTicks) {}
+}
@@ -110,6 +110,7 @@ public final class MessageService {
             sender.sendMessage(command("/vvotesadmin drawmonthly [YYYY-MM]", "Ejecutar sorteo mensual"));
             sender.sendMessage(command("/vvotesadmin drawhistory|topmonth [YYYY-MM]", "Consultar sorteos"));
             sender.sendMessage(command("/vvotesadmin ambiguous", "Listar grants de resultado incierto"));
+            sender.sendMessage(command("/vvotesadmin status", "Colas del hilo principal y del escritor"));
         }
         Component navigation = Component.text(page == 1 ? "[Página siguiente]" : "[Página anterior]", NamedTextColor.AQUA)
                 .clickEvent(ClickEvent.runCommand("/vvotesadmin help " + (page == 1 ? 2 : 1)))
@@ -118,6 +119,23 @@ public final class MessageService {
         sender.sendMessage(Component.empty());
     }
 
+    public void sendStatus(CommandSender sender, MainThreadMailbox.Stats mainThread, int ingestBacklog,
+                           WriterQueue.Stats writer) {
+        sender.sendMessage(Component.empty());
+        sender.sendMessage(Component.text("vVotes · estado", NamedTextColor.GREEN));
+        sender.sendMessage(Component.text("Hilo principal: " + mainThread.backlog() + " tareas en espera (máximo "
+                + mainThread.peakBacklog() + ", " + mainThread.carriedTicks() + " ticks con atraso)", NamedTextColor.GRAY));
+        sender.sendMessage(Component.text("Votos en cola: " + ingestBacklog, NamedTextColor.GRAY));
+        sender.sendMessage(Component.text("Escritor SQLite: " + writer.depth() + " tareas, la más antigua hace "
+                + millis(writer.oldestAgeNanos()) + " ms; " + writer.rejected() + " rechazadas", NamedTextColor.GRAY));
+        for (WriterQueue.KindStats kind : writer.kinds()) {
+            sender.sendMessage(Component.text("  " + kind.kind().name().toLowerCase(Locale.ROOT) + ": " + kind.depth()
+                    + " en cola, " + kind.completed() + " hechas, media " + millis(kind.averageNanos()) + " ms, máx "
+                    + millis(kind.maxNanos()) + " ms", NamedTextColor.GRAY));
+        }
+        sender.sendMessage(Component.empty());
+    }
+
     public void sendAbout(CommandSender sender) {
         var meta = plugin.getPluginMeta();
         sender.sendMessage(Component.empty());
@@ -157,6 +175,10 @@ public final class MessageService {
         return line.isEmpty() ? Component.empty() : miniMessage.deserialize(line, resolver.build());
     }
 
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000D);
+    }
+
     private Component command(String syntax, String description) {
         return Component.text(syntax, NamedTextColor.GREEN)
                 .clickEvent(ClickEvent.suggestCommand(syntax.replaceAll(" <[^>]+>", "")))
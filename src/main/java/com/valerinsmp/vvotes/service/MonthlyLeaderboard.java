@@ -0,0 +1,103 @@
+package com.valerinsmp.vvotes.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Current-month ranking mirrored from {@code monthly_snapshots}: seeded at startup and moved by every committed vote.
+ * Writers are serialized; readers see an immutable top slice published through a volatile field and never lock,
+ * and any player's position comes from a {@link RankIndex} over the same standings.
+ */
+final class MonthlyLeaderboard {
+    private static final Comparator<MonthlyStanding> ORDER = Comparator
+            .comparingDouble(MonthlyStanding::votes).reversed()
+            .thenComparing(MonthlyStanding::playerName)
+            .thenComparing(MonthlyStanding::uuid);
+
+    private final int size;
+    private final Map<UUID, MonthlyStanding> standings = new ConcurrentHashMap<>();
+    private final TreeSet<MonthlyStanding> ranking = new TreeSet<>(ORDER);
+    private final RankIndex ranks = new RankIndex();
+    private volatile Top top = new Top("", new TopMonthEntry[0]);
+
+    MonthlyLeaderboard(int size) {
+        this.size = size;
+    }
+
+    synchronized void seed(String monthKey, List<MonthlyStanding> rows) {
+        standings.clear();
+        ranking.clear();
+        Map<Integer, Integer> histogram = new HashMap<>();
+        for (MonthlyStanding row : rows) {
+            standings.put(row.uuid(), row);
+            ranking.add(row);
+            histogram.merge((int) row.votes(), 1, Integer::sum);
+        }
+        ranks.seed(histogram);
+        publish(monthKey);
+    }
+
+    /** Standings of an older month than the one held are ignored; a newer month starts an empty ranking. */
+    synchronized void update(String monthKey, MonthlyStanding standing) {
+        int order = monthKey.compareTo(top.monthKey());
+        if (order < 0) return;
+        if (order > 0) {
+            standings.clear();
+            ranking.clear();
+            ranks.clear();
+        }
+        MonthlyStanding previous = standings.put(standing.uuid(), standing);
+        if (previous != null) ranking.remove(previous);
+        ranking.add(standing);
+        ranks.move(previous == null ? 0 : (long) previous.votes(), (long) standing.votes());
+        publish(monthKey);
+    }
+
+    /** Starts {@code monthKey} empty when the clock reaches it; standings of older months are ignored from then on. */
+    synchronized void roll(String monthKey) {
+        if (monthKey.compareTo(top.monthKey()) <= 0) return;
+        standings.clear();
+        ranking.clear();
+        ranks.clear();
+        publish(monthKey);
+    }
+
+    /** The entry at 1-based {@code position} of {@code monthKey}, or null when the month has fewer voters. */
+    TopMonthEntry at(String monthKey, int position) {
+        Top current = top;
+        if (position < 1 || position > current.entries().length || !monthKey.equals(current.monthKey())) return null;
+        return current.entries()[position - 1];
+    }
+
+    /** Position of a player in {@code monthKey}; ties share it and 0 means no votes that month. */
+    int rank(String monthKey, UUID uuid) {
+        if (!monthKey.equals(top.monthKey())) return 0;
+        MonthlyStanding standing = standings.get(uuid);
+        return standing == null ? 0 : ranks.rank((long) standing.votes());
+    }
+
+    List<TopMonthEntry> top(String monthKey, int limit) {
+        Top current = top;
+        if (!monthKey.equals(current.monthKey())) return List.of();
+        return List.of(current.entries()).subList(0, Math.min(Math.max(0, limit), current.entries().length));
+    }
+
+    int size() { return size; }
+
+    private void publish(String monthKey) {
+        List<TopMonthEntry> entries = new ArrayList<>(Math.min(size, ranking.size()));
+        for (MonthlyStanding standing : ranking) {
+            if (entries.size() == size) break;
+            entries.add(new TopMonthEntry(entries.size() + 1, standing.playerName(), standing.votes()));
+        }
+        top = new Top(monthKey, entries.toArray(TopMonthEntry[]::new));
+    }
+
+    private record Top(String monthKey, TopMonthEntry[] entries) {}
+}
@@ -0,0 +1,5 @@
+package com.valerinsmp.vvotes.service;
+
+import java.util.UUID;
+
+public record MonthlyStanding(UUID uuid, String playerName, double votes) {}
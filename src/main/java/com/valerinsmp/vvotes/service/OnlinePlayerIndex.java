@@ -0,0 +1,27 @@
+package com.valerinsmp.vvotes.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Exact identities of online players keyed by lowercase name. Join and quit maintain it on main, so a provider
+ * thread resolves a vote's player without a main-thread hop; a quit only removes the identity its join added.
+ */
+final class OnlinePlayerIndex {
+    private final Map<String, PlayerIdentity> byName = new ConcurrentHashMap<>();
+
+    void add(PlayerIdentity identity) {
+        byName.put(identity.normalizedName(), identity);
+    }
+
+    void remove(PlayerIdentity identity) {
+        byName.remove(identity.normalizedName(), identity);
+    }
+
+    /** Null when nobody with that name is online. */
+    PlayerIdentity find(String normalizedName) {
+        return normalizedName == null ? null : byName.get(normalizedName);
+    }
+
+    int size() { return byName.size(); }
+}
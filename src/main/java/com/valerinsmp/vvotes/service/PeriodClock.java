@@ -0,0 +1,103 @@
+package com.valerinsmp.vvotes.service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Day and month keys of the configured zone, computed once per day instead of on every read. Reads compare the
+ * clock against the precomputed end of the day and only then roll over, so keys are never stale even if the
+ * scheduled refresh runs late; each rollover is published once, to every subscriber, before the new keys are
+ * visible to anyone else.
+ */
+public final class PeriodClock {
+    private final Clock clock;
+    private final ZoneId zone;
+    private final List<Consumer<Rollover>> subscribers = new CopyOnWriteArrayList<>();
+    private volatile Period current;
+    private volatile boolean running;
+    private Period rolling; // guarded by this; a subscriber reading the clock gets the period being published
+
+    public PeriodClock(Clock clock, ZoneId zone) {
+        this.clock = clock;
+        this.zone = zone;
+        this.current = periodAt(clock.instant(), zone);
+    }
+
+    public Period current() {
+        Period period = current;
+        return clock.millis() < period.endsAtMillis() ? period : roll();
+    }
+
+    public String dayKey() { return current().dayKey(); }
+    public String monthKey() { return current().monthKey(); }
+    public ZoneId zone() { return zone; }
+    public long epochSecond() { return clock.instant().getEpochSecond(); }
+
+    /** Listeners run on the thread that noticed the boundary, before any other thread sees the new keys. */
+    public void subscribe(Consumer<Rollover> listener) {
+        subscribers.add(listener);
+    }
+
+    /** Rolls over at every midnight of the zone on {@code executor} until {@link #stop()}. */
+    public void start(Executor executor) {
+        running = true;
+        scheduleRollover(executor);
+    }
+
+    public void stop() {
+        running = false;
+    }
+
+    static Period periodAt(Instant instant, ZoneId zone) {
+        LocalDate day = LocalDate.ofInstant(instant, zone);
+        YearMonth month = YearMonth.from(day);
+        return new Period(day.toString(), month.toString(), month.minusMonths(1).toString(), (int) day.toEpochDay(),
+                month.getYear() * 12 + month.getMonthValue() - 1,
+                day.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+    }
+
+    private synchronized Period roll() {
+        Period previous = current;
+        Instant now = clock.instant();
+        if (rolling != null) return rolling;
+        if (now.toEpochMilli() < previous.endsAtMillis()) return previous; // another reader rolled first
+        Period next = periodAt(now, zone);
+        Rollover rollover = new Rollover(previous, next);
+        rolling = next;
+        try {
+            for (Consumer<Rollover> subscriber : subscribers) subscriber.accept(rollover);
+        } finally {
+            rolling = null;
+            current = next;
+        }
+        return next;
+    }
+
+    private void scheduleRollover(Executor executor) {
+        long delay = Math.max(1, current().endsAtMillis() - clock.millis());
+        CompletableFuture.runAsync(() -> {
+            if (!running) return;
+            current();
+            scheduleRollover(executor);
+        }, CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, executor));
+    }
+
+    /**
+     * Keys of one day; {@code epochMonth} is {@code year * 12 + month - 1} like {@link PlayerStatsTable#epochMonth}.
+     */
+    public record Period(String dayKey, String monthKey, String previousMonthKey, int epochDay, int epochMonth,
+                         long endsAtMillis) {}
+
+    public record Rollover(Period previous, Period current) {
+        public boolean monthChanged() { return !previous.monthKey().equals(current.monthKey()); }
+    }
+}
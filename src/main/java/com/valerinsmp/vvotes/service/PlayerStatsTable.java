@@ -0,0 +1,408 @@
+package com.valerinsmp.vvotes.service;
+
+import com.valerinsmp.vvotes.model.PlayerStats;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Predicate;
+
+/**
+ * Struct-of-arrays player projection: an open-addressing table keyed by the two UUID longs with counters, period
+ * keys (epoch day / epoch month) and access marks in primitive arrays. Writers take the write lock; readers run
+ * optimistically and only fall back to the read lock when a write raced them, so hot reads allocate nothing.
+ * Access is recorded as the current sweep generation, written only when it changed, so concurrent readers do not
+ * keep invalidating each other's cache lines.
+ */
+final class PlayerStatsTable {
+    static final int NO_PERIOD = Integer.MIN_VALUE;
+    private static final int MIN_CAPACITY = 64;
+
+    enum Column { TOTAL, DAILY, MONTHLY, STREAK }
+
+    private final StampedLock lock = new StampedLock();
+    private volatile Table table = new Table(MIN_CAPACITY);
+    private volatile int generation;
+
+    /** Replaces every row; used once at startup. */
+    void load(Iterable<PlayerStats> rows, int expected) {
+        Table next = new Table(capacityFor(expected));
+        for (PlayerStats row : rows) {
+            next = next.withRoom();
+            next.put(row, generation, true);
+        }
+        long stamp = lock.writeLock();
+        try {
+            table = next;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Replaces every row with an image's columns without materializing a record per player. */
+    void load(Rows rows) {
+        Table next = new Table(capacityFor(rows.size()));
+        for (int i = 0; i < rows.size(); i++) next.put(rows, i, generation);
+        long stamp = lock.writeLock();
+        try {
+            table = next;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Dense copy of every row taken under the read lock, cheap enough for the writer; serializing it is not. */
+    Rows export() {
+        long stamp = lock.readLock();
+        try {
+            Table current = table;
+            Rows rows = new Rows(current.size);
+            int count = 0;
+            for (int slot = 0; slot < current.used.length; slot++) {
+                if (!current.used[slot]) continue;
+                rows.msb[count] = current.msb[slot];
+                rows.lsb[count] = current.lsb[slot];
+                rows.names[count] = current.names[slot];
+                rows.total[count] = current.total[slot];
+                rows.daily[count] = current.daily[slot];
+                rows.monthly[count] = current.monthly[slot];
+                rows.streak[count] = current.streak[slot];
+                rows.day[count] = current.day[slot];
+                rows.month[count] = current.month[slot];
+                rows.lastVoteEpoch[count] = current.lastVoteEpoch[slot];
+                count++;
+            }
+            return rows;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /** Players per all-time total, skipping players without votes. */
+    Map<Integer, Integer> totalHistogram() {
+        long stamp = lock.readLock();
+        try {
+            Table current = table;
+            Map<Integer, Integer> histogram = new HashMap<>();
+            for (int slot = 0; slot < current.used.length; slot++) {
+                if (current.used[slot] && current.total[slot] > 0) histogram.merge(current.total[slot], 1, Integer::sum);
+            }
+            return histogram;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    void put(PlayerStats row) { write(row, true); }
+
+    /** Inserts only when the player is absent, so an on-demand read never replaces a newer projection. */
+    void putIfAbsent(PlayerStats row) { write(row, false); }
+
+    boolean contains(UUID uuid) {
+        long stamp = lock.tryOptimisticRead();
+        boolean found = table.find(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()) >= 0;
+        if (lock.validate(stamp)) return found;
+        stamp = lock.readLock();
+        try {
+            return table.find(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()) >= 0;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /** Allocation-free read; -1 when the player is not loaded, daily and monthly read 0 once their period ended. */
+    long value(UUID uuid, Column column, int epochDay, int epochMonth) {
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        long stamp = lock.tryOptimisticRead();
+        Table current = table;
+        int slot = current.find(msb, lsb);
+        long value = slot < 0 ? -1 : current.value(slot, column, epochDay, epochMonth);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                current = table;
+                slot = current.find(msb, lsb);
+                value = slot < 0 ? -1 : current.value(slot, column, epochDay, epochMonth);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        int now = generation;
+        if (slot >= 0 && current.accessed[slot] != now) current.accessed[slot] = now;
+        return value;
+    }
+
+    /** Materializes a row for callers that need the whole record; null when the player is not loaded. */
+    PlayerStats get(UUID uuid) {
+        long stamp = lock.readLock();
+        try {
+            Table current = table;
+            int slot = current.find(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+            if (slot < 0) return null;
+            current.accessed[slot] = generation;
+            return current.row(slot);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    int size() { return table.size; }
+
+    /**
+     * Starts a new sweep generation and drops rows unread for more than {@code idleSweeps} generations unless they
+     * voted since {@code keepVotedSince}, then the least recently read rows until at most {@code maxPlayers} remain.
+     * {@code pinned} rows are never dropped.
+     */
+    int evict(int maxPlayers, int idleSweeps, long keepVotedSince, Predicate<UUID> pinned) {
+        long stamp = lock.writeLock();
+        try {
+            Table current = table;
+            int now = ++generation;
+            int before = current.size;
+            for (int slot = 0; slot < current.used.length; slot++) {
+                if (!current.used[slot] || now - current.accessed[slot] <= idleSweeps
+                        || current.lastVoteEpoch[slot] >= keepVotedSince || pinned.test(current.uuid(slot))) continue;
+                current.removeAt(slot);
+                slot--; // backward shift may have moved a later row into this slot
+            }
+            int excess = current.size - maxPlayers;
+            if (excess > 0) {
+                int[] times = new int[current.size];
+                int count = 0;
+                for (int slot = 0; slot < current.used.length; slot++) {
+                    if (current.used[slot] && !pinned.test(current.uuid(slot))) times[count++] = current.accessed[slot];
+                }
+                if (count > 0) {
+                    Arrays.sort(times, 0, count);
+                    int cutoff = times[Math.min(excess, count) - 1];
+                    for (int slot = 0; slot < current.used.length && current.size > maxPlayers; slot++) {
+                        if (!current.used[slot] || current.accessed[slot] > cutoff || pinned.test(current.uuid(slot))) continue;
+                        current.removeAt(slot);
+                        slot--;
+                    }
+                }
+            }
+            return before - current.size;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    static int epochDay(String dayKey) {
+        return dayKey == null || dayKey.isEmpty() ? NO_PERIOD : (int) LocalDate.parse(dayKey).toEpochDay();
+    }
+
+    static int epochMonth(String monthKey) {
+        if (monthKey == null || monthKey.isEmpty()) return NO_PERIOD;
+        YearMonth month = YearMonth.parse(monthKey);
+        return month.getYear() * 12 + month.getMonthValue() - 1;
+    }
+
+    private void write(PlayerStats row, boolean replace) {
+        long stamp = lock.writeLock();
+        try {
+            Table current = table.withRoom();
+            table = current;
+            current.put(row, generation, replace);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private static int capacityFor(int expected) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3L < Math.max(0, expected) * 4L) capacity <<= 1;
+        return capacity;
+    }
+
+    private static int hash(long msb, long lsb) {
+        long mixed = (msb ^ lsb) * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+    private static String monthKey(int epochMonth) {
+        return epochMonth == NO_PERIOD ? "" : YearMonth.of(Math.floorDiv(epochMonth, 12), Math.floorMod(epochMonth, 12) + 1).toString();
+    }
+
+    private static final class Table {
+        private final long[] msb;
+        private final long[] lsb;
+        private final boolean[] used;
+        private final String[] names;
+        private final int[] total;
+        private final int[] daily;
+        private final int[] monthly;
+        private final int[] streak;
+        private final int[] day;
+        private final int[] month;
+        private final long[] lastVoteEpoch;
+        private final int[] accessed;
+        private int size;
+
+        private Table(int capacity) {
+            msb = new long[capacity];
+            lsb = new long[capacity];
+            used = new boolean[capacity];
+            names = new String[capacity];
+            total = new int[capacity];
+            daily = new int[capacity];
+            monthly = new int[capacity];
+            streak = new int[capacity];
+            day = new int[capacity];
+            month = new int[capacity];
+            lastVoteEpoch = new long[capacity];
+            accessed = new int[capacity];
+        }
+
+        /** Bounded probe: under an optimistic read the arrays may be mid-write, so it must never spin forever. */
+        private int find(long high, long low) {
+            int mask = used.length - 1;
+            int slot = hash(high, low) & mask;
+            for (int probes = 0; probes < used.length; probes++) {
+                if (!used[slot]) return -1;
+                if (msb[slot] == high && lsb[slot] == low) return slot;
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private long value(int slot, Column column, int epochDay, int epochMonth) {
+            return switch (column) {
+                case TOTAL -> total[slot];
+                case DAILY -> day[slot] == epochDay ? daily[slot] : 0;
+                case MONTHLY -> month[slot] == epochMonth ? monthly[slot] : 0;
+                case STREAK -> streak[slot];
+            };
+        }
+
+        private void put(PlayerStats row, int now, boolean replace) {
+            long high = row.uuid().getMostSignificantBits();
+            long low = row.uuid().getLeastSignificantBits();
+            int mask = used.length - 1;
+            int slot = hash(high, low) & mask;
+            while (used[slot] && (msb[slot] != high || lsb[slot] != low)) slot = (slot + 1) & mask;
+            if (used[slot] && !replace) return;
+            if (!used[slot]) size++;
+            msb[slot] = high;
+            lsb[slot] = low;
+            names[slot] = row.name() == null ? "" : row.name().intern();
+            total[slot] = (int) row.totalVotes();
+            daily[slot] = (int) row.dailyVotes();
+            monthly[slot] = (int) row.monthlyVotes();
+            streak[slot] = row.streakMonthly();
+            day[slot] = epochDay(row.lastVoteDay());
+            month[slot] = epochMonth(row.lastMonthKey());
+            lastVoteEpoch[slot] = row.lastVoteEpoch();
+            accessed[slot] = now;
+            used[slot] = true; // set last so an optimistic probe never matches a half-written key
+        }
+
+        /** Startup-only insert of a row known to be absent. */
+        private void put(Rows rows, int index, int now) {
+            long high = rows.msb[index];
+            long low = rows.lsb[index];
+            int mask = used.length - 1;
+            int slot = hash(high, low) & mask;
+            while (used[slot]) slot = (slot + 1) & mask;
+            size++;
+            msb[slot] = high;
+            lsb[slot] = low;
+            names[slot] = rows.names[index];
+            total[slot] = rows.total[index];
+            daily[slot] = rows.daily[index];
+            monthly[slot] = rows.monthly[index];
+            streak[slot] = rows.streak[index];
+            day[slot] = rows.day[index];
+            month[slot] = rows.month[index];
+            lastVoteEpoch[slot] = rows.lastVoteEpoch[index];
+            accessed[slot] = now;
+            used[slot] = true;
+        }
+
+        /** Keeps the load factor under 3/4 so probes stay short and always reach an empty slot. */
+        private Table withRoom() {
+            if ((size + 1) * 4L <= used.length * 3L) return this;
+            Table next = new Table(used.length * 2);
+            for (int slot = 0; slot < used.length; slot++) {
+                if (used[slot]) next.put(row(slot), accessed[slot], true);
+            }
+            return next;
+        }
+
+        private PlayerStats row(int slot) {
+            return new PlayerStats(uuid(slot), names[slot], total[slot], daily[slot], monthly[slot], streak[slot],
+                    day[slot] == NO_PERIOD ? "" : LocalDate.ofEpochDay(day[slot]).toString(), monthKey(month[slot]),
+                    lastVoteEpoch[slot]);
+        }
+
+        private UUID uuid(int slot) { return new UUID(msb[slot], lsb[slot]); }
+
+        /** Backward-shift deletion keeps every probe chain contiguous without tombstones. */
+        private void removeAt(int slot) {
+            int mask = used.length - 1;
+            int hole = slot;
+            int next = (hole + 1) & mask;
+            while (used[next]) {
+                int home = hash(msb[next], lsb[next]) & mask;
+                boolean movable = hole <= next ? home <= hole || home > next : home <= hole && home > next;
+                if (movable) {
+                    move(next, hole);
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            used[hole] = false;
+            names[hole] = null;
+            size--;
+        }
+
+        private void move(int from, int to) {
+            msb[to] = msb[from];
+            lsb[to] = lsb[from];
+            names[to] = names[from];
+            total[to] = total[from];
+            daily[to] = daily[from];
+            monthly[to] = monthly[from];
+            streak[to] = streak[from];
+            day[to] = day[from];
+            month[to] = month[from];
+            lastVoteEpoch[to] = lastVoteEpoch[from];
+            accessed[to] = accessed[from];
+            used[to] = true;
+        }
+    }
+
+    /** Dense columns of {@code size} rows, in the table's own units (epoch day and epoch month keys). */
+    static final class Rows {
+        final long[] msb;
+        final long[] lsb;
+        final String[] names;
+        final int[] total;
+        final int[] daily;
+        final int[] monthly;
+        final int[] streak;
+        final int[] day;
+        final int[] month;
+        final long[] lastVoteEpoch;
+
+        Rows(int size) {
+            msb = new long[size];
+            lsb = new long[size];
+            names = new String[size];
+            total = new int[size];
+            daily = new int[size];
+            monthly = new int[size];
+            streak = new int[size];
+            day = new int[size];
+            month = new int[size];
+            lastVoteEpoch = new long[size];
+        }
+
+        int size() { return msb.length; }
+    }
+}
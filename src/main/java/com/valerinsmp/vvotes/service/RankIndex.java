@@ -0,0 +1,88 @@
+package com.valerinsmp.vvotes.service;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Order statistics over whole vote counts: a Fenwick tree counting players per count, so the rank of a count is
+ * {@code 1 + players with more votes} in O(log max). The tree doubles when a count outgrows it; since its size is a
+ * power of two the old nodes stay valid and only the new root needs the running total.
+ */
+final class RankIndex {
+    private static final int MIN_SIZE = 64;
+
+    private final StampedLock lock = new StampedLock();
+    private int[] tree = new int[MIN_SIZE + 1];
+    private int players;
+
+    /** Replaces every count with {@code playersPerCount}; counts below 1 are not ranked. */
+    void seed(Map<Integer, Integer> playersPerCount) {
+        long stamp = lock.writeLock();
+        try {
+            tree = new int[MIN_SIZE + 1];
+            players = 0;
+            playersPerCount.forEach((count, amount) -> {
+                if (count > 0 && amount > 0) add(count, amount);
+            });
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    void clear() { seed(Map.of()); }
+
+    /** Moves one player from {@code from} to {@code to}; a count below 1 means "not ranked". */
+    void move(long from, long to) {
+        if (from == to) return;
+        long stamp = lock.writeLock();
+        try {
+            if (from > 0) add(clamp(from), -1);
+            if (to > 0) add(clamp(to), 1);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** 1-based position of a player holding {@code count} votes; ties share a position. 0 when unranked. */
+    int rank(long count) {
+        if (count <= 0) return 0;
+        int value = clamp(count);
+        long stamp = lock.tryOptimisticRead();
+        int rank = rankIn(tree, players, value);
+        if (lock.validate(stamp)) return rank;
+        stamp = lock.readLock();
+        try {
+            return rankIn(tree, players, value);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    int players() { return players; }
+
+    private static int rankIn(int[] nodes, int ranked, int count) {
+        int size = nodes.length - 1;
+        if (count >= size) return 1; // above every stored count
+        int atMost = 0;
+        for (int index = count; index > 0; index -= index & -index) atMost += nodes[index];
+        return 1 + ranked - atMost;
+    }
+
+    private void add(int count, int delta) {
+        while (count >= tree.length - 1) grow();
+        for (int index = count; index < tree.length; index += index & -index) tree[index] += delta;
+        players += delta;
+    }
+
+    private void grow() {
+        int size = tree.length - 1;
+        int[] grown = Arrays.copyOf(tree, size * 2 + 1);
+        grown[size * 2] = players; // the new root covers every count stored so far
+        tree = grown;
+    }
+
+    private static int clamp(long count) {
+        return (int) Math.min(count, 1 << 30);
+    }
+}
@@ -0,0 +1,116 @@
+package com.valerinsmp.vvotes.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Binary image of the full player snapshot, tagged with the ledger's change sequence. Startup maps it and replays only
+ * the players written after that sequence instead of scanning every row; a missing, corrupt or foreign image simply
+ * means a full load.
+ *
+ * <p>Layout: a 40-byte header (magic, version, rows, crc32 of the body, change sequence, ledger id), then fixed
+ * 48-byte rows and finally the names as {@code [u16 length][utf-8]}. Images are written beside the target and moved
+ * over it atomically, so a crash leaves the previous image intact.
+ */
+public final class SnapshotImage {
+    private static final int MAGIC = 0x56565349; // "VVSI"
+    private static final int VERSION = 1;
+    private static final int HEADER = 40;
+    private static final int ROW = 48;
+
+    private final Path path;
+
+    public SnapshotImage(Path path) {
+        this.path = path.toAbsolutePath();
+    }
+
+    /** Returns the image size in bytes. */
+    synchronized long write(PlayerStatsTable.Rows rows, long changeSequence, UUID ledgerId) throws IOException {
+        byte[][] names = new byte[rows.size()][];
+        long size = HEADER + (long) rows.size() * ROW;
+        for (int i = 0; i < rows.size(); i++) {
+            byte[] name = rows.names[i] == null ? new byte[0] : rows.names[i].getBytes(StandardCharsets.UTF_8);
+            names[i] = name.length > 0xFFFF ? new byte[0] : name;
+            size += 2 + names[i].length;
+        }
+        if (size > Integer.MAX_VALUE) throw new IOException("snapshot image too large");
+        Path parent = path.getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Path partial = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            map.position(HEADER);
+            for (int i = 0; i < rows.size(); i++) {
+                map.putLong(rows.msb[i]).putLong(rows.lsb[i])
+                        .putInt(rows.total[i]).putInt(rows.daily[i]).putInt(rows.monthly[i]).putInt(rows.streak[i])
+                        .putInt(rows.day[i]).putInt(rows.month[i]).putLong(rows.lastVoteEpoch[i]);
+            }
+            for (byte[] name : names) map.putShort((short) name.length).put(name);
+            map.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, rows.size()).putInt(12, crc(map, (int) size))
+                    .putLong(16, changeSequence)
+                    .putLong(24, ledgerId.getMostSignificantBits()).putLong(32, ledgerId.getLeastSignificantBits());
+            map.force();
+        }
+        Files.move(partial, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return size;
+    }
+
+    /** Null when there is no usable image for {@code ledgerId}. */
+    Loaded read(UUID ledgerId) {
+        if (ledgerId == null || !Files.isRegularFile(path)) return null;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER || size > Integer.MAX_VALUE) return null;
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int count = map.getInt(8);
+            if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION || count < 0
+                    || HEADER + (long) count * (ROW + 2) > size
+                    || map.getLong(24) != ledgerId.getMostSignificantBits()
+                    || map.getLong(32) != ledgerId.getLeastSignificantBits()
+                    || map.getInt(12) != crc(map, (int) size)) {
+                return null;
+            }
+            PlayerStatsTable.Rows rows = new PlayerStatsTable.Rows(count);
+            map.position(HEADER);
+            for (int i = 0; i < count; i++) {
+                rows.msb[i] = map.getLong();
+                rows.lsb[i] = map.getLong();
+                rows.total[i] = map.getInt();
+                rows.daily[i] = map.getInt();
+                rows.monthly[i] = map.getInt();
+                rows.streak[i] = map.getInt();
+                rows.day[i] = map.getInt();
+                rows.month[i] = map.getInt();
+                rows.lastVoteEpoch[i] = map.getLong();
+            }
+            byte[] scratch = new byte[0xFFFF];
+            for (int i = 0; i < count; i++) {
+                int length = map.getShort() & 0xFFFF;
+                map.get(scratch, 0, length);
+                rows.names[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+            }
+            if (map.position() != size) return null;
+            return new Loaded(rows, map.getLong(16));
+        } catch (IOException | RuntimeException unreadable) {
+            return null;
+        }
+    }
+
+    private static int crc(ByteBuffer map, int size) {
+        CRC32 crc = new CRC32();
+        crc.update(map.slice(HEADER, size - HEADER));
+        return (int) crc.getValue();
+    }
+
+    record Loaded(PlayerStatsTable.Rows rows, long changeSequence) {}
+}
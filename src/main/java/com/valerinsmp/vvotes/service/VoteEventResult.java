@@ -2,17 +2,18 @@ package com.valerinsmp.vvotes.service;
 
 import java.util.List;
 
+/** {@code postState} is only present when the event changed a player projection. */
 public record VoteEventResult(VoteEventState state, String eventHash, List<String> grantIds,
-                              List<VoteNotice> notices, String error) {
+                              List<VoteNotice> notices, String error, LedgerPostState postState) {
     static VoteEventResult of(VoteEventState state, String hash, List<String> grants) {
-        return new VoteEventResult(state, hash, List.copyOf(grants), List.of(), "");
+        return new VoteEventResult(state, hash, List.copyOf(grants), List.of(), "", null);
     }
 
-    static VoteEventResult planned(String hash, List<String> grants, List<VoteNotice> notices) {
-        return new VoteEventResult(VoteEventState.PLANNED, hash, List.copyOf(grants), List.copyOf(notices), "");
+    static VoteEventResult planned(String hash, List<String> grants, List<VoteNotice> notices, LedgerPostState postState) {
+        return new VoteEventResult(VoteEventState.PLANNED, hash, List.copyOf(grants), List.copyOf(notices), "", postState);
     }
 
     static VoteEventResult error(String hash, Exception exception) {
-        return new VoteEventResult(VoteEventState.ERROR, hash, List.of(), List.of(), exception.getMessage());
+        return new VoteEventResult(VoteEventState.ERROR, hash, List.of(), List.of(), exception.getMessage(), null);
     }
 }
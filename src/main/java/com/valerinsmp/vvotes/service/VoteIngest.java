@@ -0,0 +1,25 @@
+package com.valerinsmp.vvotes.service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * One captured provider event queued for group-commit; identity is null while the voter is offline.
+ * {@code spoolOffset} is the IngestSpool record to acknowledge after commit (-1 when not spooled).
+ * {@code candidates} are its grant batches being prepared off the writer, or null when nothing is prepared.
+ */
+public record VoteIngest(VoteEnvelope event, PlayerIdentity identity, VotePlan plan, long spoolOffset, int attempt,
+                         CompletableFuture<GrantCandidates> candidates) {
+    public VoteIngest(VoteEnvelope event, PlayerIdentity identity, VotePlan plan) {
+        this(event, identity, plan, -1, 0, null);
+    }
+
+    VoteIngest retry() {
+        return new VoteIngest(event, identity, plan, spoolOffset, attempt + 1, candidates);
+    }
+
+    /** The prepared batches if they are ready; the writer never waits for them. */
+    GrantCandidates preparedCandidates() {
+        if (candidates == null || !candidates.isDone() || candidates.isCompletedExceptionally()) return null;
+        return candidates.join();
+    }
+}
@@ -3,6 +3,7 @@ package com.valerinsmp.vvotes.service;
 import com.valerinsmp.vvotes.model.PlayerStats;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
@@ -10,153 +11,249 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.YearMonth;
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
 import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.function.IntUnaryOperator;
 
-/** SQLite event/grant journal. All mutating entry points are serialized. */
+/**
+ * SQLite event/grant journal. All mutating entry points are serialized on one long-lived connection; read-only
+ * queries borrow a pooled query_only connection and see one WAL snapshot without taking the writer monitor.
+ */
 public final class VoteLedger implements AutoCloseable {
-    private static final int SCHEMA_VERSION = 2;
+    private static final int SCHEMA_VERSION = 6;
+    private static final int COMPACT_KEYS_VERSION = 4;
+    private static final int CHANGE_FEED_VERSION = 6;
+    /** Tables whose v4 layout stores uuids and hashes as BLOB, counters as INTEGER, or drops the rowid. */
+    private static final List<String> COMPACT_TABLES = List.of("players", "global_stats", "player_preferences",
+            "goal_claims_global", "goal_claims_player", "monthly_snapshots", "daily_global_snapshots", "vote_events",
+            "vote_plans", "reward_grants", "grant_heads", "legacy_pending_migrations");
+    private static final HexFormat HEX = HexFormat.of();
+    private static final String SEED_GLOBAL_SNAPSHOT = """
+            INSERT OR IGNORE INTO daily_global_snapshots(day_key, votes)
+            SELECT last_daily_reset, daily_votes FROM global_stats WHERE id=1 AND last_daily_reset <> ''
+            """;
+    private static final int PLAN_CACHE_SIZE = 64;
+    private static final int READ_POOL_SIZE = 4;
+    /** Legacy pending rows per migration transaction; each chunk releases the writer. */
+    static final int LEGACY_CHUNK_SIZE = 500;
     private final Path databasePath;
     private final int busyTimeoutMs;
-    private final Clock clock;
-    private final ZoneId zoneId;
+    private final PeriodClock periods;
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+    private final Map<VotePlan, String> planIds = new IdentityHashMap<>();
+    private final Set<String> storedPlanIds = new HashSet<>();
+    private final Map<String, VotePlan> parsedPlans = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, VotePlan> eldest) {
+            return size() > PLAN_CACHE_SIZE;
+        }
+    };
+    private final BlockingQueue<ReadConnection> readers = new ArrayBlockingQueue<>(READ_POOL_SIZE);
+    private final AtomicInteger openedReaders = new AtomicInteger();
+    private volatile boolean closed;
+    private volatile long changeSequence;
+    private long pendingChange;
+    private UUID ledgerId;
+    private Connection connection;
 
     public VoteLedger(Path databasePath, int busyTimeoutMs, Clock clock, ZoneId zoneId) {
+        this(databasePath, busyTimeoutMs, new PeriodClock(clock, zoneId));
+    }
+
+    public VoteLedger(Path databasePath, int busyTimeoutMs, PeriodClock periods) {
         this.databasePath = databasePath.toAbsolutePath();
         this.busyTimeoutMs = Math.max(1, busyTimeoutMs);
-        this.clock = clock;
-        this.zoneId = zoneId;
+        this.periods = periods;
     }
 
     public synchronized void initialize() {
+        closed = false;
         try {
             Path parent = databasePath.getParent();
             if (parent != null) Files.createDirectories(parent);
-            backupBeforeMigration();
-            try (Connection connection = connection()) {
-                connection.setAutoCommit(false);
-                createSchema(connection);
-                try (Statement statement = connection.createStatement()) {
+            int storedVersion = backupBeforeMigration();
+            transaction(() -> {
+                List<String> textKeyed = storedVersion < COMPACT_KEYS_VERSION ? detachTextKeyedTables() : List.of();
+                if (storedVersion < CHANGE_FEED_VERSION) {
+                    for (ChangeFeed feed : ChangeFeed.values()) {
+                        if (!tableExists(feed.table())) continue;
+                        ensureColumn(connection(), feed.table(), "change_seq",
+                                "ALTER TABLE " + feed.table() + " ADD COLUMN change_seq INTEGER NOT NULL DEFAULT 0");
+                    }
+                }
+                createSchema(connection());
+                copyTextKeyedTables(textKeyed);
+                readLedgerState();
+                if (storedVersion > 0 && storedVersion < CHANGE_FEED_VERSION) stampRowsBeforeChangeFeed();
+                try (Statement statement = connection().createStatement()) {
                     statement.execute("PRAGMA user_version=" + SCHEMA_VERSION);
                 }
-                try (PreparedStatement statement = connection.prepareStatement("""
+                PreparedStatement statement = prepared("""
                     UPDATE reward_grants
-                    SET state = 'AMBIGUOUS', error = 'interrupted after durable claim', updated_at = ?
+                    SET state = 'AMBIGUOUS', error = 'interrupted after durable claim', updated_at = ?, change_seq = ?
                     WHERE state = 'CLAIMED'
-                    """)) {
-                    statement.setLong(1, nowEpoch());
-                    statement.executeUpdate();
-                }
-                connection.commit();
-            }
+                    """);
+                statement.setLong(1, nowEpoch());
+                statement.setLong(2, peekStamp());
+                if (statement.executeUpdate() > 0) changeStamp();
+                rebuildGrantHeads();
+                deduplicatePlanDocuments();
+                return null;
+            });
             validateSchemaParity(databasePath, SCHEMA_VERSION);
         } catch (SQLException | IOException exception) {
+            close();
             throw new IllegalStateException("Unable to initialize vote ledger", exception);
         }
     }
 
     public synchronized VoteEventResult accept(VoteEnvelope event, PlayerIdentity identity, VotePlan plan) {
         PeriodContext period = currentPeriod();
-        try (Connection connection = connection()) {
-            connection.setAutoCommit(false);
-            try {
-                if (!insertEvent(connection, event, plan, identity == null ? "UNRESOLVED" : "PROCESSING", period)) {
-                    connection.rollback();
-                    return VoteEventResult.of(VoteEventState.DUPLICATE, event.eventHash(), List.of());
-                }
-                if (!event.hasEconomicIdentity()) {
-                    updateEventState(connection, event.eventHash(), "QUARANTINED", null, period, "missing provider identity");
-                    connection.commit();
-                    return VoteEventResult.of(VoteEventState.QUARANTINED, event.eventHash(), List.of());
-                }
-                if (identity == null) {
-                    connection.commit();
-                    return VoteEventResult.of(VoteEventState.UNRESOLVED, event.eventHash(), List.of());
-                }
-                if (!identity.normalizedName().equals(event.normalizedName())) {
-                    updateEventState(connection, event.eventHash(), "QUARANTINED", null, period, "exact name mismatch");
-                    connection.commit();
-                    return VoteEventResult.of(VoteEventState.QUARANTINED, event.eventHash(), List.of());
-                }
-                VoteEventResult result = planEvent(connection, event, identity, plan, period);
-                connection.commit();
-                return result;
-            } catch (SQLException exception) {
-                connection.rollback();
-                return VoteEventResult.error(event.eventHash(), exception);
-            }
+        try {
+            return transaction(() -> acceptEvent(event, identity, plan, null, period));
         } catch (SQLException exception) {
             return VoteEventResult.error(event.eventHash(), exception);
         }
     }
 
+    /**
+     * Group-commit: plans every event inside one transaction, results in input order. If any event fails the
+     * whole batch rolls back and each event is retried in its own transaction, so one bad row cannot drop others.
+     */
+    public synchronized List<VoteEventResult> acceptBatch(List<VoteIngest> batch) {
+        if (batch.isEmpty()) return List.of();
+        if (batch.size() == 1) return List.of(accept(batch.get(0)));
+        PeriodContext period = currentPeriod();
+        try {
+            return transaction(() -> {
+                List<VoteEventResult> results = new ArrayList<>(batch.size());
+                for (VoteIngest ingest : batch) {
+                    results.add(acceptEvent(ingest.event(), ingest.identity(), ingest.plan(),
+                            ingest.preparedCandidates(), period));
+                }
+                return results;
+            });
+        } catch (SQLException exception) {
+            List<VoteEventResult> results = new ArrayList<>(batch.size());
+            for (VoteIngest ingest : batch) results.add(accept(ingest));
+            return results;
+        }
+    }
+
+    /** One event in its own transaction, using its prepared grants when they are ready. */
+    private VoteEventResult accept(VoteIngest ingest) {
+        PeriodContext period = currentPeriod();
+        try {
+            return transaction(() -> acceptEvent(ingest.event(), ingest.identity(), ingest.plan(),
+                    ingest.preparedCandidates(), period));
+        } catch (SQLException exception) {
+            return VoteEventResult.error(ingest.event().eventHash(), exception);
+        }
+    }
+
     public synchronized List<VoteEventResult> resolvePending(PlayerIdentity identity) {
         List<VoteEventResult> results = new ArrayList<>();
-        try (Connection connection = connection(); PreparedStatement statement = connection.prepareStatement("""
-                SELECT event_hash, display_name, service, provider_timestamp, plan_json, day_key, month_key
-                FROM vote_events
-                WHERE state IN ('UNRESOLVED', 'UNRESOLVED_LEGACY') AND normalized_name = ?
-                ORDER BY created_at, event_hash
-                """)) {
+        List<StoredEvent> events = new ArrayList<>();
+        try {
+            PreparedStatement statement = prepared("""
+                    SELECT event_hash, display_name, service, provider_timestamp, plan_id, plan_json, day_key, month_key
+                    FROM vote_events
+                    WHERE state IN ('UNRESOLVED', 'UNRESOLVED_LEGACY') AND normalized_name = ?
+                    ORDER BY created_at, event_hash
+                    """);
             statement.setString(1, identity.normalizedName());
-            List<StoredEvent> events = new ArrayList<>();
             try (ResultSet rs = statement.executeQuery()) {
                 while (rs.next()) {
-                    events.add(new StoredEvent(rs.getString(1), rs.getString(2), rs.getString(3),
-                            rs.getString(4), rs.getString(5), rs.getString(6), rs.getString(7)));
+                    events.add(new StoredEvent(hashHex(rs.getBytes(1)), rs.getString(2), rs.getString(3),
+                            rs.getString(4), hashHex(rs.getBytes(5)), rs.getString(6), rs.getString(7), rs.getString(8)));
                 }
             }
-            for (StoredEvent stored : events) {
-                connection.setAutoCommit(false);
-                try (PreparedStatement claim = connection.prepareStatement("""
-                        UPDATE vote_events SET state = 'PROCESSING', resolved_uuid = ?, updated_at = ?
-                        WHERE event_hash = ? AND state IN ('UNRESOLVED', 'UNRESOLVED_LEGACY') AND normalized_name = ?
-                        """)) {
-                    claim.setString(1, identity.uuid().toString());
+        } catch (SQLException exception) {
+            return List.of();
+        }
+        for (StoredEvent stored : events) {
+            try {
+                VoteEventResult result = transaction(() -> {
+                    PreparedStatement claim = prepared("""
+                            UPDATE vote_events SET state = 'PROCESSING', resolved_uuid = ?, updated_at = ?
+                            WHERE event_hash = ? AND state IN ('UNRESOLVED', 'UNRESOLVED_LEGACY') AND normalized_name = ?
+                            """);
+                    claim.setBytes(1, uuidBytes(identity.uuid()));
                     claim.setLong(2, nowEpoch());
-                    claim.setString(3, stored.hash());
+                    claim.setBytes(3, hashBytes(stored.hash()));
                     claim.setString(4, identity.normalizedName());
-                    if (claim.executeUpdate() == 0) {
-                        connection.rollback();
-                        continue;
-                    }
+                    if (claim.executeUpdate() == 0) return null;
                     VoteEnvelope event = new VoteEnvelope(stored.hash(), identity.normalizedName(), stored.displayName(),
                             stored.service(), stored.timestamp(), true, "TestVote".equalsIgnoreCase(stored.timestamp()));
-                    VoteEventResult result = planEvent(connection, event, identity, VotePlan.fromJson(stored.planJson()),
+                    return planEvent(event, identity, storedPlan(stored.planId(), stored.planJson()), null,
                             new PeriodContext(stored.dayKey(), stored.monthKey()));
-                    connection.commit();
-                    results.add(result);
-                } catch (SQLException exception) {
-                    connection.rollback();
-                } finally {
-                    connection.setAutoCommit(true);
-                }
+                });
+                if (result != null) results.add(result);
+            } catch (SQLException exception) {
+                // The event stays UNRESOLVED and is retried on the next exact join.
             }
-        } catch (SQLException exception) {
-            return List.of();
         }
         return results;
     }
 
     public synchronized Optional<GrantClaim> claimNextGrant(UUID targetUuid) {
-        return claimNext("target_uuid = ?", targetUuid.toString());
+        return claimBatch(claimQuery(false), targetUuid, 1).stream().findFirst();
     }
 
     public synchronized Optional<GrantClaim> claimNextGlobalGrant() {
-        return claimNext("target_uuid IS NULL", null);
+        return claimBatch(claimQuery(true), null, 1).stream().findFirst();
+    }
+
+    /** Claims up to {@code limit} grants in one transaction, each batch in sequence order behind its head. */
+    public synchronized List<GrantClaim> claimGrantBatch(UUID targetUuid, int limit) {
+        return claimBatch(claimQuery(false), targetUuid, limit);
+    }
+
+    public synchronized List<GrantClaim> claimGlobalGrantBatch(int limit) {
+        return claimBatch(claimQuery(true), null, limit);
+    }
+
+    /** Journals a dispatch round in one transaction; returns how many claims were still owned by their token. */
+    public synchronized int completeGrants(List<GrantOutcome> outcomes) {
+        if (outcomes.isEmpty()) return 0;
+        try {
+            return transaction(() -> {
+                int applied = 0;
+                for (GrantOutcome outcome : outcomes) {
+                    GrantClaim claim = outcome.claim();
+                    if (applyTransition(claim.grantId(), claim.claimToken(), outcome.state(), outcome.reason())) applied++;
+                }
+                return applied;
+            });
+        } catch (SQLException exception) {
+            return 0;
+        }
     }
 
     public synchronized boolean releaseBeforeDispatch(String grantId, String token, String reason) {
@@ -171,161 +268,274 @@ public final class VoteLedger implements AutoCloseable {
         return transition(grantId, token, "AMBIGUOUS", reason);
     }
 
-    public synchronized List<GrantClaim> listAmbiguous() {
-        try (Connection connection = connection(); PreparedStatement statement = connection.prepareStatement("""
-                SELECT grant_id, batch_key, sequence, kind, command_snapshot, executor_mode,
-                       target_uuid, target_name, claim_token, state, error
-                FROM reward_grants WHERE state = 'AMBIGUOUS' ORDER BY updated_at, grant_id
-                """)) {
-            try (ResultSet rs = statement.executeQuery()) {
-                List<GrantClaim> result = new ArrayList<>();
-                while (rs.next()) result.add(mapGrant(rs));
-                return result;
-            }
+    public List<GrantClaim> listAmbiguous() {
+        try {
+            return read(reader -> {
+                try (ResultSet rs = reader.prepared("""
+                        SELECT grant_id, batch_key, sequence, kind, command_snapshot, executor_mode,
+                               target_uuid, target_name, claim_token, state, error
+                        FROM reward_grants WHERE state = 'AMBIGUOUS' ORDER BY updated_at, grant_id
+                        """).executeQuery()) {
+                    List<GrantClaim> result = new ArrayList<>();
+                    while (rs.next()) result.add(mapGrant(rs));
+                    return result;
+                }
+            });
         } catch (SQLException exception) {
             return List.of();
         }
     }
 
-    public synchronized PlayerStats readStats(UUID uuid, String name) {
-        try (Connection connection = connection(); PreparedStatement statement = connection.prepareStatement(
-                "SELECT * FROM players WHERE uuid = ?")) {
-            statement.setString(1, uuid.toString());
-            try (ResultSet rs = statement.executeQuery()) {
-                if (!rs.next()) return PlayerStats.empty(uuid, name);
-                return new PlayerStats(uuid, rs.getString("name"), rs.getDouble("total_votes"),
-                        rs.getDouble("daily_votes"), rs.getDouble("monthly_votes"),
-                        rs.getInt("streak_monthly"), rs.getString("last_vote_day"),
-                        rs.getString("last_month_key"), rs.getLong("last_vote_epoch"));
-            }
+    public PlayerStats readStats(UUID uuid, String name) {
+        return lookupStats(uuid, name).orElseGet(() -> PlayerStats.empty(uuid, name));
+    }
+
+    public double readGlobalDaily() {
+        try {
+            return read(reader -> {
+                PreparedStatement statement = reader.prepared("SELECT votes FROM daily_global_snapshots WHERE day_key=?");
+                statement.setString(1, currentPeriod().dayKey());
+                try (ResultSet rs = statement.executeQuery()) { return rs.next() ? rs.getDouble(1) : 0; }
+            });
         } catch (SQLException exception) {
-            return PlayerStats.empty(uuid, name);
+            return 0;
         }
     }
 
-    public synchronized double readGlobalDaily() {
-        try (Connection connection = connection()) {
-            return readGlobal(connection, currentPeriod().dayKey());
+    public Map<UUID, PlayerStats> readAllStats() {
+        return readStatsWhere(null, 0);
+    }
+
+    /** Players whose last vote is at or after {@code sinceEpoch}; the bounded snapshot mode starts from these. */
+    public Map<UUID, PlayerStats> readRecentStats(long sinceEpoch) {
+        return readStatsWhere("last_vote_epoch >= ?", sinceEpoch);
+    }
+
+    /** Players written by a transaction after {@code sequence}; replayed on top of a snapshot image. */
+    public Map<UUID, PlayerStats> readStatsChangedSince(long sequence) {
+        return readStatsWhere("change_seq > ?", sequence);
+    }
+
+    /** Sequence of the last committed transaction that wrote a row of any {@link ChangeFeed}. */
+    public long changeSequence() { return changeSequence; }
+
+    /**
+     * Streams, in sequence order, the rows of {@code feed} written after {@code afterSequence}. Each row is delivered
+     * once in its latest state, so a row rewritten later only shows up at its newest sequence. After {@code limit}
+     * rows the stream still finishes the current sequence, so a transaction is never split across calls.
+     * {@code sink} runs on the calling thread while a pooled reader is held.
+     *
+     * @return the sequence to resume from: the last one delivered, {@code afterSequence} if nothing changed, or -1
+     *         when SQLite failed
+     */
+    public long streamChanges(ChangeFeed feed, long afterSequence, int limit, Consumer<LedgerChange> sink) {
+        try {
+            return read(reader -> {
+                PreparedStatement statement = reader.prepared(
+                        "SELECT * FROM " + feed.table() + " WHERE change_seq > ? ORDER BY change_seq");
+                statement.setLong(1, afterSequence);
+                long last = afterSequence;
+                int delivered = 0;
+                try (ResultSet rs = statement.executeQuery()) {
+                    ResultSetMetaData meta = rs.getMetaData();
+                    while (rs.next()) {
+                        long sequence = rs.getLong("change_seq");
+                        if (delivered >= Math.max(1, limit) && sequence != last) break;
+                        Map<String, Object> columns = new LinkedHashMap<>();
+                        for (int column = 1; column <= meta.getColumnCount(); column++) {
+                            Object value = rs.getObject(column);
+                            if (value instanceof byte[] bytes) value = bytes.length == 16 ? uuidOf(bytes) : HEX.formatHex(bytes);
+                            else if (value instanceof Integer number) value = number.longValue();
+                            columns.put(meta.getColumnName(column), value);
+                        }
+                        sink.accept(new LedgerChange(feed, sequence, Collections.unmodifiableMap(columns)));
+                        last = sequence;
+                        delivered++;
+                    }
+                }
+                return last;
+            });
         } catch (SQLException exception) {
-            return 0;
+            return -1;
         }
     }
 
-    public synchronized Map<UUID, PlayerStats> readAllStats() {
+    /** Random id fixed when the database was created; images of another database never match it. */
+    public synchronized UUID ledgerId() { return ledgerId; }
+
+    /** Reads one player for an on-demand snapshot load; empty when SQLite failed, so the miss is retried later. */
+    public Optional<PlayerStats> lookupStats(UUID uuid, String name) {
+        try {
+            return Optional.of(read(reader -> {
+                PreparedStatement statement = reader.prepared("SELECT * FROM players WHERE uuid = ?");
+                statement.setBytes(1, uuidBytes(uuid));
+                try (ResultSet rs = statement.executeQuery()) {
+                    if (!rs.next()) return PlayerStats.empty(uuid, name);
+                    return new PlayerStats(uuid, rs.getString("name"), rs.getDouble("total_votes"),
+                            rs.getDouble("daily_votes"), rs.getDouble("monthly_votes"),
+                            rs.getInt("streak_monthly"), rs.getString("last_vote_day"),
+                            rs.getString("last_month_key"), rs.getLong("last_vote_epoch"));
+                }
+            }));
+        } catch (SQLException exception) {
+            return Optional.empty();
+        }
+    }
+
+    private Map<UUID, PlayerStats> readStatsWhere(String condition, long bound) {
         TreeMap<String, PlayerStats> ordered = new TreeMap<>();
-        try (Connection connection = connection(); PreparedStatement statement = connection.prepareStatement("SELECT * FROM players ORDER BY uuid");
-             ResultSet rs = statement.executeQuery()) {
-            while (rs.next()) {
-                UUID uuid = UUID.fromString(rs.getString("uuid"));
-                ordered.put(uuid.toString(), new PlayerStats(uuid, rs.getString("name"), rs.getDouble("total_votes"),
-                        rs.getDouble("daily_votes"), rs.getDouble("monthly_votes"), rs.getInt("streak_monthly"),
-                        rs.getString("last_vote_day"), rs.getString("last_month_key"), rs.getLong("last_vote_epoch")));
-            }
+        try {
+            read(reader -> {
+                PreparedStatement statement = reader.prepared(condition == null
+                        ? "SELECT * FROM players ORDER BY uuid"
+                        : "SELECT * FROM players WHERE " + condition + " ORDER BY uuid");
+                if (condition != null) statement.setLong(1, bound);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        UUID uuid = uuidOf(rs.getBytes("uuid"));
+                        ordered.put(uuid.toString(), new PlayerStats(uuid, rs.getString("name"), rs.getDouble("total_votes"),
+                                rs.getDouble("daily_votes"), rs.getDouble("monthly_votes"), rs.getInt("streak_monthly"),
+                                rs.getString("last_vote_day"), rs.getString("last_month_key"), rs.getLong("last_vote_epoch")));
+                    }
+                }
+                return null;
+            });
         } catch (SQLException ignored) { }
         TreeMap<UUID, PlayerStats> result = new TreeMap<>();
         ordered.values().forEach(stats -> result.put(stats.uuid(), stats));
         return Map.copyOf(result);
     }
 
-    public synchronized Map<UUID, Boolean> readAllPreferences() {
+    public Map<UUID, Boolean> readAllPreferences() {
         TreeMap<UUID, Boolean> result = new TreeMap<>();
-        try (Connection connection = connection(); PreparedStatement statement = connection.prepareStatement(
-                "SELECT uuid, mute_vote_announcements FROM player_preferences"); ResultSet rs = statement.executeQuery()) {
-            while (rs.next()) result.put(UUID.fromString(rs.getString(1)), rs.getInt(2) == 1);
+        try {
+            read(reader -> {
+                try (ResultSet rs = reader.prepared("SELECT uuid, mute_vote_announcements FROM player_preferences").executeQuery()) {
+                    while (rs.next()) result.put(uuidOf(rs.getBytes(1)), rs.getInt(2) == 1);
+                }
+                return null;
+            });
         } catch (SQLException ignored) { }
         return Map.copyOf(result);
     }
 
     public synchronized boolean togglePreference(UUID uuid) {
-        try (Connection connection = connection()) {
-            connection.setAutoCommit(false);
-            try (PreparedStatement insert = connection.prepareStatement(
-                    "INSERT OR IGNORE INTO player_preferences(uuid, mute_vote_announcements) VALUES(?,0)")) {
-                insert.setString(1, uuid.toString()); insert.executeUpdate();
-            }
-            boolean current;
-            try (PreparedStatement read = connection.prepareStatement(
-                    "SELECT mute_vote_announcements FROM player_preferences WHERE uuid=?")) {
-                read.setString(1, uuid.toString());
+        try {
+            return transaction(() -> {
+                PreparedStatement insert = prepared(
+                        "INSERT OR IGNORE INTO player_preferences(uuid, mute_vote_announcements) VALUES(?,0)");
+                insert.setBytes(1, uuidBytes(uuid)); insert.executeUpdate();
+                boolean current;
+                PreparedStatement read = prepared("SELECT mute_vote_announcements FROM player_preferences WHERE uuid=?");
+                read.setBytes(1, uuidBytes(uuid));
                 try (ResultSet rs = read.executeQuery()) { current = rs.next() && rs.getInt(1) == 1; }
-            }
-            try (PreparedStatement update = connection.prepareStatement(
-                    "UPDATE player_preferences SET mute_vote_announcements=? WHERE uuid=?")) {
-                update.setInt(1, current ? 0 : 1); update.setString(2, uuid.toString()); update.executeUpdate();
-            }
-            connection.commit();
-            return !current;
+                PreparedStatement update = prepared("UPDATE player_preferences SET mute_vote_announcements=? WHERE uuid=?");
+                update.setInt(1, current ? 0 : 1); update.setBytes(2, uuidBytes(uuid)); update.executeUpdate();
+                return !current;
+            });
         } catch (SQLException exception) { return false; }
     }
 
     public synchronized double adjustGlobalDaily(int delta) {
         PeriodContext period = currentPeriod();
-        try (Connection connection = connection()) {
-            connection.setAutoCommit(false);
-            double updated = Math.max(0, readGlobal(connection, period.dayKey()) + delta);
-            updateGlobal(connection, updated, period.dayKey());
-            connection.commit();
-            return updated;
+        try {
+            return transaction(() -> {
+                double updated = Math.max(0, readGlobal(period.dayKey()) + delta);
+                updateGlobal(updated, period.dayKey());
+                return updated;
+            });
         } catch (SQLException exception) { return -1; }
     }
 
     public synchronized void resetGlobalDaily() { adjustGlobalDaily(Integer.MIN_VALUE); }
 
-    public synchronized double adjustPlayerDaily(PlayerIdentity identity, int delta) {
+    public synchronized Optional<LedgerPostState> adjustPlayerDaily(PlayerIdentity identity, int delta) {
         PeriodContext period = currentPeriod();
-        try (Connection connection = connection()) {
-            connection.setAutoCommit(false);
-            PlayerStats stats = fetchOrCreate(connection, identity);
-            double daily = period.dayKey().equals(stats.lastVoteDay()) ? stats.dailyVotes() : 0;
-            double monthly = period.monthKey().equals(stats.lastMonthKey()) ? stats.monthlyVotes() : 0;
-            double updated = Math.max(0, daily + delta);
-            updatePlayer(connection, identity, stats.totalVotes(), updated, monthly, stats.streakMonthly(), period);
-            connection.commit();
-            return updated;
-        } catch (SQLException exception) { return -1; }
+        try {
+            return Optional.of(transaction(() -> {
+                PlayerStats stats = fetchOrCreate(identity);
+                double daily = period.dayKey().equals(stats.lastVoteDay()) ? stats.dailyVotes() : 0;
+                double monthly = period.monthKey().equals(stats.lastMonthKey()) ? stats.monthlyVotes() : 0;
+                double updated = Math.max(0, daily + delta);
+                return updatePlayerWithPostState(identity, stats.totalVotes(), updated, monthly, stats.streakMonthly(), period);
+            }));
+        } catch (SQLException exception) { return Optional.empty(); }
     }
 
-    public synchronized void resetPlayerMonthly(PlayerIdentity identity) {
+    public synchronized Optional<LedgerPostState> resetPlayerMonthly(PlayerIdentity identity) {
         PeriodContext period = currentPeriod();
-        try (Connection connection = connection()) {
-            connection.setAutoCommit(false);
-            PlayerStats stats = fetchOrCreate(connection, identity);
-            double daily = period.dayKey().equals(stats.lastVoteDay()) ? stats.dailyVotes() : 0;
-            updatePlayer(connection, identity, stats.totalVotes(), daily, 0, stats.streakMonthly(), period);
-            connection.commit();
-        } catch (SQLException ignored) { }
-    }
-
-    public synchronized int distinctServicesToday(UUID uuid) {
-        try (Connection connection = connection()) {
-            return countDistinctServices(connection, uuid, currentPeriod().dayKey());
-        } catch (SQLException exception) { return 0; }
+        try {
+            return Optional.of(transaction(() -> {
+                PlayerStats stats = fetchOrCreate(identity);
+                double daily = period.dayKey().equals(stats.lastVoteDay()) ? stats.dailyVotes() : 0;
+                return updatePlayerWithPostState(identity, stats.totalVotes(), daily, 0, stats.streakMonthly(), period);
+            }));
+        } catch (SQLException exception) { return Optional.empty(); }
     }
 
-    public synchronized DrawHistoryResult readDrawHistory(String monthKey) {
+    public DrawHistoryResult readDrawHistory(String monthKey) {
         try {
             YearMonth.parse(monthKey);
         } catch (Exception invalid) { return DrawHistoryResult.invalidMonth(monthKey); }
-        try (Connection connection = connection(); PreparedStatement statement = connection.prepareStatement(
-                "SELECT winner_name,winner_uuid,top_votes,candidates_count,executed_by,executed_epoch FROM monthly_draw_history WHERE month_key=?")) {
-            statement.setString(1, monthKey);
-            try (ResultSet rs = statement.executeQuery()) {
-                if (!rs.next()) return DrawHistoryResult.notFound(monthKey);
-                return DrawHistoryResult.found(monthKey, rs.getString(1), rs.getString(2), rs.getDouble(3),
-                        rs.getInt(4), rs.getString(5), rs.getLong(6));
-            }
+        try {
+            return read(reader -> {
+                PreparedStatement statement = reader.prepared(
+                        "SELECT winner_name,winner_uuid,top_votes,candidates_count,executed_by,executed_epoch FROM monthly_draw_history WHERE month_key=?");
+                statement.setString(1, monthKey);
+                try (ResultSet rs = statement.executeQuery()) {
+                    if (!rs.next()) return DrawHistoryResult.notFound(monthKey);
+                    return DrawHistoryResult.found(monthKey, rs.getString(1), rs.getString(2), rs.getDouble(3),
+                            rs.getInt(4), rs.getString(5), rs.getLong(6));
+                }
+            });
         } catch (SQLException exception) { return DrawHistoryResult.error(monthKey, exception.getMessage()); }
     }
 
-    public synchronized List<TopMonthEntry> readTopMonth(String monthKey, int limit) {
+    /** Players per all-time total, skipping players without votes; seeds the total rank index at startup. */
+    public Map<Integer, Integer> readTotalHistogram() {
+        Map<Integer, Integer> result = new HashMap<>();
+        try {
+            read(reader -> {
+                try (ResultSet rs = reader.prepared(
+                        "SELECT total_votes, COUNT(*) FROM players WHERE total_votes > 0 GROUP BY total_votes").executeQuery()) {
+                    while (rs.next()) result.put(rs.getInt(1), rs.getInt(2));
+                }
+                return null;
+            });
+        } catch (SQLException ignored) { }
+        return result;
+    }
+
+    /** Every {@code monthly_snapshots} row of a month; seeds the in-memory leaderboard at startup. */
+    public List<MonthlyStanding> readMonthlyStandings(String monthKey) {
+        List<MonthlyStanding> result = new ArrayList<>();
+        try {
+            read(reader -> {
+                PreparedStatement statement = reader.prepared(
+                        "SELECT uuid, player_name, votes FROM monthly_snapshots WHERE month_key=?");
+                statement.setString(1, monthKey);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) result.add(new MonthlyStanding(uuidOf(rs.getBytes(1)), rs.getString(2), rs.getDouble(3)));
+                }
+                return null;
+            });
+        } catch (SQLException ignored) { }
+        return result;
+    }
+
+    public List<TopMonthEntry> readTopMonth(String monthKey, int limit) {
         List<TopMonthEntry> result = new ArrayList<>();
-        try (Connection connection = connection(); PreparedStatement statement = connection.prepareStatement(
-                "SELECT player_name,votes FROM monthly_snapshots WHERE month_key=? ORDER BY votes DESC,player_name LIMIT ?")) {
-            statement.setString(1, monthKey); statement.setInt(2, Math.max(1, limit));
-            try (ResultSet rs = statement.executeQuery()) {
-                int position = 1;
-                while (rs.next()) result.add(new TopMonthEntry(position++, rs.getString(1), rs.getDouble(2)));
-            }
+        try {
+            read(reader -> {
+                PreparedStatement statement = reader.prepared(
+                        "SELECT player_name,votes FROM monthly_snapshots WHERE month_key=? ORDER BY votes DESC,player_name LIMIT ?");
+                statement.setString(1, monthKey); statement.setInt(2, Math.max(1, limit));
+                try (ResultSet rs = statement.executeQuery()) {
+                    int position = 1;
+                    while (rs.next()) result.add(new TopMonthEntry(position++, rs.getString(1), rs.getDouble(2)));
+                }
+                return null;
+            });
         } catch (SQLException ignored) { }
         return result;
     }
@@ -337,122 +547,138 @@ public final class VoteLedger implements AutoCloseable {
         } catch (Exception invalid) {
             return MonthlyDrawResult.invalidMonth(monthKey);
         }
-        try (Connection connection = connection()) {
-            connection.setAutoCommit(false);
-            try {
-                try (PreparedStatement existing = connection.prepareStatement(
-                        "SELECT 1 FROM monthly_draw_history WHERE month_key = ?")) {
-                    existing.setString(1, monthKey);
-                    try (ResultSet rs = existing.executeQuery()) {
-                        if (rs.next()) {
-                            connection.rollback();
-                            return MonthlyDrawResult.alreadyDrawn(monthKey);
-                        }
-                    }
+        try {
+            return transaction(() -> {
+                PreparedStatement existing = prepared("SELECT 1 FROM monthly_draw_history WHERE month_key = ?");
+                existing.setString(1, monthKey);
+                try (ResultSet rs = existing.executeQuery()) {
+                    if (rs.next()) return MonthlyDrawResult.alreadyDrawn(monthKey);
                 }
                 double maxVotes;
-                try (PreparedStatement max = connection.prepareStatement(
-                        "SELECT COALESCE(MAX(votes), 0) FROM monthly_snapshots WHERE month_key = ?")) {
-                    max.setString(1, monthKey);
-                    try (ResultSet rs = max.executeQuery()) { maxVotes = rs.next() ? rs.getDouble(1) : 0; }
-                }
+                PreparedStatement max = prepared("SELECT COALESCE(MAX(votes), 0) FROM monthly_snapshots WHERE month_key = ?");
+                max.setString(1, monthKey);
+                try (ResultSet rs = max.executeQuery()) { maxVotes = rs.next() ? rs.getDouble(1) : 0; }
                 if (maxVotes < Math.max(1, minimumVotes)) {
-                    connection.rollback();
                     return MonthlyDrawResult.noParticipants(monthKey, maxVotes);
                 }
                 List<PlayerIdentity> candidates = new ArrayList<>();
-                try (PreparedStatement query = connection.prepareStatement("""
+                PreparedStatement query = prepared("""
                         SELECT uuid, player_name FROM monthly_snapshots
                         WHERE month_key = ? AND votes = ? ORDER BY player_name, uuid
-                        """)) {
-                    query.setString(1, monthKey);
-                    query.setDouble(2, maxVotes);
-                    try (ResultSet rs = query.executeQuery()) {
-                        while (rs.next()) candidates.add(new PlayerIdentity(UUID.fromString(rs.getString(1)), rs.getString(2)));
-                    }
+                        """);
+                query.setString(1, monthKey);
+                query.setLong(2, (long) maxVotes);
+                try (ResultSet rs = query.executeQuery()) {
+                    while (rs.next()) candidates.add(new PlayerIdentity(uuidOf(rs.getBytes(1)), rs.getString(2)));
                 }
                 PlayerIdentity winner = candidates.get(Math.floorMod(chooser.applyAsInt(candidates.size()), candidates.size()));
-                try (PreparedStatement insert = connection.prepareStatement("""
+                PreparedStatement insert = prepared("""
                         INSERT INTO monthly_draw_history(month_key, winner_uuid, winner_name, top_votes,
                           candidates_count, executed_by, executed_epoch, reward_command)
                         VALUES (?, ?, ?, ?, ?, ?, ?, ?)
-                        """)) {
-                    insert.setString(1, monthKey);
-                    insert.setString(2, winner.uuid().toString());
-                    insert.setString(3, winner.exactName());
-                    insert.setDouble(4, maxVotes);
-                    insert.setInt(5, candidates.size());
-                    insert.setString(6, executedBy);
-                    insert.setLong(7, nowEpoch());
-                    insert.setString(8, rewardCommand);
-                    insert.executeUpdate();
-                }
-                String command = materialize(rewardCommand, winner, Map.of("month", monthKey));
-                insertGrant(connection, "draw:" + monthKey, null, "MONTHLY_DRAW", 0,
+                        """);
+                insert.setString(1, monthKey);
+                insert.setString(2, winner.uuid().toString());
+                insert.setString(3, winner.exactName());
+                insert.setDouble(4, maxVotes);
+                insert.setInt(5, candidates.size());
+                insert.setString(6, executedBy);
+                insert.setLong(7, nowEpoch());
+                insert.setString(8, rewardCommand);
+                insert.executeUpdate();
+                String command = GrantCandidates.materialize(rewardCommand, winner, Map.of("month", monthKey));
+                String batch = "draw:" + monthKey;
+                insertGrant(GrantCandidates.grantId(batch, 0, command, "CONSOLE"), batch, null, "MONTHLY_DRAW", 0,
                         command, "CONSOLE", null, winner.exactName());
-                connection.commit();
                 return MonthlyDrawResult.success(monthKey, winner.exactName(), maxVotes, candidates.size());
-            } catch (SQLException exception) {
-                connection.rollback();
-                return MonthlyDrawResult.error(monthKey, exception.getMessage());
-            }
+            });
         } catch (SQLException exception) {
             return MonthlyDrawResult.error(monthKey, exception.getMessage());
         }
     }
 
-    public synchronized int migrateLegacyPending(VotePlan frozenPlan) {
+    /** Migrates every remaining legacy row, committing one chunk at a time. */
+    public int migrateLegacyPending(VotePlan frozenPlan) {
         int migrated = 0;
-        try (Connection connection = connection()) {
-            connection.setAutoCommit(false);
-            try (PreparedStatement query = connection.prepareStatement("""
-                    SELECT p.id, p.player_name, p.service_name, p.created_epoch
-                    FROM pending_votes p LEFT JOIN legacy_pending_migrations m ON m.pending_id = p.id
-                    WHERE m.pending_id IS NULL ORDER BY p.id
-                    """)) {
+        long cursor = 0;
+        while (true) {
+            LegacyChunk chunk = migrateLegacyPending(frozenPlan, cursor, LEGACY_CHUNK_SIZE);
+            if (chunk.scanned() <= 0) return migrated;
+            migrated += chunk.migrated();
+            cursor = chunk.lastId();
+        }
+    }
+
+    /**
+     * Maps up to {@code limit} legacy rows with an id above {@code afterId} in one batched transaction. Rows already
+     * in {@code legacy_pending_migrations} are skipped, so an interrupted migration resumes where it stopped.
+     */
+    public synchronized LegacyChunk migrateLegacyPending(VotePlan frozenPlan, long afterId, int limit) {
+        try {
+            return transaction(() -> {
                 List<LegacyRow> rows = new ArrayList<>();
+                PreparedStatement query = prepared("""
+                        SELECT p.id, p.player_name, p.service_name, p.created_epoch
+                        FROM pending_votes p LEFT JOIN legacy_pending_migrations m ON m.pending_id = p.id
+                        WHERE p.id > ? AND m.pending_id IS NULL ORDER BY p.id LIMIT ?
+                        """);
+                query.setLong(1, afterId);
+                query.setInt(2, Math.max(1, limit));
                 try (ResultSet rs = query.executeQuery()) {
                     while (rs.next()) rows.add(new LegacyRow(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getLong(4)));
                 }
+                if (rows.isEmpty()) return new LegacyChunk(0, 0, afterId);
+                String planId = planId(frozenPlan);
+                PreparedStatement event = prepared("""
+                        INSERT OR IGNORE INTO vote_events(event_hash, normalized_name, display_name, service,
+                          provider_timestamp, state, plan_id, plan_json, created_at, updated_at, day_key, month_key, failure)
+                        VALUES (?, ?, ?, ?, '', 'UNRESOLVED_LEGACY', ?, '', ?, ?, ?, ?, 'legacy pending row; not provider identity')
+                        """);
+                PreparedStatement mapping = prepared(
+                        "INSERT OR IGNORE INTO legacy_pending_migrations(pending_id, event_hash, migrated_at) VALUES (?, ?, ?)");
                 for (LegacyRow row : rows) {
                     String normalizedName = normalize(row.playerName());
                     String service = normalize(row.serviceName());
-                    String hash = VoteEnvelope.hashFields("vvotes-legacy-pending-v1", Long.toString(row.id()),
-                            normalizedName, service, Long.toString(row.createdEpoch()));
-                    try (PreparedStatement event = connection.prepareStatement("""
-                            INSERT OR IGNORE INTO vote_events(event_hash, normalized_name, display_name, service,
-                              provider_timestamp, state, plan_json, created_at, updated_at, day_key, month_key, failure)
-                            VALUES (?, ?, ?, ?, '', 'UNRESOLVED_LEGACY', ?, ?, ?, ?, ?, 'legacy pending row; not provider identity')
-                            """)) {
-                        PeriodContext period = periodAt(row.createdEpoch());
-                        event.setString(1, hash);
-                        event.setString(2, normalizedName);
-                        event.setString(3, row.playerName());
-                        event.setString(4, service);
-                        event.setString(5, frozenPlan.toJson());
-                        event.setLong(6, row.createdEpoch());
-                        event.setLong(7, nowEpoch());
-                        event.setString(8, period.dayKey());
-                        event.setString(9, period.monthKey());
-                        event.executeUpdate();
-                    }
-                    try (PreparedStatement mapping = connection.prepareStatement(
-                            "INSERT OR IGNORE INTO legacy_pending_migrations(pending_id, event_hash, migrated_at) VALUES (?, ?, ?)")) {
-                        mapping.setLong(1, row.id());
-                        mapping.setString(2, hash);
-                        mapping.setLong(3, nowEpoch());
-                        migrated += mapping.executeUpdate();
-                    }
+                    byte[] hash = hashBytes(VoteEnvelope.hashFields("vvotes-legacy-pending-v1", Long.toString(row.id()),
+                            normalizedName, service, Long.toString(row.createdEpoch())));
+                    PeriodContext period = periodAt(row.createdEpoch());
+                    event.setBytes(1, hash);
+                    event.setString(2, normalizedName);
+                    event.setString(3, row.playerName());
+                    event.setString(4, service);
+                    event.setBytes(5, hashBytes(planId));
+                    event.setLong(6, row.createdEpoch());
+                    event.setLong(7, nowEpoch());
+                    event.setString(8, period.dayKey());
+                    event.setString(9, period.monthKey());
+                    event.addBatch();
+                    mapping.setLong(1, row.id());
+                    mapping.setBytes(2, hash);
+                    mapping.setLong(3, nowEpoch());
+                    mapping.addBatch();
                 }
-                connection.commit();
-            } catch (SQLException exception) {
-                connection.rollback();
-                return 0;
-            }
+                event.executeBatch();
+                int migrated = 0;
+                for (int inserted : mapping.executeBatch()) migrated += Math.max(0, inserted);
+                return new LegacyChunk(rows.size(), migrated, rows.getLast().id());
+            });
         } catch (SQLException exception) {
-            return 0;
+            return new LegacyChunk(-1, 0, afterId);
         }
-        return migrated;
+    }
+
+    /** Legacy rows not yet mapped to a ledger event. */
+    public long countUnmigratedLegacyPending() {
+        try {
+            return read(reader -> {
+                try (ResultSet rs = reader.prepared("""
+                        SELECT COUNT(*) FROM pending_votes p
+                        LEFT JOIN legacy_pending_migrations m ON m.pending_id = p.id WHERE m.pending_id IS NULL
+                        """).executeQuery()) {
+                    return rs.next() ? rs.getLong(1) : 0L;
+                }
+            });
+        } catch (SQLException exception) { return -1; }
     }
 
     public long countEvents() { return count("vote_events", null); }
@@ -460,187 +686,304 @@ public final class VoteLedger implements AutoCloseable {
     public long countGrantsByKind(String kind) { return count("reward_grants", kind); }
     public long countLegacyPendingRows() { return count("pending_votes", null); }
 
-    @Override public void close() { }
+    @Override
+    public synchronized void close() {
+        closed = true;
+        closeIdleReaders();
+        for (PreparedStatement statement : statements.values()) {
+            try { statement.close(); } catch (SQLException ignored) { }
+        }
+        statements.clear();
+        if (connection != null) {
+            try { connection.close(); } catch (SQLException ignored) { }
+            connection = null;
+        }
+    }
+
+    private VoteEventResult acceptEvent(VoteEnvelope event, PlayerIdentity identity, VotePlan plan,
+                                        GrantCandidates candidates, PeriodContext period) throws SQLException {
+        if (!insertEvent(event, plan, identity == null ? "UNRESOLVED" : "PROCESSING", period)) {
+            return VoteEventResult.of(VoteEventState.DUPLICATE, event.eventHash(), List.of());
+        }
+        if (!event.hasEconomicIdentity()) {
+            updateEventState(event.eventHash(), "QUARANTINED", null, period, "missing provider identity");
+            return VoteEventResult.of(VoteEventState.QUARANTINED, event.eventHash(), List.of());
+        }
+        if (identity == null) {
+            return VoteEventResult.of(VoteEventState.UNRESOLVED, event.eventHash(), List.of());
+        }
+        if (!identity.normalizedName().equals(event.normalizedName())) {
+            updateEventState(event.eventHash(), "QUARANTINED", null, period, "exact name mismatch");
+            return VoteEventResult.of(VoteEventState.QUARANTINED, event.eventHash(), List.of());
+        }
+        return planEvent(event, identity, plan, candidates, period);
+    }
 
-    private VoteEventResult planEvent(Connection connection, VoteEnvelope event, PlayerIdentity identity,
-                                      VotePlan plan, PeriodContext period) throws SQLException {
-        PlayerStats stats = fetchOrCreate(connection, identity);
+    /** {@code candidates} are the batches prepared off the writer for this event; null builds them here. */
+    private VoteEventResult planEvent(VoteEnvelope event, PlayerIdentity identity, VotePlan plan,
+                                      GrantCandidates candidates, PeriodContext period) throws SQLException {
+        PlayerStats stats = fetchOrCreate(identity);
         boolean newestDay = stats.lastVoteDay().isBlank() || period.dayKey().compareTo(stats.lastVoteDay()) >= 0;
         boolean newestMonth = stats.lastMonthKey().isBlank() || period.monthKey().compareTo(stats.lastMonthKey()) >= 0;
         double daily = newestDay
                 ? (period.dayKey().equals(stats.lastVoteDay()) ? stats.dailyVotes() + 1 : 1)
                 : stats.dailyVotes();
-        double monthly = readMonthlySnapshot(connection, identity.uuid(), period.monthKey()) + 1;
+        GoalCounter monthlyCounter = readMonthlyCounter(identity.uuid(), period.monthKey());
+        double monthly = monthlyCounter.value() + 1;
         double projectedMonthly = newestMonth ? monthly : stats.monthlyVotes();
         int streak = newestMonth
                 ? computeMonthlyStreak(stats.streakMonthly(), stats.lastMonthKey(), period.monthKey())
                 : stats.streakMonthly();
         double total = stats.totalVotes() + 1;
-        updatePlayerProjection(connection, identity, total, daily, projectedMonthly, streak,
+        updatePlayerProjection(identity, total, daily, projectedMonthly, streak,
                 newestDay ? period.dayKey() : stats.lastVoteDay(),
                 newestMonth ? period.monthKey() : stats.lastMonthKey());
-        upsertSnapshot(connection, identity, period.monthKey(), monthly);
+        upsertSnapshot(identity, period.monthKey(), monthly);
 
-        double previousGlobal = readGlobal(connection, period.dayKey());
+        GoalCounter globalCounter = readGlobalCounter(period.dayKey());
+        double previousGlobal = globalCounter.value();
         double global = previousGlobal + 1;
-        updateGlobalPeriod(connection, global, period.dayKey());
-        updateEventState(connection, event.eventHash(), "PROCESSING", identity.uuid(), period, "");
+        updateGlobalPeriod(global, period.dayKey(), true);
+        updateEventState(event.eventHash(), "PROCESSING", identity.uuid(), period, "");
 
         List<String> grants = new ArrayList<>();
         List<VoteNotice> notices = new ArrayList<>();
-        addBatch(connection, grants, event, identity, "VOTE", plan.voteCommands(), "CONSOLE", Map.of());
-        addBatch(connection, grants, event, identity, "SERVICE_PLAYER", plan.servicePlayerCommands(), "PLAYER", Map.of());
+        addBatch(grants, candidates, event, identity, "VOTE", plan.voteCommands(), "CONSOLE", Map.of());
+        addBatch(grants, candidates, event, identity, "SERVICE_PLAYER", plan.servicePlayerCommands(), "PLAYER", Map.of());
 
-        for (Map.Entry<Integer, List<String>> goal : plan.monthlyGoals().entrySet()) {
-            if (monthly >= goal.getKey() && claimPlayerGoal(connection, identity.uuid(), "monthly", goal.getKey(), period.monthKey())) {
-                addBatch(connection, grants, event, identity, "MONTHLY_GOAL", goal.getValue(), "CONSOLE",
+        for (Map.Entry<Integer, List<String>> goal : monthlyCounter.crossed(plan.monthlyGoals(), monthly)) {
+            if (claimPlayerGoal(identity.uuid(), "monthly", goal.getKey(), period.monthKey())) {
+                addBatch(grants, candidates, event, identity, "MONTHLY_GOAL", goal.getValue(), "CONSOLE",
                         Map.of("goal", goal.getKey().toString()));
                 notices.add(new VoteNotice("MONTHLY_GOAL", goal.getKey()));
             }
         }
         if (newestMonth) {
             for (Map.Entry<Integer, List<String>> goal : plan.monthlyStreakGoals().entrySet()) {
-                if (streak >= goal.getKey() && claimPlayerGoal(connection, identity.uuid(), "monthly_streak",
+                if (streak >= goal.getKey() && claimPlayerGoal(identity.uuid(), "monthly_streak",
                         goal.getKey(), period.monthKey())) {
-                    addBatch(connection, grants, event, identity, "MONTHLY_STREAK", goal.getValue(), "CONSOLE",
+                    addBatch(grants, candidates, event, identity, "MONTHLY_STREAK", goal.getValue(), "CONSOLE",
                             Map.of("goal", goal.getKey().toString()));
                     notices.add(new VoteNotice("MONTHLY_STREAK", goal.getKey()));
                 }
             }
         }
-        for (Map.Entry<Integer, List<String>> goal : plan.globalGoals().entrySet()) {
-            if (global >= goal.getKey() && claimGlobalGoal(connection, "global_daily", goal.getKey(), period.dayKey())) {
-                addBatch(connection, grants, event, null, "GLOBAL_GOAL", goal.getValue(), "CONSOLE",
+        for (Map.Entry<Integer, List<String>> goal : globalCounter.crossed(plan.globalGoals(), global)) {
+            if (claimGlobalGoal("global_daily", goal.getKey(), period.dayKey())) {
+                addBatch(grants, candidates, event, null, "GLOBAL_GOAL", goal.getValue(), "CONSOLE",
                         Map.of("goal", goal.getKey().toString()));
                 notices.add(new VoteNotice("GLOBAL_GOAL", goal.getKey()));
             }
         }
         if (plan.recurringStart() > 0 && plan.recurringEvery() > 0) {
-            int first = nextRecurring((int) Math.floor(previousGlobal), plan.recurringStart(), plan.recurringEvery());
+            int first = nextRecurring((int) Math.floor(globalCounter.recurringFloor()), plan.recurringStart(), plan.recurringEvery());
             for (int threshold = first; threshold <= (int) Math.floor(global); threshold += plan.recurringEvery()) {
-                if (claimGlobalGoal(connection, "global_recurring_" + plan.recurringEvery(), threshold, period.dayKey())) {
-                    addBatch(connection, grants, event, null, "GLOBAL_RECURRING", plan.recurringCommands(), "CONSOLE",
+                if (claimGlobalGoal("global_recurring_" + plan.recurringEvery(), threshold, period.dayKey())) {
+                    addBatch(grants, candidates, event, null, "GLOBAL_RECURRING", plan.recurringCommands(), "CONSOLE",
                             Map.of("goal", Integer.toString(threshold)));
                     notices.add(new VoteNotice("GLOBAL_RECURRING", threshold));
                 }
             }
         }
-        if (plan.tripleSiteEnabled()
-                && countDistinctServices(connection, identity.uuid(), period.dayKey()) >= plan.tripleSiteRequired()
-                && claimPlayerGoal(connection, identity.uuid(), "triple_site", plan.tripleSiteRequired(), period.dayKey())) {
-            addBatch(connection, grants, event, identity, "TRIPLE_SITE", plan.tripleSiteCommands(), "CONSOLE", Map.of());
+        int distinct = countDistinctServices(identity.uuid(), period.dayKey());
+        if (plan.tripleSiteEnabled() && distinct >= plan.tripleSiteRequired()
+                && claimPlayerGoal(identity.uuid(), "triple_site", plan.tripleSiteRequired(), period.dayKey())) {
+            addBatch(grants, candidates, event, identity, "TRIPLE_SITE", plan.tripleSiteCommands(), "CONSOLE", Map.of());
             notices.add(new VoteNotice("TRIPLE_SITE", plan.tripleSiteRequired()));
         }
 
-        updateEventState(connection, event.eventHash(), "PLANNED", identity.uuid(), period, "");
-        return VoteEventResult.planned(event.eventHash(), grants, notices);
+        updateEventState(event.eventHash(), "PLANNED", identity.uuid(), period, "");
+        PlayerStats committed = new PlayerStats(identity.uuid(), identity.exactName(), total, daily, projectedMonthly,
+                streak, newestDay ? period.dayKey() : stats.lastVoteDay(),
+                newestMonth ? period.monthKey() : stats.lastMonthKey(), nowEpoch());
+        String today = currentPeriod().dayKey();
+        LedgerPostState post = today.equals(period.dayKey())
+                ? new LedgerPostState(committed, distinct, global, today)
+                : postState(committed, today);
+        return VoteEventResult.planned(event.eventHash(), grants, notices,
+                post.withVote(period.monthKey(), monthly, stats.totalVotes()));
     }
 
-    private void addBatch(Connection connection, List<String> grantIds, VoteEnvelope event, PlayerIdentity target,
+    private void addBatch(List<String> grantIds, GrantCandidates candidates, VoteEnvelope event, PlayerIdentity target,
                           String kind, List<String> commands, String executor, Map<String, String> extra) throws SQLException {
-        String batch = event.eventHash() + ":" + kind.toLowerCase(Locale.ROOT);
-        for (int i = 0; i < commands.size(); i++) {
-            String command = materialize(commands.get(i), target, merge(extra, event));
-            String id = insertGrant(connection, batch, event.eventHash(), kind, i, command, executor,
+        String batch = GrantCandidates.batchKey(event.eventHash(), kind, extra.get("goal"));
+        List<GrantCandidates.Grant> grants = candidates == null ? null : candidates.batch(batch);
+        if (grants == null) {
+            grants = GrantCandidates.build(batch, commands, target, GrantCandidates.placeholders(extra, event), executor);
+        }
+        for (int i = 0; i < grants.size(); i++) {
+            GrantCandidates.Grant grant = grants.get(i);
+            insertGrant(grant.id(), batch, event.eventHash(), kind, i, grant.command(), executor,
                     target == null ? null : target.uuid(), target == null ? null : target.exactName());
-            grantIds.add(id);
+            grantIds.add(grant.id());
         }
     }
 
-    private String insertGrant(Connection connection, String batch, String eventHash, String kind, int sequence,
-                               String command, String executor, UUID targetUuid, String targetName) throws SQLException {
-        String id = VoteEnvelope.hashFields("vvotes-grant-v1", batch, Integer.toString(sequence), command, executor);
-        try (PreparedStatement statement = connection.prepareStatement("""
+    private void insertGrant(String id, String batch, String eventHash, String kind, int sequence,
+                             String command, String executor, UUID targetUuid, String targetName) throws SQLException {
+        PreparedStatement statement = prepared("""
                 INSERT INTO reward_grants(grant_id, batch_key, event_hash, kind, sequence, command_snapshot,
-                  executor_mode, target_uuid, target_name, state, created_at, updated_at)
-                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 'PENDING', ?, ?)
-                """)) {
-            statement.setString(1, id);
-            statement.setString(2, batch);
-            statement.setString(3, eventHash);
-            statement.setString(4, kind);
-            statement.setInt(5, sequence);
-            statement.setString(6, command);
-            statement.setString(7, executor);
-            statement.setString(8, targetUuid == null ? null : targetUuid.toString());
-            statement.setString(9, targetName);
-            statement.setLong(10, nowEpoch());
-            statement.setLong(11, nowEpoch());
-            statement.executeUpdate();
-        }
-        return id;
+                  executor_mode, target_uuid, target_name, state, created_at, updated_at, change_seq)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 'PENDING', ?, ?, ?)
+                """);
+        statement.setBytes(1, hashBytes(id));
+        statement.setString(2, batch);
+        statement.setBytes(3, eventHash == null ? null : hashBytes(eventHash));
+        statement.setString(4, kind);
+        statement.setInt(5, sequence);
+        statement.setString(6, command);
+        statement.setString(7, executor);
+        statement.setBytes(8, targetUuid == null ? null : uuidBytes(targetUuid));
+        statement.setString(9, targetName);
+        statement.setLong(10, nowEpoch());
+        statement.setLong(11, nowEpoch());
+        statement.setLong(12, changeStamp());
+        statement.executeUpdate();
+        if (sequence == 0) refreshGrantHead(batch);
     }
 
-    private Optional<GrantClaim> claimNext(String targetClause, String target) {
-        try (Connection connection = connection()) {
-            connection.setAutoCommit(false);
-            String sql = """
-                    SELECT g.grant_id, g.batch_key, g.sequence, g.kind, g.command_snapshot, g.executor_mode,
-                           g.target_uuid, g.target_name, g.claim_token, g.state, g.error
-                    FROM reward_grants g
-                    WHERE g.state = 'PENDING' AND %s
-                      AND NOT EXISTS (
-                        SELECT 1 FROM reward_grants prior
-                        WHERE prior.batch_key = g.batch_key AND prior.sequence < g.sequence AND prior.state <> 'DONE'
-                      )
-                    ORDER BY g.created_at, g.batch_key, g.sequence LIMIT 1
-                    """.formatted(targetClause);
-            GrantClaim candidate;
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                if (target != null) statement.setString(1, target);
+    /** Claims read grant_heads only, so history (DONE rows are never pruned) does not slow the lookup. */
+    static String claimQuery(boolean global) {
+        return """
+                SELECT g.grant_id, g.batch_key, g.sequence, g.kind, g.command_snapshot, g.executor_mode,
+                       g.target_uuid, g.target_name, g.claim_token, g.state, g.error
+                FROM grant_heads h JOIN reward_grants g ON g.grant_id = h.grant_id
+                WHERE %s
+                ORDER BY h.created_at, h.batch_key LIMIT ?
+                """.formatted(global ? "h.target_uuid IS NULL" : "h.target_uuid = ?");
+    }
+
+    private List<GrantClaim> claimBatch(String sql, UUID target, int limit) {
+        try {
+            return transaction(() -> {
+                List<GrantClaim> heads = new ArrayList<>();
+                PreparedStatement statement = prepared(sql);
+                int index = 1;
+                if (target != null) statement.setBytes(index++, uuidBytes(target));
+                statement.setInt(index, Math.max(1, limit));
                 try (ResultSet rs = statement.executeQuery()) {
-                    if (!rs.next()) {
-                        connection.rollback();
-                        return Optional.empty();
-                    }
-                    candidate = mapGrant(rs);
+                    while (rs.next()) heads.add(mapGrant(rs));
                 }
-            }
-            String token = UUID.randomUUID().toString();
-            try (PreparedStatement claim = connection.prepareStatement("""
-                    UPDATE reward_grants SET state = 'CLAIMED', claim_token = ?, claimed_at = ?, updated_at = ?
-                    WHERE grant_id = ? AND state = 'PENDING'
-                    """)) {
-                claim.setString(1, token);
-                claim.setLong(2, nowEpoch());
-                claim.setLong(3, nowEpoch());
-                claim.setString(4, candidate.grantId());
-                if (claim.executeUpdate() == 0) {
-                    connection.rollback();
-                    return Optional.empty();
+                List<GrantClaim> claims = new ArrayList<>();
+                for (GrantClaim head : heads) {
+                    if (claims.size() >= limit) break;
+                    PreparedStatement pop = prepared("DELETE FROM grant_heads WHERE batch_key = ?");
+                    pop.setString(1, head.batchKey());
+                    pop.executeUpdate();
+                    if (!claimGrant(head, claims)) continue;
+                    // The rest of the batch rides along in order; GrantDispatcher stops the chain on any non-DONE.
+                    PreparedStatement chain = prepared("""
+                            SELECT grant_id, batch_key, sequence, kind, command_snapshot, executor_mode,
+                                   target_uuid, target_name, claim_token, state, error
+                            FROM reward_grants WHERE batch_key = ? AND sequence > ? ORDER BY sequence
+                            """);
+                    chain.setString(1, head.batchKey());
+                    chain.setInt(2, head.sequence());
+                    List<GrantClaim> followers = new ArrayList<>();
+                    try (ResultSet rs = chain.executeQuery()) {
+                        while (claims.size() + followers.size() < limit && rs.next()) {
+                            GrantClaim follower = mapGrant(rs);
+                            if (!"PENDING".equals(follower.state())) break;
+                            followers.add(follower);
+                        }
+                    }
+                    for (GrantClaim follower : followers) if (!claimGrant(follower, claims)) break;
                 }
-            }
-            connection.commit();
-            return Optional.of(new GrantClaim(candidate.grantId(), candidate.batchKey(), candidate.sequence(),
-                    candidate.kind(), candidate.commandSnapshot(), candidate.executorMode(), candidate.targetUuid(),
-                    candidate.targetName(), token, "CLAIMED", ""));
+                return claims;
+            });
         } catch (SQLException exception) {
-            return Optional.empty();
+            return List.of();
         }
     }
 
+    private boolean claimGrant(GrantClaim candidate, List<GrantClaim> claims) throws SQLException {
+        String token = UUID.randomUUID().toString();
+        PreparedStatement claim = prepared("""
+                UPDATE reward_grants SET state = 'CLAIMED', claim_token = ?, claimed_at = ?, updated_at = ?, change_seq = ?
+                WHERE grant_id = ? AND state = 'PENDING'
+                """);
+        claim.setString(1, token);
+        claim.setLong(2, nowEpoch());
+        claim.setLong(3, nowEpoch());
+        claim.setLong(4, peekStamp());
+        claim.setBytes(5, hashBytes(candidate.grantId()));
+        if (claim.executeUpdate() == 0) return false;
+        changeStamp();
+        claims.add(new GrantClaim(candidate.grantId(), candidate.batchKey(), candidate.sequence(),
+                candidate.kind(), candidate.commandSnapshot(), candidate.executorMode(), candidate.targetUuid(),
+                candidate.targetName(), token, "CLAIMED", ""));
+        return true;
+    }
+
     private boolean transition(String id, String token, String state, String error) {
-        try (Connection connection = connection(); PreparedStatement statement = connection.prepareStatement("""
+        try {
+            return transaction(() -> applyTransition(id, token, state, error));
+        } catch (SQLException exception) {
+            return false;
+        }
+    }
+
+    private boolean applyTransition(String id, String token, String state, String error) throws SQLException {
+        PreparedStatement statement = prepared("""
                 UPDATE reward_grants SET state = ?, error = ?, claim_token = NULL,
                   completed_at = CASE WHEN ? IN ('DONE', 'AMBIGUOUS') THEN ? ELSE completed_at END,
-                  updated_at = ?
+                  updated_at = ?, change_seq = ?
                 WHERE grant_id = ? AND state = 'CLAIMED' AND claim_token = ?
-                """)) {
-            statement.setString(1, state);
-            statement.setString(2, safeError(error));
-            statement.setString(3, state);
-            statement.setLong(4, nowEpoch());
-            statement.setLong(5, nowEpoch());
-            statement.setString(6, id);
-            statement.setString(7, token);
-            return statement.executeUpdate() == 1;
-        } catch (SQLException exception) {
-            return false;
+                RETURNING batch_key
+                """);
+        statement.setString(1, state);
+        statement.setString(2, safeError(error));
+        statement.setString(3, state);
+        statement.setLong(4, nowEpoch());
+        statement.setLong(5, nowEpoch());
+        statement.setLong(6, peekStamp());
+        statement.setBytes(7, hashBytes(id));
+        statement.setString(8, token);
+        String batch;
+        try (ResultSet rs = statement.executeQuery()) {
+            if (!rs.next()) return false;
+            changeStamp();
+            batch = rs.getString(1);
+        }
+        refreshGrantHead(batch);
+        return true;
+    }
+
+    /** The head is the lowest non-DONE sequence, and only while it is PENDING; AMBIGUOUS keeps the batch blocked. */
+    private void refreshGrantHead(String batchKey) throws SQLException {
+        PreparedStatement clear = prepared("DELETE FROM grant_heads WHERE batch_key = ?");
+        clear.setString(1, batchKey);
+        clear.executeUpdate();
+        PreparedStatement statement = prepared("""
+                INSERT INTO grant_heads(batch_key, grant_id, target_uuid, created_at)
+                SELECT batch_key, grant_id, target_uuid, created_at FROM (
+                  SELECT batch_key, grant_id, target_uuid, created_at, state FROM reward_grants
+                  WHERE batch_key = ? AND state <> 'DONE' ORDER BY sequence LIMIT 1
+                ) WHERE state = 'PENDING'
+                """);
+        statement.setString(1, batchKey);
+        statement.executeUpdate();
+    }
+
+    /** grant_heads is derived state; rebuilding it at startup also heals databases touched by older builds. */
+    private void rebuildGrantHeads() throws SQLException {
+        try (Statement statement = connection().createStatement()) {
+            statement.execute("DELETE FROM grant_heads");
+            statement.execute("""
+                    INSERT INTO grant_heads(batch_key, grant_id, target_uuid, created_at)
+                    SELECT g.batch_key, g.grant_id, g.target_uuid, g.created_at
+                    FROM reward_grants g
+                    WHERE g.state = 'PENDING' AND NOT EXISTS (
+                      SELECT 1 FROM reward_grants prior
+                      WHERE prior.batch_key = g.batch_key AND prior.sequence < g.sequence AND prior.state <> 'DONE'
+                    )
+                    """);
         }
     }
 
-    private void backupBeforeMigration() throws SQLException, IOException {
-        if (!Files.exists(databasePath) || Files.size(databasePath) == 0) return;
+    /** Returns the version found on disk (0 for a new file), after backing it up when it is older than this build. */
+    private int backupBeforeMigration() throws SQLException, IOException {
+        if (!Files.exists(databasePath) || Files.size(databasePath) == 0) return 0;
         int version;
         try (Connection connection = rawConnection(databasePath); Statement statement = connection.createStatement()) {
             statement.execute("PRAGMA busy_timeout=" + busyTimeoutMs);
@@ -648,10 +991,11 @@ public final class VoteLedger implements AutoCloseable {
             version = readAndValidateVersions(connection);
         }
         if (version > SCHEMA_VERSION) throw new SQLException("Database schema is newer than this plugin");
-        if (version >= SCHEMA_VERSION) return;
+        if (version >= SCHEMA_VERSION) return version;
         Path backup = databasePath.resolveSibling(databasePath.getFileName() + ".backup-v" + version);
         if (!Files.exists(backup)) Files.copy(databasePath, backup, StandardCopyOption.COPY_ATTRIBUTES);
         validateBackup(backup);
+        return version;
     }
 
     private void validateBackup(Path backup) throws SQLException {
@@ -696,36 +1040,47 @@ public final class VoteLedger implements AutoCloseable {
         try (Statement statement = connection.createStatement()) {
             statement.execute("""
                     CREATE TABLE IF NOT EXISTS players (
-                      uuid TEXT PRIMARY KEY, name TEXT NOT NULL, total_votes REAL NOT NULL DEFAULT 0,
-                      daily_votes REAL NOT NULL DEFAULT 0, monthly_votes REAL NOT NULL DEFAULT 0,
+                      uuid BLOB PRIMARY KEY, name TEXT NOT NULL, total_votes INTEGER NOT NULL DEFAULT 0,
+                      daily_votes INTEGER NOT NULL DEFAULT 0, monthly_votes INTEGER NOT NULL DEFAULT 0,
                       streak_monthly INTEGER NOT NULL DEFAULT 0, last_vote_day TEXT NOT NULL DEFAULT '',
-                      last_month_key TEXT NOT NULL DEFAULT '', last_vote_epoch INTEGER NOT NULL DEFAULT 0)
+                      last_month_key TEXT NOT NULL DEFAULT '', last_vote_epoch INTEGER NOT NULL DEFAULT 0,
+                      change_seq INTEGER NOT NULL DEFAULT 0) WITHOUT ROWID
                     """);
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_players_last_vote ON players(last_vote_epoch)");
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_players_change_seq ON players(change_seq)");
+            statement.execute("""
+                    CREATE TABLE IF NOT EXISTS ledger_state (
+                      id INTEGER PRIMARY KEY CHECK(id=1), ledger_id BLOB NOT NULL)
+                    """);
+            statement.execute("INSERT OR IGNORE INTO ledger_state(id, ledger_id) VALUES(1, randomblob(16))");
             statement.execute("""
                     CREATE TABLE IF NOT EXISTS global_stats (
-                      id INTEGER PRIMARY KEY CHECK(id=1), daily_votes REAL NOT NULL DEFAULT 0,
+                      id INTEGER PRIMARY KEY CHECK(id=1), daily_votes INTEGER NOT NULL DEFAULT 0,
                       last_daily_reset TEXT NOT NULL DEFAULT '')
                     """);
             statement.execute("INSERT OR IGNORE INTO global_stats(id, daily_votes, last_daily_reset) VALUES(1,0,'')");
             statement.execute("""
                     CREATE TABLE IF NOT EXISTS player_preferences (
-                      uuid TEXT PRIMARY KEY, mute_vote_announcements INTEGER NOT NULL DEFAULT 0)
+                      uuid BLOB PRIMARY KEY, mute_vote_announcements INTEGER NOT NULL DEFAULT 0) WITHOUT ROWID
                     """);
             statement.execute("""
                     CREATE TABLE IF NOT EXISTS goal_claims_global (
                       goal_type TEXT NOT NULL, goal_value INTEGER NOT NULL, day_key TEXT NOT NULL,
-                      PRIMARY KEY(goal_type, goal_value, day_key))
+                      PRIMARY KEY(goal_type, goal_value, day_key)) WITHOUT ROWID
                     """);
             statement.execute("""
                     CREATE TABLE IF NOT EXISTS goal_claims_player (
-                      uuid TEXT NOT NULL, goal_type TEXT NOT NULL, goal_value INTEGER NOT NULL, period_key TEXT NOT NULL,
-                      PRIMARY KEY(uuid, goal_type, goal_value, period_key))
+                      uuid BLOB NOT NULL, goal_type TEXT NOT NULL, goal_value INTEGER NOT NULL, period_key TEXT NOT NULL,
+                      PRIMARY KEY(uuid, goal_type, goal_value, period_key)) WITHOUT ROWID
                     """);
             statement.execute("""
                     CREATE TABLE IF NOT EXISTS monthly_snapshots (
-                      uuid TEXT NOT NULL, player_name TEXT NOT NULL, month_key TEXT NOT NULL,
-                      votes REAL NOT NULL, last_update_epoch INTEGER NOT NULL, PRIMARY KEY(uuid, month_key))
+                      uuid BLOB NOT NULL, player_name TEXT NOT NULL, month_key TEXT NOT NULL,
+                      votes INTEGER NOT NULL, last_update_epoch INTEGER NOT NULL,
+                      goal_watermark INTEGER NOT NULL DEFAULT -1, change_seq INTEGER NOT NULL DEFAULT 0,
+                      PRIMARY KEY(uuid, month_key)) WITHOUT ROWID
                     """);
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_monthly_snapshots_change_seq ON monthly_snapshots(change_seq)");
             statement.execute("""
                     CREATE TABLE IF NOT EXISTS monthly_draw_history (
                       month_key TEXT PRIMARY KEY, winner_uuid TEXT NOT NULL, winner_name TEXT NOT NULL,
@@ -746,40 +1101,163 @@ public final class VoteLedger implements AutoCloseable {
             statement.execute("CREATE INDEX IF NOT EXISTS idx_vote_logs_uuid_epoch ON vote_logs(uuid, created_epoch)");
             statement.execute("""
                     CREATE TABLE IF NOT EXISTS daily_global_snapshots (
-                      day_key TEXT PRIMARY KEY, votes REAL NOT NULL)
-                    """);
-            statement.execute("""
-                    INSERT OR IGNORE INTO daily_global_snapshots(day_key, votes)
-                    SELECT last_daily_reset, daily_votes FROM global_stats WHERE id=1 AND last_daily_reset <> ''
+                      day_key TEXT PRIMARY KEY, votes INTEGER NOT NULL,
+                      goal_watermark INTEGER NOT NULL DEFAULT -1, change_seq INTEGER NOT NULL DEFAULT 0) WITHOUT ROWID
                     """);
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_daily_global_snapshots_change_seq ON daily_global_snapshots(change_seq)");
+            statement.execute(SEED_GLOBAL_SNAPSHOT);
             statement.execute("""
                     CREATE TABLE IF NOT EXISTS vote_events (
-                      event_hash TEXT PRIMARY KEY, normalized_name TEXT NOT NULL, display_name TEXT NOT NULL,
+                      event_hash BLOB PRIMARY KEY, normalized_name TEXT NOT NULL, display_name TEXT NOT NULL,
                       service TEXT NOT NULL, provider_timestamp TEXT NOT NULL, state TEXT NOT NULL,
-                      resolved_uuid TEXT, day_key TEXT, month_key TEXT, plan_json TEXT NOT NULL,
+                      resolved_uuid BLOB, day_key TEXT, month_key TEXT, plan_id BLOB, plan_json TEXT NOT NULL DEFAULT '',
                       created_at INTEGER NOT NULL, updated_at INTEGER NOT NULL, failure TEXT NOT NULL DEFAULT '')
+                      WITHOUT ROWID
                     """);
             statement.execute("CREATE INDEX IF NOT EXISTS idx_vote_events_pending ON vote_events(state, normalized_name)");
+            statement.execute("""
+                    CREATE TABLE IF NOT EXISTS vote_plans (
+                      plan_id BLOB PRIMARY KEY, plan_json TEXT NOT NULL, created_at INTEGER NOT NULL)
+                    """);
             statement.execute("CREATE INDEX IF NOT EXISTS idx_vote_events_service_day ON vote_events(resolved_uuid, day_key, service)");
             statement.execute("""
                     CREATE TABLE IF NOT EXISTS reward_grants (
-                      grant_id TEXT PRIMARY KEY, batch_key TEXT NOT NULL, event_hash TEXT,
+                      grant_id BLOB PRIMARY KEY, batch_key TEXT NOT NULL, event_hash BLOB,
                       kind TEXT NOT NULL, sequence INTEGER NOT NULL, command_snapshot TEXT NOT NULL,
-                      executor_mode TEXT NOT NULL, target_uuid TEXT, target_name TEXT,
+                      executor_mode TEXT NOT NULL, target_uuid BLOB, target_name TEXT,
                       state TEXT NOT NULL, claim_token TEXT, created_at INTEGER NOT NULL,
                       claimed_at INTEGER, completed_at INTEGER, updated_at INTEGER NOT NULL,
-                      error TEXT NOT NULL DEFAULT '', UNIQUE(batch_key, sequence))
+                      error TEXT NOT NULL DEFAULT '', change_seq INTEGER NOT NULL DEFAULT 0, UNIQUE(batch_key, sequence))
                     """);
             statement.execute("CREATE INDEX IF NOT EXISTS idx_reward_grants_state_target ON reward_grants(state, target_uuid)");
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_reward_grants_change_seq ON reward_grants(change_seq)");
+            statement.execute("""
+                    CREATE TABLE IF NOT EXISTS grant_heads (
+                      batch_key TEXT PRIMARY KEY, grant_id BLOB NOT NULL UNIQUE, target_uuid BLOB,
+                      created_at INTEGER NOT NULL) WITHOUT ROWID
+                    """);
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_grant_heads_claim ON grant_heads(target_uuid, created_at, batch_key)");
             statement.execute("""
                     CREATE TABLE IF NOT EXISTS legacy_pending_migrations (
-                      pending_id INTEGER PRIMARY KEY, event_hash TEXT NOT NULL UNIQUE, migrated_at INTEGER NOT NULL)
+                      pending_id INTEGER PRIMARY KEY, event_hash BLOB NOT NULL UNIQUE, migrated_at INTEGER NOT NULL)
                     """);
             statement.execute("CREATE TABLE IF NOT EXISTS schema_version(version INTEGER PRIMARY KEY, applied_at INTEGER NOT NULL)");
             statement.execute("INSERT OR IGNORE INTO schema_version(version, applied_at) VALUES(" + SCHEMA_VERSION + ", " + nowEpoch() + ")");
         }
-        ensureColumn(connection, "players", "streak_monthly",
-                "ALTER TABLE players ADD COLUMN streak_monthly INTEGER NOT NULL DEFAULT 0");
+    }
+
+    /**
+     * Before v4 uuids and hashes were TEXT and counters REAL. Existing tables get the columns later versions added,
+     * lose their indexes (names are global) and are renamed aside so createSchema can build the compact layout.
+     */
+    private List<String> detachTextKeyedTables() throws SQLException {
+        Connection connection = connection();
+        List<String> detached = new ArrayList<>();
+        for (String table : COMPACT_TABLES) {
+            if (!tableExists(table)) continue;
+            switch (table) {
+                case "players" -> ensureColumn(connection, table, "streak_monthly",
+                        "ALTER TABLE players ADD COLUMN streak_monthly INTEGER NOT NULL DEFAULT 0");
+                case "vote_events" -> ensureColumn(connection, table, "plan_id",
+                        "ALTER TABLE vote_events ADD COLUMN plan_id TEXT");
+                case "monthly_snapshots", "daily_global_snapshots" -> ensureColumn(connection, table, "goal_watermark",
+                        "ALTER TABLE " + table + " ADD COLUMN goal_watermark REAL NOT NULL DEFAULT -1");
+                default -> { }
+            }
+            List<String> indexes = new ArrayList<>();
+            PreparedStatement query = prepared(
+                    "SELECT name FROM sqlite_master WHERE type = 'index' AND tbl_name = ? AND sql IS NOT NULL");
+            query.setString(1, table);
+            try (ResultSet rs = query.executeQuery()) {
+                while (rs.next()) indexes.add(rs.getString(1));
+            }
+            try (Statement statement = connection.createStatement()) {
+                for (String index : indexes) statement.execute("DROP INDEX \"" + index + "\"");
+                statement.execute("ALTER TABLE " + table + " RENAME TO " + table + "_text_keys");
+            }
+            detached.add(table);
+        }
+        return detached;
+    }
+
+    /** Counters were always whole votes; CAST keeps floor semantics, matching how goals read them. */
+    private void copyTextKeyedTables(List<String> tables) throws SQLException {
+        if (tables.isEmpty()) return;
+        try (Statement statement = connection().createStatement()) {
+            for (String table : tables) {
+                String copy = compactCopy(table);
+                if (copy != null) statement.execute(copy.replace("{old}", table + "_text_keys"));
+                statement.execute("DROP TABLE " + table + "_text_keys");
+            }
+            statement.execute(SEED_GLOBAL_SNAPSHOT);
+        }
+    }
+
+    private static String compactCopy(String table) {
+        return switch (table) {
+            case "players" -> """
+                    INSERT INTO players(uuid, name, total_votes, daily_votes, monthly_votes, streak_monthly,
+                      last_vote_day, last_month_key, last_vote_epoch)
+                    SELECT unhex(replace(uuid, '-', '')), name, CAST(total_votes AS INTEGER),
+                      CAST(daily_votes AS INTEGER), CAST(monthly_votes AS INTEGER), streak_monthly,
+                      last_vote_day, last_month_key, last_vote_epoch FROM {old}
+                    """;
+            case "global_stats" -> """
+                    INSERT OR REPLACE INTO global_stats(id, daily_votes, last_daily_reset)
+                    SELECT id, CAST(daily_votes AS INTEGER), last_daily_reset FROM {old}
+                    """;
+            case "player_preferences" -> """
+                    INSERT INTO player_preferences(uuid, mute_vote_announcements)
+                    SELECT unhex(replace(uuid, '-', '')), mute_vote_announcements FROM {old}
+                    """;
+            case "goal_claims_global" -> """
+                    INSERT INTO goal_claims_global(goal_type, goal_value, day_key)
+                    SELECT goal_type, goal_value, day_key FROM {old}
+                    """;
+            case "goal_claims_player" -> """
+                    INSERT INTO goal_claims_player(uuid, goal_type, goal_value, period_key)
+                    SELECT unhex(replace(uuid, '-', '')), goal_type, goal_value, period_key FROM {old}
+                    """;
+            case "monthly_snapshots" -> """
+                    INSERT INTO monthly_snapshots(uuid, player_name, month_key, votes, last_update_epoch, goal_watermark)
+                    SELECT unhex(replace(uuid, '-', '')), player_name, month_key, CAST(votes AS INTEGER),
+                      last_update_epoch, CAST(goal_watermark AS INTEGER) FROM {old}
+                    """;
+            case "daily_global_snapshots" -> """
+                    INSERT INTO daily_global_snapshots(day_key, votes, goal_watermark)
+                    SELECT day_key, CAST(votes AS INTEGER), CAST(goal_watermark AS INTEGER) FROM {old}
+                    """;
+            case "vote_events" -> """
+                    INSERT INTO vote_events(event_hash, normalized_name, display_name, service, provider_timestamp, state,
+                      resolved_uuid, day_key, month_key, plan_id, plan_json, created_at, updated_at, failure)
+                    SELECT unhex(event_hash), normalized_name, display_name, service, provider_timestamp, state,
+                      unhex(replace(resolved_uuid, '-', '')), day_key, month_key, unhex(plan_id), plan_json,
+                      created_at, updated_at, failure FROM {old}
+                    """;
+            case "vote_plans" -> """
+                    INSERT INTO vote_plans(plan_id, plan_json, created_at)
+                    SELECT unhex(plan_id), plan_json, created_at FROM {old}
+                    """;
+            case "reward_grants" -> """
+                    INSERT INTO reward_grants(grant_id, batch_key, event_hash, kind, sequence, command_snapshot,
+                      executor_mode, target_uuid, target_name, state, claim_token, created_at, claimed_at,
+                      completed_at, updated_at, error)
+                    SELECT unhex(grant_id), batch_key, unhex(event_hash), kind, sequence, command_snapshot,
+                      executor_mode, unhex(replace(target_uuid, '-', '')), target_name, state, claim_token, created_at,
+                      claimed_at, completed_at, updated_at, error FROM {old}
+                    """;
+            case "legacy_pending_migrations" -> """
+                    INSERT INTO legacy_pending_migrations(pending_id, event_hash, migrated_at)
+                    SELECT pending_id, unhex(event_hash), migrated_at FROM {old}
+                    """;
+            default -> null; // grant_heads is rebuilt from reward_grants
+        };
+    }
+
+    private boolean tableExists(String table) throws SQLException {
+        PreparedStatement statement = prepared("SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?");
+        statement.setString(1, table);
+        try (ResultSet rs = statement.executeQuery()) { return rs.next(); }
     }
 
     private void ensureColumn(Connection connection, String table, String column, String alteration) throws SQLException {
@@ -790,170 +1268,355 @@ public final class VoteLedger implements AutoCloseable {
         if (!found) try (Statement statement = connection.createStatement()) { statement.execute(alteration); }
     }
 
-    private boolean insertEvent(Connection connection, VoteEnvelope event, VotePlan plan,
+    private boolean insertEvent(VoteEnvelope event, VotePlan plan,
                                 String state, PeriodContext period) throws SQLException {
-        try (PreparedStatement statement = connection.prepareStatement("""
+        PreparedStatement statement = prepared("""
                 INSERT OR IGNORE INTO vote_events(event_hash, normalized_name, display_name, service,
-                  provider_timestamp, state, plan_json, created_at, updated_at, day_key, month_key)
-                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-                """)) {
-            statement.setString(1, event.eventHash());
-            statement.setString(2, event.normalizedName());
-            statement.setString(3, event.displayName());
-            statement.setString(4, event.normalizedService());
-            statement.setString(5, event.providerTimestamp());
-            statement.setString(6, state);
-            statement.setString(7, plan.toJson());
-            statement.setLong(8, nowEpoch());
-            statement.setLong(9, nowEpoch());
-            statement.setString(10, period.dayKey());
-            statement.setString(11, period.monthKey());
-            return statement.executeUpdate() == 1;
-        }
-    }
-
-    private void updateEventState(Connection connection, String hash, String state, UUID uuid,
+                  provider_timestamp, state, plan_id, plan_json, created_at, updated_at, day_key, month_key)
+                VALUES (?, ?, ?, ?, ?, ?, ?, '', ?, ?, ?, ?)
+                """);
+        statement.setBytes(1, hashBytes(event.eventHash()));
+        statement.setString(2, event.normalizedName());
+        statement.setString(3, event.displayName());
+        statement.setString(4, event.normalizedService());
+        statement.setString(5, event.providerTimestamp());
+        statement.setString(6, state);
+        statement.setBytes(7, hashBytes(planId(plan)));
+        statement.setLong(8, nowEpoch());
+        statement.setLong(9, nowEpoch());
+        statement.setString(10, period.dayKey());
+        statement.setString(11, period.monthKey());
+        return statement.executeUpdate() == 1;
+    }
+
+    private void updateEventState(String hash, String state, UUID uuid,
                                   PeriodContext period, String failure) throws SQLException {
-        try (PreparedStatement statement = connection.prepareStatement("""
+        PreparedStatement statement = prepared("""
                 UPDATE vote_events SET state=?, resolved_uuid=?, day_key=?, month_key=?, updated_at=?, failure=?
                 WHERE event_hash=?
-                """)) {
-            statement.setString(1, state);
-            statement.setString(2, uuid == null ? null : uuid.toString());
-            statement.setString(3, period.dayKey());
-            statement.setString(4, period.monthKey());
-            statement.setLong(5, nowEpoch());
-            statement.setString(6, safeError(failure));
-            statement.setString(7, hash);
-            statement.executeUpdate();
-        }
-    }
-
-    private PlayerStats fetchOrCreate(Connection connection, PlayerIdentity identity) throws SQLException {
-        try (PreparedStatement insert = connection.prepareStatement(
-                "INSERT OR IGNORE INTO players(uuid, name) VALUES(?, ?)")) {
-            insert.setString(1, identity.uuid().toString());
-            insert.setString(2, identity.exactName());
-            insert.executeUpdate();
-        }
-        try (PreparedStatement query = connection.prepareStatement("SELECT * FROM players WHERE uuid=?")) {
-            query.setString(1, identity.uuid().toString());
-            try (ResultSet rs = query.executeQuery()) {
-                if (!rs.next()) throw new SQLException("player row missing after insert");
-                return new PlayerStats(identity.uuid(), rs.getString("name"), rs.getDouble("total_votes"),
-                        rs.getDouble("daily_votes"), rs.getDouble("monthly_votes"), rs.getInt("streak_monthly"),
-                        rs.getString("last_vote_day"), rs.getString("last_month_key"), rs.getLong("last_vote_epoch"));
-            }
+                """);
+        statement.setString(1, state);
+        statement.setBytes(2, uuid == null ? null : uuidBytes(uuid));
+        statement.setString(3, period.dayKey());
+        statement.setString(4, period.monthKey());
+        statement.setLong(5, nowEpoch());
+        statement.setString(6, safeError(failure));
+        statement.setBytes(7, hashBytes(hash));
+        statement.executeUpdate();
+    }
+
+    private PlayerStats fetchOrCreate(PlayerIdentity identity) throws SQLException {
+        PreparedStatement insert = prepared("INSERT OR IGNORE INTO players(uuid, name, change_seq) VALUES(?, ?, ?)");
+        insert.setBytes(1, uuidBytes(identity.uuid()));
+        insert.setString(2, identity.exactName());
+        insert.setLong(3, changeStamp());
+        insert.executeUpdate();
+        PreparedStatement query = prepared("SELECT * FROM players WHERE uuid=?");
+        query.setBytes(1, uuidBytes(identity.uuid()));
+        try (ResultSet rs = query.executeQuery()) {
+            if (!rs.next()) throw new SQLException("player row missing after insert");
+            return new PlayerStats(identity.uuid(), rs.getString("name"), rs.getDouble("total_votes"),
+                    rs.getDouble("daily_votes"), rs.getDouble("monthly_votes"), rs.getInt("streak_monthly"),
+                    rs.getString("last_vote_day"), rs.getString("last_month_key"), rs.getLong("last_vote_epoch"));
         }
     }
 
-    private void updatePlayer(Connection connection, PlayerIdentity identity, double total, double daily,
+    private void updatePlayer(PlayerIdentity identity, double total, double daily,
                               double monthly, int streak, PeriodContext period) throws SQLException {
-        updatePlayerProjection(connection, identity, total, daily, monthly, streak, period.dayKey(), period.monthKey());
+        updatePlayerProjection(identity, total, daily, monthly, streak, period.dayKey(), period.monthKey());
+    }
+
+    private LedgerPostState updatePlayerWithPostState(PlayerIdentity identity, double total, double daily,
+                                                      double monthly, int streak, PeriodContext period) throws SQLException {
+        updatePlayer(identity, total, daily, monthly, streak, period);
+        return postState(new PlayerStats(identity.uuid(), identity.exactName(), total, daily, monthly, streak,
+                period.dayKey(), period.monthKey(), nowEpoch()), period.dayKey());
     }
 
-    private void updatePlayerProjection(Connection connection, PlayerIdentity identity, double total, double daily,
+    private LedgerPostState postState(PlayerStats committed, String today) throws SQLException {
+        return new LedgerPostState(committed, countDistinctServices(committed.uuid(), today), readGlobal(today), today);
+    }
+
+    private void updatePlayerProjection(PlayerIdentity identity, double total, double daily,
                                         double monthly, int streak, String dayKey, String monthKey) throws SQLException {
-        try (PreparedStatement statement = connection.prepareStatement("""
+        PreparedStatement statement = prepared("""
                 UPDATE players SET name=?, total_votes=?, daily_votes=?, monthly_votes=?, streak_monthly=?,
-                  last_vote_day=?, last_month_key=?, last_vote_epoch=? WHERE uuid=?
-                """)) {
-            statement.setString(1, identity.exactName()); statement.setDouble(2, total);
-            statement.setDouble(3, daily); statement.setDouble(4, monthly); statement.setInt(5, streak);
-            statement.setString(6, dayKey); statement.setString(7, monthKey);
-            statement.setLong(8, nowEpoch()); statement.setString(9, identity.uuid().toString());
-            statement.executeUpdate();
-        }
+                  last_vote_day=?, last_month_key=?, last_vote_epoch=?, change_seq=? WHERE uuid=?
+                """);
+        statement.setString(1, identity.exactName()); statement.setLong(2, (long) total);
+        statement.setLong(3, (long) daily); statement.setLong(4, (long) monthly); statement.setInt(5, streak);
+        statement.setString(6, dayKey); statement.setString(7, monthKey);
+        statement.setLong(8, nowEpoch()); statement.setLong(9, changeStamp());
+        statement.setBytes(10, uuidBytes(identity.uuid()));
+        statement.executeUpdate();
     }
 
-    private void upsertSnapshot(Connection connection, PlayerIdentity identity, String month, double votes) throws SQLException {
-        try (PreparedStatement statement = connection.prepareStatement("""
-                INSERT INTO monthly_snapshots(uuid, player_name, month_key, votes, last_update_epoch)
-                VALUES(?,?,?,?,?) ON CONFLICT(uuid, month_key) DO UPDATE SET
-                  player_name=excluded.player_name, votes=excluded.votes, last_update_epoch=excluded.last_update_epoch
-                """)) {
-            statement.setString(1, identity.uuid().toString()); statement.setString(2, identity.exactName());
-            statement.setString(3, month); statement.setDouble(4, votes); statement.setLong(5, nowEpoch());
-            statement.executeUpdate();
-        }
+    /** Votes always evaluate goals up to the new count, so the snapshot's watermark follows it. */
+    private void upsertSnapshot(PlayerIdentity identity, String month, double votes) throws SQLException {
+        PreparedStatement statement = prepared("""
+                INSERT INTO monthly_snapshots(uuid, player_name, month_key, votes, last_update_epoch, goal_watermark,
+                  change_seq)
+                VALUES(?,?,?,?,?,?,?) ON CONFLICT(uuid, month_key) DO UPDATE SET
+                  player_name=excluded.player_name, votes=excluded.votes, last_update_epoch=excluded.last_update_epoch,
+                  goal_watermark=excluded.goal_watermark, change_seq=excluded.change_seq
+                """);
+        statement.setBytes(1, uuidBytes(identity.uuid())); statement.setString(2, identity.exactName());
+        statement.setString(3, month); statement.setLong(4, (long) votes); statement.setLong(5, nowEpoch());
+        statement.setLong(6, (long) votes); statement.setLong(7, changeStamp());
+        statement.executeUpdate();
     }
 
-    private double readMonthlySnapshot(Connection connection, UUID uuid, String month) throws SQLException {
-        try (PreparedStatement statement = connection.prepareStatement(
-                "SELECT votes FROM monthly_snapshots WHERE uuid=? AND month_key=?")) {
-            statement.setString(1, uuid.toString());
-            statement.setString(2, month);
-            try (ResultSet rs = statement.executeQuery()) { return rs.next() ? rs.getDouble(1) : 0; }
+    private GoalCounter readMonthlyCounter(UUID uuid, String month) throws SQLException {
+        PreparedStatement statement = prepared(
+                "SELECT votes, goal_watermark FROM monthly_snapshots WHERE uuid=? AND month_key=?");
+        statement.setBytes(1, uuidBytes(uuid));
+        statement.setString(2, month);
+        try (ResultSet rs = statement.executeQuery()) {
+            return rs.next() ? new GoalCounter(rs.getDouble(1), rs.getDouble(2)) : GoalCounter.EMPTY;
         }
     }
 
-    private double readGlobal(Connection connection, String day) throws SQLException {
-        try (PreparedStatement statement = connection.prepareStatement(
-                "SELECT votes FROM daily_global_snapshots WHERE day_key=?")) {
-            statement.setString(1, day);
-            try (ResultSet rs = statement.executeQuery()) { return rs.next() ? rs.getDouble(1) : 0; }
+    private GoalCounter readGlobalCounter(String day) throws SQLException {
+        PreparedStatement statement = prepared("SELECT votes, goal_watermark FROM daily_global_snapshots WHERE day_key=?");
+        statement.setString(1, day);
+        try (ResultSet rs = statement.executeQuery()) {
+            return rs.next() ? new GoalCounter(rs.getDouble(1), rs.getDouble(2)) : GoalCounter.EMPTY;
         }
     }
 
-    private void updateGlobal(Connection connection, double value, String day) throws SQLException {
-        updateGlobalPeriod(connection, value, day);
+    private double readGlobal(String day) throws SQLException {
+        PreparedStatement statement = prepared("SELECT votes FROM daily_global_snapshots WHERE day_key=?");
+        statement.setString(1, day);
+        try (ResultSet rs = statement.executeQuery()) { return rs.next() ? rs.getDouble(1) : 0; }
     }
 
-    private void updateGlobalPeriod(Connection connection, double value, String day) throws SQLException {
-        try (PreparedStatement snapshot = connection.prepareStatement("""
-                INSERT INTO daily_global_snapshots(day_key, votes) VALUES(?,?)
-                ON CONFLICT(day_key) DO UPDATE SET votes=excluded.votes
-                """)) {
-            snapshot.setString(1, day);
-            snapshot.setDouble(2, value);
-            snapshot.executeUpdate();
-        }
-        String projectedDay = "";
-        try (PreparedStatement read = connection.prepareStatement(
-                "SELECT last_daily_reset FROM global_stats WHERE id=1"); ResultSet rs = read.executeQuery()) {
-            if (rs.next()) projectedDay = rs.getString(1);
+    /** Admin adjustments keep the goal watermark, so the next vote reconciles every threshold it skipped. */
+    private void updateGlobal(double value, String day) throws SQLException {
+        updateGlobalPeriod(value, day, false);
+    }
+
+    private void updateGlobalPeriod(double value, String day, boolean goalsEvaluated) throws SQLException {
+        PreparedStatement snapshot = prepared("""
+                INSERT INTO daily_global_snapshots(day_key, votes, goal_watermark, change_seq) VALUES(?,?,?,?)
+                ON CONFLICT(day_key) DO UPDATE SET votes=excluded.votes, change_seq=excluded.change_seq,
+                  goal_watermark=CASE WHEN ? THEN excluded.goal_watermark ELSE goal_watermark END
+                """);
+        snapshot.setString(1, day);
+        snapshot.setLong(2, (long) value);
+        snapshot.setLong(3, goalsEvaluated ? (long) value : -1);
+        snapshot.setLong(4, changeStamp());
+        snapshot.setBoolean(5, goalsEvaluated);
+        snapshot.executeUpdate();
+        PreparedStatement statement = prepared("""
+                UPDATE global_stats SET daily_votes=?, last_daily_reset=?
+                WHERE id=1 AND last_daily_reset <= ?
+                """);
+        statement.setLong(1, (long) value); statement.setString(2, day); statement.setString(3, day);
+        statement.executeUpdate();
+    }
+
+    private boolean claimPlayerGoal(UUID uuid, String type, int value, String period) throws SQLException {
+        PreparedStatement s = prepared(
+                "INSERT OR IGNORE INTO goal_claims_player(uuid,goal_type,goal_value,period_key) VALUES(?,?,?,?)");
+        s.setBytes(1, uuidBytes(uuid)); s.setString(2, type); s.setInt(3, value); s.setString(4, period);
+        return s.executeUpdate() == 1;
+    }
+
+    private boolean claimGlobalGoal(String type, int value, String period) throws SQLException {
+        PreparedStatement s = prepared("INSERT OR IGNORE INTO goal_claims_global(goal_type,goal_value,day_key) VALUES(?,?,?)");
+        s.setString(1, type); s.setInt(2, value); s.setString(3, period); return s.executeUpdate() == 1;
+    }
+
+    private int countDistinctServices(UUID uuid, String day) throws SQLException {
+        PreparedStatement s = prepared("""
+                SELECT COUNT(DISTINCT service) FROM vote_events
+                WHERE resolved_uuid=? AND day_key=? AND state IN ('PROCESSING','PLANNED')
+                """);
+        s.setBytes(1, uuidBytes(uuid)); s.setString(2, day);
+        try (ResultSet rs = s.executeQuery()) { return rs.next() ? rs.getInt(1) : 0; }
+    }
+
+    /**
+     * Plans are content-addressed: events reference {@code vote_plans} by the hash of the plan document. The same
+     * plan instance (see VotePlanCache) is serialized once; the row is written once per ledger lifetime.
+     */
+    private String planId(VotePlan plan) throws SQLException {
+        String id = planIds.get(plan);
+        String json = null;
+        if (id == null) {
+            json = plan.toJson();
+            id = VoteEnvelope.hashFields("vvotes-plan-v1", json);
+            if (planIds.size() >= PLAN_CACHE_SIZE) planIds.clear();
+            planIds.put(plan, id);
         }
-        if (!projectedDay.isBlank() && day.compareTo(projectedDay) < 0) return;
-        try (PreparedStatement statement = connection.prepareStatement(
-                "UPDATE global_stats SET daily_votes=?, last_daily_reset=? WHERE id=1")) {
-            statement.setDouble(1, value); statement.setString(2, day); statement.executeUpdate();
+        if (!storedPlanIds.contains(id)) {
+            storePlan(id, json == null ? plan.toJson() : json);
+            parsedPlans.put(id, plan);
         }
+        return id;
     }
 
-    private boolean claimPlayerGoal(Connection c, UUID uuid, String type, int value, String period) throws SQLException {
-        try (PreparedStatement s = c.prepareStatement(
-                "INSERT OR IGNORE INTO goal_claims_player(uuid,goal_type,goal_value,period_key) VALUES(?,?,?,?)")) {
-            s.setString(1, uuid.toString()); s.setString(2, type); s.setInt(3, value); s.setString(4, period);
-            return s.executeUpdate() == 1;
-        }
+    private void storePlan(String id, String json) throws SQLException {
+        PreparedStatement statement = prepared(
+                "INSERT OR IGNORE INTO vote_plans(plan_id, plan_json, created_at) VALUES (?, ?, ?)");
+        statement.setBytes(1, hashBytes(id));
+        statement.setString(2, json);
+        statement.setLong(3, nowEpoch());
+        statement.executeUpdate();
+        storedPlanIds.add(id);
     }
 
-    private boolean claimGlobalGoal(Connection c, String type, int value, String period) throws SQLException {
-        try (PreparedStatement s = c.prepareStatement(
-                "INSERT OR IGNORE INTO goal_claims_global(goal_type,goal_value,day_key) VALUES(?,?,?)")) {
-            s.setString(1, type); s.setInt(2, value); s.setString(3, period); return s.executeUpdate() == 1;
+    private VotePlan storedPlan(String planId, String inlineJson) throws SQLException {
+        if (planId == null) return VotePlan.fromJson(inlineJson);
+        VotePlan cached = parsedPlans.get(planId);
+        if (cached != null) return cached;
+        PreparedStatement statement = prepared("SELECT plan_json FROM vote_plans WHERE plan_id = ?");
+        statement.setBytes(1, hashBytes(planId));
+        try (ResultSet rs = statement.executeQuery()) {
+            if (!rs.next()) throw new SQLException("vote plan missing: " + planId);
+            VotePlan plan = VotePlan.fromJson(rs.getString(1));
+            parsedPlans.put(planId, plan);
+            return plan;
         }
     }
 
-    private int countDistinctServices(Connection c, UUID uuid, String day) throws SQLException {
-        try (PreparedStatement s = c.prepareStatement("""
-                SELECT COUNT(DISTINCT service) FROM vote_events
-                WHERE resolved_uuid=? AND day_key=? AND state IN ('PROCESSING','PLANNED')
-                """)) {
-            s.setString(1, uuid.toString()); s.setString(2, day);
-            try (ResultSet rs = s.executeQuery()) { return rs.next() ? rs.getInt(1) : 0; }
+    /** v2 rows embed their plan; move each distinct document into vote_plans and blank the inline copy. */
+    private void deduplicatePlanDocuments() throws SQLException {
+        PreparedStatement select = prepared("""
+                SELECT event_hash, plan_json FROM vote_events
+                WHERE event_hash > ? AND plan_id IS NULL ORDER BY event_hash LIMIT 500
+                """);
+        PreparedStatement update = prepared("UPDATE vote_events SET plan_id = ?, plan_json = '' WHERE event_hash = ?");
+        byte[] after = new byte[0];
+        while (true) {
+            select.setBytes(1, after);
+            List<Map.Entry<byte[], String>> rows = new ArrayList<>();
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) rows.add(Map.entry(rs.getBytes(1), rs.getString(2)));
+            }
+            if (rows.isEmpty()) return;
+            for (Map.Entry<byte[], String> row : rows) {
+                String id = VoteEnvelope.hashFields("vvotes-plan-v1", row.getValue());
+                if (!storedPlanIds.contains(id)) storePlan(id, row.getValue());
+                update.setBytes(1, hashBytes(id));
+                update.setBytes(2, row.getKey());
+                update.executeUpdate();
+                after = row.getKey();
+            }
         }
     }
 
+    /** Lazily opens the writer connection; the PRAGMAs run once per connection instead of once per call. */
     private Connection connection() throws SQLException {
-        Connection connection = rawConnection(databasePath);
-        try (Statement statement = connection.createStatement()) {
+        if (connection != null) return connection;
+        Connection opened = rawConnection(databasePath);
+        try (Statement statement = opened.createStatement()) {
             statement.execute("PRAGMA busy_timeout=" + busyTimeoutMs);
             statement.execute("PRAGMA journal_mode=WAL");
             statement.execute("PRAGMA synchronous=NORMAL");
             statement.execute("PRAGMA foreign_keys=ON");
+        } catch (SQLException exception) {
+            opened.close();
+            throw exception;
+        }
+        connection = opened;
+        return opened;
+    }
+
+    /** Fixed SQL is prepared once per connection and reused; callers must close every ResultSet they open. */
+    private PreparedStatement prepared(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement == null) {
+            statement = connection().prepareStatement(sql);
+            statements.put(sql, statement);
+        }
+        return statement;
+    }
+
+    private <T> T transaction(SqlWork<T> work) throws SQLException {
+        Connection connection = connection();
+        connection.setAutoCommit(false);
+        pendingChange = 0;
+        try {
+            T result = work.run();
+            connection.commit();
+            if (pendingChange != 0) changeSequence = pendingChange;
+            return result;
+        } catch (SQLException | RuntimeException failure) {
+            connection.rollback();
+            storedPlanIds.clear();
+            throw failure;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    /** Runs {@code work} in one read transaction, so every statement in it sees the same WAL snapshot. */
+    private <T> T read(SqlRead<T> work) throws SQLException {
+        ReadConnection reader = borrowReader();
+        try {
+            reader.connection().setAutoCommit(false);
+            try {
+                return work.run(reader);
+            } finally {
+                reader.connection().commit();
+                reader.connection().setAutoCommit(true);
+            }
+        } finally {
+            returnReader(reader);
+        }
+    }
+
+    private ReadConnection borrowReader() throws SQLException {
+        if (closed) throw new SQLException("vote ledger is closed");
+        ReadConnection reader = readers.poll();
+        if (reader != null) return reader;
+        if (openedReaders.incrementAndGet() <= READ_POOL_SIZE) {
+            try {
+                return openReader();
+            } catch (SQLException exception) {
+                openedReaders.decrementAndGet();
+                throw exception;
+            }
+        }
+        openedReaders.decrementAndGet();
+        try {
+            reader = readers.poll(busyTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("interrupted waiting for a read connection", interrupted);
+        }
+        if (reader == null) throw new SQLException("no read connection available");
+        return reader;
+    }
+
+    private ReadConnection openReader() throws SQLException {
+        Connection opened = rawConnection(databasePath);
+        try (Statement statement = opened.createStatement()) {
+            statement.execute("PRAGMA busy_timeout=" + busyTimeoutMs);
+            statement.execute("PRAGMA query_only=ON");
+        } catch (SQLException exception) {
+            opened.close();
+            throw exception;
+        }
+        return new ReadConnection(opened, new HashMap<>());
+    }
+
+    private void returnReader(ReadConnection reader) {
+        if (!closed && readers.offer(reader)) {
+            if (closed) closeIdleReaders();
+            return;
+        }
+        reader.close();
+        openedReaders.decrementAndGet();
+    }
+
+    private void closeIdleReaders() {
+        ReadConnection reader;
+        while ((reader = readers.poll()) != null) {
+            reader.close();
+            openedReaders.decrementAndGet();
         }
-        return connection;
     }
 
     private Connection rawConnection(Path path) throws SQLException {
@@ -962,35 +1625,100 @@ public final class VoteLedger implements AutoCloseable {
 
     private long count(String table, String kind) {
         String sql = "SELECT COUNT(*) FROM " + table + (kind == null ? "" : " WHERE kind=?");
-        try (Connection c = connection(); PreparedStatement s = c.prepareStatement(sql)) {
-            if (kind != null) s.setString(1, kind);
-            try (ResultSet rs = s.executeQuery()) { return rs.next() ? rs.getLong(1) : 0; }
+        try {
+            return read(reader -> {
+                PreparedStatement s = reader.prepared(sql);
+                if (kind != null) s.setString(1, kind);
+                try (ResultSet rs = s.executeQuery()) { return rs.next() ? rs.getLong(1) : 0L; }
+            });
         } catch (SQLException exception) { return -1; }
     }
 
     private GrantClaim mapGrant(ResultSet rs) throws SQLException {
-        String uuid = rs.getString("target_uuid");
-        return new GrantClaim(rs.getString("grant_id"), rs.getString("batch_key"), rs.getInt("sequence"),
+        return new GrantClaim(hashHex(rs.getBytes("grant_id")), rs.getString("batch_key"), rs.getInt("sequence"),
                 rs.getString("kind"), rs.getString("command_snapshot"), rs.getString("executor_mode"),
-                uuid == null ? null : UUID.fromString(uuid), rs.getString("target_name"),
+                uuidOf(rs.getBytes("target_uuid")), rs.getString("target_name"),
                 rs.getString("claim_token"), rs.getString("state"), rs.getString("error"));
     }
 
+    static byte[] uuidBytes(UUID uuid) {
+        return ByteBuffer.allocate(16).putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits()).array();
+    }
+
+    private static UUID uuidOf(byte[] bytes) throws SQLException {
+        if (bytes == null) return null;
+        if (bytes.length != 16) throw new SQLException("stored uuid is not 16 bytes");
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    /** Event, grant and plan ids stay hex strings in the API; only the columns hold the 32 raw bytes. */
+    private static byte[] hashBytes(String hex) throws SQLException {
+        try {
+            return HEX.parseHex(hex);
+        } catch (IllegalArgumentException | NullPointerException invalid) {
+            throw new SQLException("invalid hash key", invalid);
+        }
+    }
+
+    private static String hashHex(byte[] bytes) {
+        return bytes == null ? null : HEX.formatHex(bytes);
+    }
+
     private PeriodContext currentPeriod() {
-        ZonedDateTime now = ZonedDateTime.now(clock.withZone(zoneId));
-        return new PeriodContext(now.toLocalDate().toString(), YearMonth.from(now).toString());
+        PeriodClock.Period now = periods.current();
+        return new PeriodContext(now.dayKey(), now.monthKey());
     }
 
     private PeriodContext periodAt(long epochSecond) {
         try {
-            ZonedDateTime value = ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), zoneId);
-            return new PeriodContext(value.toLocalDate().toString(), YearMonth.from(value).toString());
+            PeriodClock.Period value = PeriodClock.periodAt(Instant.ofEpochSecond(epochSecond), periods.zone());
+            return new PeriodContext(value.dayKey(), value.monthKey());
         } catch (RuntimeException invalidEpoch) {
             return currentPeriod();
         }
     }
 
-    private long nowEpoch() { return clock.instant().getEpochSecond(); }
+    private long nowEpoch() { return periods.epochSecond(); }
+
+    /** One sequence value per transaction, published when it commits. */
+    private long changeStamp() {
+        if (pendingChange == 0) pendingChange = changeSequence + 1;
+        return pendingChange;
+    }
+
+    /** The stamp for a conditional write, reserved with {@link #changeStamp()} only once it changed a row. */
+    private long peekStamp() {
+        return pendingChange == 0 ? changeSequence + 1 : pendingChange;
+    }
+
+    /** Rows older than the change feed share the migration's sequence, so a consumer starting at 0 still gets them. */
+    private void stampRowsBeforeChangeFeed() throws SQLException {
+        long stamp = peekStamp();
+        int stamped = 0;
+        try (Statement statement = connection().createStatement()) {
+            for (ChangeFeed feed : ChangeFeed.values()) {
+                stamped += statement.executeUpdate("UPDATE " + feed.table() + " SET change_seq = " + stamp
+                        + " WHERE change_seq = 0");
+            }
+        }
+        if (stamped > 0) changeStamp();
+    }
+
+    private void readLedgerState() throws SQLException {
+        try (Statement statement = connection().createStatement()) {
+            try (ResultSet rs = statement.executeQuery("SELECT ledger_id FROM ledger_state WHERE id=1")) {
+                ledgerId = rs.next() ? uuidOf(rs.getBytes(1)) : null;
+            }
+            StringJoiner highest = new StringJoiner(", ", "SELECT MAX(0, ", ")");
+            for (ChangeFeed feed : ChangeFeed.values()) {
+                highest.add("(SELECT COALESCE(MAX(change_seq), 0) FROM " + feed.table() + ")");
+            }
+            try (ResultSet rs = statement.executeQuery(highest.toString())) {
+                changeSequence = rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
 
     private int computeMonthlyStreak(int prior, String priorMonth, String current) {
         if (priorMonth == null || priorMonth.isBlank()) return 1;
@@ -1006,26 +1734,6 @@ public final class VoteLedger implements AutoCloseable {
         return mod == 0 ? current + step : current + step - mod;
     }
 
-    private String materialize(String command, PlayerIdentity player, Map<String, String> placeholders) {
-        String result = command;
-        if (player != null) {
-            result = result.replace("<player>", player.exactName()).replace("%player%", player.exactName())
-                    .replace("<uuid>", player.uuid().toString()).replace("%uuid%", player.uuid().toString());
-        }
-        for (Map.Entry<String, String> entry : placeholders.entrySet()) {
-            result = result.replace("<" + entry.getKey() + ">", entry.getValue())
-                    .replace("%" + entry.getKey() + "%", entry.getValue());
-        }
-        return result;
-    }
-
-    private Map<String, String> merge(Map<String, String> extra, VoteEnvelope event) {
-        TreeMap<String, String> map = new TreeMap<>(extra);
-        map.put("service", event.normalizedService());
-        map.put("timestamp", event.providerTimestamp());
-        return map;
-    }
-
     private String safeError(String error) {
         if (error == null) return "";
         String singleLine = error.replace('\n', ' ').replace('\r', ' ').strip();
@@ -1034,8 +1742,57 @@ public final class VoteLedger implements AutoCloseable {
 
     private String normalize(String value) { return value == null ? "" : value.strip().toLowerCase(Locale.ROOT); }
 
+    @FunctionalInterface
+    private interface SqlWork<T> {
+        T run() throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface SqlRead<T> {
+        T run(ReadConnection reader) throws SQLException;
+    }
+
+    /** A pooled reader with its own statement cache; only one thread holds it at a time. */
+    private record ReadConnection(Connection connection, Map<String, PreparedStatement> statements) {
+        PreparedStatement prepared(String sql) throws SQLException {
+            PreparedStatement statement = statements.get(sql);
+            if (statement == null) {
+                statement = connection.prepareStatement(sql);
+                statements.put(sql, statement);
+            }
+            return statement;
+        }
+
+        void close() {
+            for (PreparedStatement statement : statements.values()) {
+                try { statement.close(); } catch (SQLException ignored) { }
+            }
+            try { connection.close(); } catch (SQLException ignored) { }
+        }
+    }
+
     private record PeriodContext(String dayKey, String monthKey) {}
+
+    /**
+     * A goal counter and the highest value whose thresholds were already evaluated (-1 = never, e.g. rows written
+     * before watermarks existed). Evaluation starts at the lower of the watermark and the pre-vote value, so an admin
+     * increase is reconciled by the next vote and a decrease only re-checks thresholds the vote itself reaches.
+     */
+    private record GoalCounter(double value, double watermark) {
+        static final GoalCounter EMPTY = new GoalCounter(0, -1);
+
+        <V> Iterable<Map.Entry<Integer, V>> crossed(NavigableMap<Integer, V> goals, double current) {
+            int from = (int) Math.floor(Math.min(watermark, value));
+            return goals.subMap(from, false, (int) Math.floor(current), true).entrySet();
+        }
+
+        /** Recurring goals are unbounded, so an unknown watermark falls back to the pre-vote value. */
+        double recurringFloor() {
+            return watermark < 0 ? value : Math.min(watermark, value);
+        }
+    }
+
     private record StoredEvent(String hash, String displayName, String service, String timestamp,
-                               String planJson, String dayKey, String monthKey) {}
+                               String planId, String planJson, String dayKey, String monthKey) {}
     private record LegacyRow(long id, String playerName, String serviceName, long createdEpoch) {}
 }
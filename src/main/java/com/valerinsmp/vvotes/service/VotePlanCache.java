@@ -0,0 +1,31 @@
+package com.valerinsmp.vvotes.service;
+
+import com.valerinsmp.vvotes.config.PluginConfig;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reuses one frozen plan per service while the live config is unchanged. A reload swaps the config instance, which
+ * discards every cached plan; the ledger keys plan rows by content, so identical plans still share storage.
+ */
+final class VotePlanCache {
+    private static final int MAX_SERVICES = 256;
+
+    private volatile Generation generation = new Generation(null, new ConcurrentHashMap<>());
+
+    VotePlan plan(PluginConfig config, String service) {
+        Generation current = generation;
+        if (current.config() != config) {
+            current = new Generation(config, new ConcurrentHashMap<>());
+            generation = current;
+        }
+        VotePlan cached = current.plans().get(service);
+        if (cached != null) return cached;
+        VotePlan plan = VotePlan.from(config, service);
+        if (current.plans().size() < MAX_SERVICES) current.plans().putIfAbsent(service, plan);
+        return plan;
+    }
+
+    private record Generation(PluginConfig config, Map<String, VotePlan> plans) {}
+}
@@ -2,87 +2,184 @@ package com.valerinsmp.vvotes.service;
 
 import com.valerinsmp.vvotes.VVotesPlugin;
 import com.valerinsmp.vvotes.config.ConfigService;
+import com.valerinsmp.vvotes.config.PerformanceSettings;
 import com.valerinsmp.vvotes.config.PluginConfig;
 import com.valerinsmp.vvotes.model.PlayerStats;
 import com.valerinsmp.vvotes.reward.GrantDispatcher;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
 import net.kyori.adventure.title.Title;
 
+import java.io.IOException;
 import java.time.Duration;
+import java.time.Instant;
 
-import java.time.YearMonth;
-import java.time.ZoneId;
-import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public final class VoteService implements AutoCloseable {
+    /** Positions served from memory by {@code top_monthly_<n>_*} placeholders and the current-month topmonth. */
+    public static final int LEADERBOARD_SIZE = 100;
+    private static final int MAX_INGEST_RETRIES = 4;
+    private static final long SNAPSHOT_SWEEP_SECONDS = 60;
+    /** Provider votes held in memory for the writer; past it new votes wait in the spool and are read back later. */
+    private static final int INGEST_BACKLOG = 10_000;
+    private static final int LEGACY_PROGRESS_ROWS = 10_000;
+    /** Formatted whole counts below this bound are built once and shared by every placeholder read. */
+    private static final int CACHED_COUNTS = 16_384;
+    private static final String[] COUNT_TEXT = new String[CACHED_COUNTS];
+
     private final VVotesPlugin plugin;
     private final ConfigService configService;
     private final MessageService messageService;
     private final SoundService soundService;
     private final VoteLedger ledger;
+    private final PeriodClock periods;
+    private final IngestSpool spool;
+    private final SnapshotImage image;
     private final GrantDispatcher dispatcher;
-    private final ExecutorService writer;
+    private final WriterQueue writer;
+    /** Admin reads run on virtual threads against the ledger's read pool, never queued behind ingest. */
+    private final ExecutorService reader = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("vVotes-db-reader-", 1).factory());
+    /** Materializes reward commands ahead of the writer; see {@link GrantCandidates}. */
+    private final ExecutorService planner = Executors.newFixedThreadPool(
+            Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1)),
+            Thread.ofPlatform().name("vVotes-planner-", 1).daemon().factory());
     private final VoteSnapshots snapshots = new VoteSnapshots();
+    private final java.util.Set<UUID> loadingSnapshots = ConcurrentHashMap.newKeySet();
+    private final OnlinePlayerIndex onlinePlayers = new OnlinePlayerIndex();
+    private volatile boolean boundedSnapshots;
+    /** Set once full-mode snapshots are loaded; an image is never written from a partial snapshot. */
+    private volatile boolean imageEnabled;
+    /** Change sequence of the last image written or loaded, -1 when none matches the ledger. */
+    private volatile long imageSequence = -1;
+    private volatile GlobalText globalText;
+    private volatile Runnable monthStarted;
+    private final MonthlyLeaderboard leaderboard = new MonthlyLeaderboard(LEADERBOARD_SIZE);
+    private final RankIndex totalRanks = new RankIndex();
     private final java.util.Set<UUID> drainingPlayers = ConcurrentHashMap.newKeySet();
     private final AtomicBoolean drainingGlobal = new AtomicBoolean();
+    /** Claimed rounds posted to the mailbox but not dispatched yet; whoever removes a round owns it. */
+    private final java.util.Set<List<GrantClaim>> undispatched = ConcurrentHashMap.newKeySet();
     private final AtomicBoolean accepting = new AtomicBoolean();
+    /** Guards the warming -> accepting switch against votes and joins captured on main meanwhile. */
+    private final Object lifecycle = new Object();
+    private volatile boolean warming;
+    private int buffered; // guarded by lifecycle
+    /** Spool offset of the first vote not yet read back into the ingest queue, -1 when nothing spilled. */
+    private long spillFrom = -1; // guarded by lifecycle
+    private final List<Runnable> deferred = new ArrayList<>(); // guarded by lifecycle
+    private final ConcurrentLinkedQueue<VoteIngest> ingestQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger ingestDepth = new AtomicInteger();
+    private final AtomicBoolean ingestScheduled = new AtomicBoolean();
+    private final VotePlanCache plans = new VotePlanCache();
+    private final MainThreadMailbox mainThread;
+    private BukkitTask mainThreadTask; // main thread only
 
     public VoteService(VVotesPlugin plugin, ConfigService configService, MessageService messageService,
-                       SoundService soundService, VoteLedger ledger, GrantDispatcher dispatcher) {
+                       SoundService soundService, VoteLedger ledger, PeriodClock periods, IngestSpool spool,
+                       SnapshotImage image, GrantDispatcher dispatcher) {
         this.plugin = plugin;
         this.configService = configService;
         this.messageService = messageService;
         this.soundService = soundService;
         this.ledger = ledger;
+        this.periods = periods;
+        this.spool = spool;
+        this.image = image;
         this.dispatcher = dispatcher;
-        AtomicInteger sequence = new AtomicInteger();
-        this.writer = Executors.newSingleThreadExecutor(task -> {
-            Thread thread = new Thread(task, "vVotes-db-writer-" + sequence.incrementAndGet());
-            thread.setDaemon(true);
-            return thread;
-        });
+        this.mainThread = new MainThreadMailbox(plugin.getLogger());
+        this.writer = new WriterQueue("vVotes-db-writer-1",
+                () -> configService.get().performance().writerQueueCapacity(), plugin.getLogger());
     }
 
+    /**
+     * Opens the spool and returns, so listeners register right after the schema is validated. Snapshots warm on the
+     * writer while their reads run concurrently on the read pool; votes and joins captured meanwhile are buffered and
+     * applied once the snapshots are loaded.
+     */
     public void start() {
-        CompletableFuture.runAsync(() -> {
-            ledger.migrateLegacyPending(VotePlan.from(configService.get(), "legacy"));
-            snapshots.load(ledger.readAllStats(), ledger.readAllPreferences(), ledger.readGlobalDaily(), currentDay());
-        }, writer).join();
-        accepting.set(true);
-        drainGlobalGrants();
+        periods.subscribe(this::rollover);
+        PerformanceSettings performance = configService.get().performance();
+        boundedSnapshots = performance.snapshotMode() == PerformanceSettings.SnapshotMode.BOUNDED;
+        mainThreadTask = Bukkit.getScheduler().runTaskTimer(plugin, this::drainMainThread, 1L, 1L);
+        replaySpool();
+        warming = true;
+        long startedAt = System.nanoTime();
+        writer.execute(WriterQueue.Kind.INGEST, () -> {
+            try {
+                warmSnapshots(performance);
+            } catch (RuntimeException exception) {
+                plugin.getLogger().severe("Snapshot warm-up failed, disabling vVotes: " + exception.getMessage());
+                stopAccepting();
+                mainThread.post(() -> Bukkit.getPluginManager().disablePlugin(plugin));
+                return;
+            }
+            if (!finishWarmup()) return;
+            plugin.getLogger().info("Snapshots ready in " + (System.nanoTime() - startedAt) / 1_000_000L + " ms ("
+                    + snapshots.size() + " players)");
+            periods.start(reader);
+            if (boundedSnapshots) scheduleSnapshotSweep();
+            if (imageEnabled) scheduleSnapshotImage();
+            scheduleIngestDrain();
+            drainGlobalGrants();
+            startLegacyMigration();
+        });
     }
 
-    /** Called on main after VoteListener captured provider primitives and resolved exact identity. */
+    /**
+     * Called on the provider's thread with the captured primitives and the identity from {@link #onlineIdentity}.
+     * Only spooling and queueing happen here; notices and rewards still hop to main.
+     */
     public void ingestProviderEvent(VoteEnvelope event, PlayerIdentity identity) {
-        requireMainThread();
-        if (!accepting.get()) return;
+        if (!isIngesting()) return;
         PluginConfig config = configService.get();
         boolean allowTestVote = config.processTestVotes();
         VoteEnvelope acceptedEvent = applyProviderPolicy(event, allowTestVote);
-        VotePlan plan = VotePlan.from(config, event.normalizedService());
-        CompletableFuture.supplyAsync(() -> ledger.accept(acceptedEvent, identity, plan), writer)
-                .thenAccept(result -> afterIngest(result, event, identity));
+        VotePlan plan = plans.plan(config, event.normalizedService());
+        synchronized (lifecycle) {
+            long spoolOffset = spool.append(acceptedEvent, identity);
+            if (!admitIngest(spoolOffset, acceptedEvent)) return;
+            ingestQueue.add(ingestOf(acceptedEvent, identity, plan, spoolOffset));
+            if (warming) {
+                buffered++;
+                return;
+            }
+        }
+        if (ingestScheduled.compareAndSet(false, true)) {
+            int window = config.performance().ingestBatchWindowMs();
+            Executor ingestWriter = writer.executor(WriterQueue.Kind.INGEST);
+            Executor executor = window == 0 ? ingestWriter
+                    : CompletableFuture.delayedExecutor(window, TimeUnit.MILLISECONDS, ingestWriter);
+            CompletableFuture.runAsync(this::drainIngestQueue, executor);
+        }
     }
 
     /** Called on main from PlayerJoinEvent with exact UUID/name primitives. */
     public void resolvePending(PlayerIdentity identity) {
         requireMainThread();
-        if (!accepting.get()) return;
-        CompletableFuture.supplyAsync(() -> ledger.resolvePending(identity), writer).thenAccept(results -> {
-            refreshSnapshot(identity);
+        if (deferWhileWarming(identity, () -> resolvePending(identity)) || !accepting.get()) return;
+        CompletableFuture.supplyAsync(() -> {
+            List<VoteEventResult> resolved = ledger.resolvePending(identity);
+            for (VoteEventResult result : resolved) applyPostState(result.postState());
+            return resolved;
+        }, writer.executor(WriterQueue.Kind.INGEST)).thenAccept(results -> {
             if (!results.isEmpty()) {
                 scheduleMain(() -> {
                     for (VoteEventResult result : results) notifyAccepted(identity, result);
@@ -104,15 +201,16 @@ public final class VoteService implements AutoCloseable {
         }
         PlayerIdentity identity = new PlayerIdentity(target.getUniqueId(), target.getName());
         VotePlan plan = VotePlan.from(configService.get(), "manual").withoutVoteCommands();
-        return CompletableFuture.supplyAsync(() -> {
+        return writer.supply(WriterQueue.Kind.ADMIN, () -> {
             int planned = 0;
             for (int i = 0; i < amount; i++) {
-                if (ledger.accept(VoteEnvelope.manual(identity, System.currentTimeMillis() / 1000L, UUID.randomUUID()),
-                        identity, plan).state() == VoteEventState.PLANNED) planned++;
+                VoteEventResult result = ledger.accept(VoteEnvelope.manual(identity,
+                        System.currentTimeMillis() / 1000L, UUID.randomUUID()), identity, plan);
+                if (result.state() == VoteEventState.PLANNED) planned++;
+                applyPostState(result.postState());
             }
-            refreshSnapshot(identity);
             return planned;
-        }, writer).thenApply(planned -> {
+        }).thenApply(planned -> {
             drainPlayerGrants(identity.uuid());
             drainGlobalGrants();
             return planned;
@@ -120,48 +218,43 @@ public final class VoteService implements AutoCloseable {
     }
 
     public CompletableFuture<Double> adjustGlobalDailyVotesAsync(int delta) {
-        return CompletableFuture.supplyAsync(() -> {
+        return writer.supply(WriterQueue.Kind.ADMIN, () -> {
             double updated = ledger.adjustGlobalDaily(delta);
             snapshots.setGlobal(Math.max(0, updated), currentDay());
             return updated;
-        }, writer);
+        });
     }
 
     public CompletableFuture<Double> adjustPlayerDailyVotesAsync(OfflinePlayer target, int delta) {
         if (target == null || target.getUniqueId() == null || target.getName() == null) return CompletableFuture.completedFuture(-1D);
         PlayerIdentity identity = new PlayerIdentity(target.getUniqueId(), target.getName());
-        return CompletableFuture.supplyAsync(() -> {
-            double updated = ledger.adjustPlayerDaily(identity, delta);
-            refreshSnapshot(identity);
-            return updated;
-        }, writer);
+        return writer.supply(WriterQueue.Kind.ADMIN, () -> ledger.adjustPlayerDaily(identity, delta).map(post -> {
+            applyPostState(post);
+            return post.stats().dailyVotes();
+        }).orElse(-1D));
     }
 
     public CompletableFuture<Void> forceResetGlobalDailyAsync() {
-        return CompletableFuture.runAsync(() -> {
+        return writer.run(WriterQueue.Kind.ADMIN, () -> {
             ledger.resetGlobalDaily();
             snapshots.setGlobal(0, currentDay());
-        }, writer);
+        });
     }
 
     public CompletableFuture<Void> forceResetPlayerMonthlyAsync(OfflinePlayer target) {
         if (target == null || target.getUniqueId() == null || target.getName() == null) return CompletableFuture.completedFuture(null);
         PlayerIdentity identity = new PlayerIdentity(target.getUniqueId(), target.getName());
-        return CompletableFuture.runAsync(() -> {
-            ledger.resetPlayerMonthly(identity);
-            refreshSnapshot(identity);
-        }, writer);
+        return writer.run(WriterQueue.Kind.ADMIN, () -> ledger.resetPlayerMonthly(identity).ifPresent(this::applyPostState));
     }
 
     public CompletableFuture<MonthlyDrawResult> drawMonthlyAsync(String monthKey, String executedBy) {
-        String key = monthKey == null || monthKey.isBlank()
-                ? YearMonth.now(ZoneId.of(configService.get().timezone())).minusMonths(1).toString() : monthKey;
+        String key = monthKey == null || monthKey.isBlank() ? periods.current().previousMonthKey() : monthKey;
         if (!configService.get().monthlyDrawEnabled()) return CompletableFuture.completedFuture(MonthlyDrawResult.disabled());
         PluginConfig config = configService.get();
         String command = config.monthlyDrawRewardCommand();
-        return CompletableFuture.supplyAsync(() -> ledger.planMonthlyDraw(key, executedBy,
+        return writer.supply(WriterQueue.Kind.ADMIN, () -> ledger.planMonthlyDraw(key, executedBy,
                 config.monthlyDrawMinVotes(), command,
-                bound -> java.util.concurrent.ThreadLocalRandom.current().nextInt(bound)), writer).thenApply(result -> {
+                bound -> java.util.concurrent.ThreadLocalRandom.current().nextInt(bound))).thenApply(result -> {
             if (result.status() == MonthlyDrawResult.Status.SUCCESS) {
                 scheduleMain(() -> {
                     Map<String, String> placeholders = Map.of("month", result.monthKey(),
@@ -179,28 +272,81 @@ public final class VoteService implements AutoCloseable {
     }
 
     public CompletableFuture<DrawHistoryResult> getDrawHistoryAsync(String monthKey) {
-        String key = monthKey == null || monthKey.isBlank()
-                ? YearMonth.now(ZoneId.of(configService.get().timezone())).minusMonths(1).toString() : monthKey;
-        return CompletableFuture.supplyAsync(() -> ledger.readDrawHistory(key), writer);
+        String key = monthKey == null || monthKey.isBlank() ? periods.current().previousMonthKey() : monthKey;
+        return CompletableFuture.supplyAsync(() -> ledger.readDrawHistory(key), reader);
     }
 
     public CompletableFuture<List<TopMonthEntry>> getTopMonthAsync(String monthKey, int limit) {
-        return CompletableFuture.supplyAsync(() -> ledger.readTopMonth(monthKey, limit), writer);
+        if (limit <= LEADERBOARD_SIZE && monthKey.equals(currentMonth())) {
+            return CompletableFuture.completedFuture(leaderboard.top(monthKey, limit));
+        }
+        return CompletableFuture.supplyAsync(() -> ledger.readTopMonth(monthKey, limit), reader);
     }
 
     public CompletableFuture<Boolean> toggleVoteAnnouncementsAsync(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
+        return writer.supply(WriterQueue.Kind.ADMIN, () -> {
             boolean muted = ledger.togglePreference(uuid);
             snapshots.setMuted(uuid, muted);
             return muted;
-        }, writer);
+        });
     }
 
+    /** Never blocks: in bounded mode a miss answers zeros and loads the player off-thread for the next read. */
     public PlayerStats getStats(UUID uuid, String playerName) {
+        if (boundedSnapshots && !snapshots.known(uuid)) loadSnapshot(uuid, playerName);
         return snapshots.stats(uuid, playerName, currentDay(), currentMonth());
     }
 
-    public double getGlobalDailyVotes() { return snapshots.global(currentDay()); }
+    /** Allocation-free counterparts of {@link #getStats} for placeholders and commands. */
+    public double totalVotes(UUID uuid, String playerName) { return counter(uuid, playerName, PlayerStatsTable.Column.TOTAL); }
+    public double dailyVotes(UUID uuid, String playerName) { return counter(uuid, playerName, PlayerStatsTable.Column.DAILY); }
+    public double monthlyVotes(UUID uuid, String playerName) { return counter(uuid, playerName, PlayerStatsTable.Column.MONTHLY); }
+    public int monthlyStreak(UUID uuid, String playerName) {
+        return (int) counter(uuid, playerName, PlayerStatsTable.Column.STREAK);
+    }
+
+    private long counter(UUID uuid, String playerName, PlayerStatsTable.Column column) {
+        PeriodClock.Period period = periods.current();
+        long value = snapshots.counter(uuid, column, period.epochDay(), period.epochMonth());
+        if (value >= 0) return value;
+        if (boundedSnapshots) loadSnapshot(uuid, playerName);
+        return 0;
+    }
+
+    /** Current-month leaderboard entry at a 1-based position, or null; never touches SQLite. */
+    public TopMonthEntry topMonthly(int position) {
+        return leaderboard.at(currentMonth(), position);
+    }
+
+    /** Competition rank (ties share it) in the current month; 0 when the player has no votes this month. */
+    public int monthlyRank(UUID uuid) {
+        return leaderboard.rank(currentMonth(), uuid);
+    }
+
+    /** Competition rank by all-time total; 0 when the player has no votes. */
+    public int totalRank(UUID uuid, String playerName) {
+        return totalRanks.rank((long) totalVotes(uuid, playerName));
+    }
+
+    /** Online players are never evicted from the bounded snapshot. */
+    public void playerOnline(PlayerIdentity identity) {
+        onlinePlayers.add(identity);
+        snapshots.pin(identity.uuid());
+        if (deferWhileWarming(identity, () -> playerOnline(identity))) return;
+        if (boundedSnapshots && !snapshots.known(identity.uuid())) loadSnapshot(identity.uuid(), identity.exactName());
+    }
+
+    public void playerOffline(PlayerIdentity identity) {
+        onlinePlayers.remove(identity);
+        snapshots.unpin(identity.uuid());
+    }
+
+    /** Exact identity of the online player a provider vote names, or null; safe off the main thread. */
+    public PlayerIdentity onlineIdentity(String normalizedName) {
+        return onlinePlayers.find(normalizedName);
+    }
+
+    public double getGlobalDailyVotes() { return snapshots.global(); }
     public boolean isVoteAnnouncementMuted(UUID uuid, String ignoredName) { return snapshots.muted(uuid); }
 
     public int nextGlobalGoal(double currentValue) {
@@ -224,39 +370,328 @@ public final class VoteService implements AutoCloseable {
     }
 
     public String getDoubleSiteTodayIcon(UUID uuid) {
-        return snapshots.triple(uuid, currentDay())
+        return snapshots.triple(uuid)
                 ? configService.get().doubleSiteTodayIcon() : "";
     }
 
     public String getTimezoneId() { return configService.get().timezone(); }
+    public String currentMonthKey() { return periods.monthKey(); }
+    public String previousMonthKey() { return periods.current().previousMonthKey(); }
     public CompletableFuture<List<GrantClaim>> getAmbiguousGrantsAsync() {
-        return CompletableFuture.supplyAsync(ledger::listAmbiguous, writer);
+        return CompletableFuture.supplyAsync(ledger::listAmbiguous, reader);
     }
     public static String formatDoubleStatic(double value) {
-        if (value == Math.floor(value)) return String.format(Locale.US, "%.0f", value);
+        if (value == Math.floor(value)) {
+            boolean negativeZero = Double.doubleToRawLongBits(value) == Long.MIN_VALUE;
+            if (Math.abs(value) < 1e15 && !negativeZero) return formatCount((long) value);
+            return String.format(Locale.US, "%.0f", value);
+        }
         return String.format(Locale.US, "%.2f", value);
     }
 
+    /** Whole counts are what placeholders print at scoreboard rates; small ones come from a shared table. */
+    public static String formatCount(long value) {
+        if (value == -1) return "-1"; // "no next goal"
+        if (value < 0 || value >= CACHED_COUNTS) return Long.toString(value);
+        String text = COUNT_TEXT[(int) value];
+        if (text == null) {
+            text = Long.toString(value);
+            COUNT_TEXT[(int) value] = text; // racy but benign: Strings are immutable and safely published
+        }
+        return text;
+    }
+
+    /** {@code global_daily} and {@code next_global_goal} text, rebuilt only when the counter or config changed. */
+    public String globalDailyText() { return globalText().votes(); }
+    public String nextGlobalGoalText() { return globalText().nextGoal(); }
+
+    private GlobalText globalText() {
+        double value = getGlobalDailyVotes();
+        PluginConfig config = configService.get();
+        GlobalText cached = globalText;
+        if (cached != null && cached.value() == value && cached.config() == config) return cached;
+        GlobalText rebuilt = new GlobalText(value, config, formatDoubleStatic(value), formatCount(nextGlobalGoal(value)));
+        globalText = rebuilt;
+        return rebuilt;
+    }
+
     public String formatDouble(double value) { return formatDoubleStatic(value); }
 
+    private record GlobalText(double value, PluginConfig config, String votes, String nextGoal) {}
+
+    private record LegacyMigration(VotePlan plan, long remaining, long startedAt) {}
+
+    /** Players read for the snapshot: everyone, the recent ones, or those changed after {@code image}. */
+    private record WarmStats(Map<UUID, PlayerStats> stats, SnapshotImage.Loaded image) {}
+
     @Override
     public void close() {
         stopAccepting();
+        if (mainThreadTask != null) {
+            mainThreadTask.cancel();
+            mainThreadTask = null;
+        }
+        List<GrantOutcome> released = new ArrayList<>();
+        for (List<GrantClaim> round : List.copyOf(undispatched)) {
+            if (undispatched.remove(round)) released.addAll(released(round));
+        }
+        mainThread.clear();
+        if (!writer.isShutdown()) {
+            if (!released.isEmpty()) writer.execute(WriterQueue.Kind.GRANT, () -> ledger.completeGrants(released));
+            writer.execute(WriterQueue.Kind.INGEST, this::drainIngestQueue);
+            if (imageEnabled) writer.execute(WriterQueue.Kind.BACKGROUND, () -> writeSnapshotImage(true));
+        }
         writer.shutdown();
+        reader.shutdown();
+        planner.shutdown();
         try {
             if (!writer.awaitTermination(10, TimeUnit.SECONDS)) plugin.getLogger().warning("DB writer did not stop cleanly");
+            if (!reader.awaitTermination(2, TimeUnit.SECONDS)) plugin.getLogger().warning("DB readers did not stop cleanly");
         } catch (InterruptedException interrupted) {
             Thread.currentThread().interrupt();
         }
         ledger.close();
+        spool.close();
     }
 
     public void stopAccepting() {
-        accepting.set(false);
+        synchronized (lifecycle) {
+            warming = false;
+            accepting.set(false);
+            deferred.clear();
+        }
+        periods.stop();
+    }
+
+    /** Writer-only. Returns false when the plugin stopped while warming; buffered votes are then drained by close(). */
+    private boolean finishWarmup() {
+        List<Runnable> joins;
+        synchronized (lifecycle) {
+            if (!warming) return false;
+            warming = false;
+            accepting.set(true);
+            if (buffered > 0) plugin.getLogger().info("Applying " + buffered + " votes received during startup");
+            joins = List.copyOf(deferred);
+            deferred.clear();
+        }
+        joins.forEach(this::scheduleMain);
+        return true;
+    }
+
+    /** Joins seen while warming run again on main once snapshots are loaded, if the player is still online. */
+    private boolean deferWhileWarming(PlayerIdentity identity, Runnable task) {
+        if (!warming) return false;
+        synchronized (lifecycle) {
+            if (!warming) return false;
+            deferred.add(() -> {
+                if (snapshots.pinned(identity.uuid())) task.run();
+            });
+            return true;
+        }
+    }
+
+    /**
+     * Guarded by lifecycle. Past {@link #INGEST_BACKLOG} queued votes a spooled vote is left for
+     * {@link #refillFromSpool}, and one the spool could not take is refused.
+     */
+    private boolean admitIngest(long spoolOffset, VoteEnvelope event) {
+        if (spillFrom < 0 && ingestDepth.get() < INGEST_BACKLOG) {
+            ingestDepth.incrementAndGet();
+            return true;
+        }
+        if (spoolOffset < 0) {
+            plugin.getLogger().warning("Provider vote refused, ingest backlog full and spool unavailable: event="
+                    + shortId(event.eventHash()));
+            return false;
+        }
+        if (spillFrom < 0) {
+            spillFrom = spoolOffset;
+            plugin.getLogger().warning("Ingest backlog reached " + INGEST_BACKLOG
+                    + " votes; new votes wait in the spool until the writer catches up");
+        }
+        return false;
+    }
+
+    /** Writer-only: once half the backlog is drained, the next spilled votes are read back in spool order. */
+    private void refillFromSpool() {
+        if (!accepting.get()) return;
+        synchronized (lifecycle) {
+            if (spillFrom < 0 || ingestDepth.get() > INGEST_BACKLOG / 2) return;
+            List<IngestSpool.Entry> entries = spool.readFrom(spillFrom, INGEST_BACKLOG / 2);
+            PluginConfig config = configService.get();
+            for (IngestSpool.Entry entry : entries) {
+                VotePlan plan = plans.plan(config, entry.event().normalizedService());
+                ingestQueue.add(ingestOf(entry.event(), entry.identity(), plan, entry.offset()));
+            }
+            ingestDepth.addAndGet(entries.size());
+            if (entries.size() == INGEST_BACKLOG / 2) {
+                spillFrom = entries.getLast().end();
+            } else {
+                spillFrom = -1;
+                plugin.getLogger().info("Spilled provider votes caught up");
+            }
+        }
+    }
+
+    /**
+     * Starts preparing the vote's grant batches unless it cannot be planned yet (offline or no provider identity);
+     * the snapshot counters only narrow which goal batches are prepared.
+     */
+    private VoteIngest ingestOf(VoteEnvelope event, PlayerIdentity identity, VotePlan plan, long spoolOffset) {
+        CompletableFuture<GrantCandidates> candidates = null;
+        if (identity != null && event.hasEconomicIdentity()) {
+            try {
+                candidates = CompletableFuture.supplyAsync(() -> {
+                    PeriodClock.Period period = periods.current();
+                    UUID uuid = identity.uuid();
+                    return GrantCandidates.prepare(event, identity, plan,
+                            snapshots.counter(uuid, PlayerStatsTable.Column.MONTHLY, period.epochDay(), period.epochMonth()),
+                            snapshots.counter(uuid, PlayerStatsTable.Column.STREAK, period.epochDay(), period.epochMonth()),
+                            (long) snapshots.global());
+                }, planner);
+            } catch (RejectedExecutionException closing) {
+                // The writer builds them inside the transaction instead.
+            }
+        }
+        return new VoteIngest(event, identity, plan, spoolOffset, 0, candidates);
+    }
+
+    /**
+     * Writer-only: one transaction per drained batch; leftovers beyond the batch size are rescheduled once it
+     * committed. After {@link #stopAccepting()} the same task keeps committing batches until the queue is empty.
+     */
+    private void drainIngestQueue() {
+        ingestScheduled.set(false);
+        do {
+            refillFromSpool();
+            commitIngestBatch();
+        } while (!accepting.get() && !ingestQueue.isEmpty());
+        scheduleIngestDrain();
+    }
+
+    /** A refused drain means the writer is stopping; the drain queued by close() empties the queue instead. */
+    private void scheduleIngestDrain() {
+        if (ingestQueue.isEmpty() || writer.isShutdown() || !ingestScheduled.compareAndSet(false, true)) return;
+        try {
+            writer.execute(WriterQueue.Kind.INGEST, this::drainIngestQueue);
+        } catch (RejectedExecutionException closing) {
+            ingestScheduled.set(false);
+        }
+    }
+
+    private void commitIngestBatch() {
+        int limit = configService.get().performance().ingestBatchSize();
+        List<VoteIngest> batch = new ArrayList<>(Math.min(limit, 64));
+        VoteIngest next;
+        while (batch.size() < limit && (next = ingestQueue.poll()) != null) batch.add(next);
+        ingestDepth.addAndGet(-batch.size());
+        if (batch.isEmpty()) return;
+        spool.force();
+        List<VoteEventResult> results = ledger.acceptBatch(batch);
+        for (int i = 0; i < batch.size(); i++) {
+            VoteIngest ingest = batch.get(i);
+            VoteEventResult result = results.get(i);
+            if (result.state() == VoteEventState.ERROR) {
+                retryIngest(ingest, result);
+                continue;
+            }
+            spool.acknowledge(ingest.spoolOffset());
+            afterIngest(result, ingest.event(), ingest.identity());
+        }
+    }
+
+    /**
+     * Failed commits stay in the spool; a few delayed retries run now, the rest waits for the next startup. A vote
+     * out of retries is retired so it cannot keep the spool from rewinding meanwhile.
+     */
+    private void retryIngest(VoteIngest ingest, VoteEventResult result) {
+        if (ingest.attempt() >= MAX_INGEST_RETRIES || !accepting.get()) {
+            boolean retired = accepting.get() && spool.retire(ingest.spoolOffset());
+            plugin.getLogger().warning("Provider vote " + (retired ? "retired" : "kept in spool") + " after "
+                    + (ingest.attempt() + 1) + " failed commits, replayed at next startup: event="
+                    + shortId(ingest.event().eventHash()) + " error=" + result.error());
+            return;
+        }
+        CompletableFuture.runAsync(() -> {
+            ingestDepth.incrementAndGet();
+            ingestQueue.add(ingest.retry());
+            if (ingestScheduled.compareAndSet(false, true)) drainIngestQueue();
+        }, CompletableFuture.delayedExecutor(1L << ingest.attempt(), TimeUnit.SECONDS,
+                writer.executor(WriterQueue.Kind.INGEST)));
+    }
+
+    /** Writer-only, after warm-up. Legacy rows migrate in chunks behind whatever the writer already has queued. */
+    private void startLegacyMigration() {
+        long remaining = ledger.countUnmigratedLegacyPending();
+        if (remaining <= 0) return;
+        plugin.getLogger().info("Migrating " + remaining + " legacy pending votes in the background");
+        migrateLegacyChunk(new LegacyMigration(VotePlan.from(configService.get(), "legacy"), remaining,
+                System.nanoTime()), 0, 0);
+    }
+
+    /**
+     * Writer-only: one committed chunk per task, so votes and admin writes interleave with a large migration. A stop
+     * or failure simply leaves the rest for the next startup.
+     */
+    private void migrateLegacyChunk(LegacyMigration migration, long afterId, int migrated) {
+        if (!accepting.get()) return;
+        LegacyChunk chunk = ledger.migrateLegacyPending(migration.plan(), afterId, VoteLedger.LEGACY_CHUNK_SIZE);
+        if (chunk.scanned() < 0) {
+            plugin.getLogger().warning("Legacy pending migration paused after " + migrated
+                    + " rows; it resumes at the next startup");
+            return;
+        }
+        if (chunk.scanned() == 0) {
+            plugin.getLogger().info("Legacy pending migration finished: " + migrated + " rows in "
+                    + (System.nanoTime() - migration.startedAt()) / 1_000_000L + " ms");
+            if (migrated > 0) scheduleMain(this::resolveOnlinePending);
+            return;
+        }
+        int total = migrated + chunk.migrated();
+        if (total / LEGACY_PROGRESS_ROWS != migrated / LEGACY_PROGRESS_ROWS) {
+            plugin.getLogger().info("Legacy pending migration: " + total + "/" + migration.remaining() + " rows");
+        }
+        try {
+            writer.execute(WriterQueue.Kind.BACKGROUND, () -> migrateLegacyChunk(migration, chunk.lastId(), total));
+        } catch (RejectedExecutionException closing) {
+            // Shutting down; legacy_pending_migrations records how far it got.
+        }
+    }
+
+    /** Players who joined before their legacy rows were migrated get them now instead of on their next join. */
+    private void resolveOnlinePending() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            resolvePending(new PlayerIdentity(player.getUniqueId(), player.getName()));
+        }
+    }
+
+    /** Before listeners register: entries the last run appended but never saw committed. */
+    private void replaySpool() {
+        List<IngestSpool.Entry> entries;
+        try {
+            entries = spool.open();
+        } catch (IOException exception) {
+            plugin.getLogger().warning("Ingest spool unavailable, votes are not journaled before commit: "
+                    + exception.getMessage());
+            return;
+        }
+        PluginConfig config = configService.get();
+        int queued = Math.min(entries.size(), INGEST_BACKLOG);
+        for (IngestSpool.Entry entry : entries.subList(0, queued)) {
+            VotePlan plan = plans.plan(config, entry.event().normalizedService());
+            ingestQueue.add(ingestOf(entry.event(), entry.identity(), plan, entry.offset()));
+        }
+        ingestDepth.addAndGet(queued);
+        if (queued < entries.size()) {
+            synchronized (lifecycle) {
+                spillFrom = entries.get(queued).offset();
+            }
+        }
+        if (!entries.isEmpty()) plugin.getLogger().info("Replaying " + entries.size() + " spooled provider votes");
     }
 
     private void afterIngest(VoteEventResult result, VoteEnvelope event, PlayerIdentity identity) {
-        if (identity != null) refreshSnapshot(identity);
+        applyPostState(result.postState());
         if (result.state() == VoteEventState.PLANNED && identity != null) {
             scheduleMain(() -> notifyAccepted(identity, result));
         }
@@ -267,11 +702,16 @@ public final class VoteService implements AutoCloseable {
         }
     }
 
-    private void refreshSnapshot(PlayerIdentity identity) {
-        PlayerStats stats = ledger.readStats(identity.uuid(), identity.exactName());
-        boolean triple = ledger.distinctServicesToday(identity.uuid()) >= configService.get().doubleSiteBonusRequiredSites();
-        snapshots.updatePlayer(stats, triple, currentDay());
-        snapshots.setGlobal(ledger.readGlobalDaily(), currentDay());
+    private void applyPostState(LedgerPostState post) {
+        if (post == null) return;
+        boolean triple = post.distinctServicesToday() >= configService.get().doubleSiteBonusRequiredSites();
+        snapshots.updatePlayer(post.stats(), triple, post.dayKey());
+        snapshots.setGlobal(post.globalDaily(), post.dayKey());
+        if (!post.standingMonth().isEmpty()) {
+            leaderboard.update(post.standingMonth(),
+                    new MonthlyStanding(post.stats().uuid(), post.stats().name(), post.standingVotes()));
+        }
+        if (post.previousTotal() >= 0) totalRanks.move((long) post.previousTotal(), (long) post.stats().totalVotes());
     }
 
     private void notifyAccepted(PlayerIdentity identity, VoteEventResult result) {
@@ -337,50 +777,217 @@ public final class VoteService implements AutoCloseable {
         claimAndDispatch(null, true);
     }
 
+    /**
+     * A round claimed after {@link #stopAccepting()} is released at once, and close() releases the ones still waiting
+     * in the mailbox, so a stop leaves them PENDING instead of AMBIGUOUS at the next startup.
+     */
     private void claimAndDispatch(UUID uuid, boolean global) {
-        CompletableFuture.supplyAsync(() -> global ? ledger.claimNextGlobalGrant() : ledger.claimNextGrant(uuid), writer)
-                .thenAccept(optional -> {
-                    if (optional.isEmpty()) {
-                        if (global) drainingGlobal.set(false); else drainingPlayers.remove(uuid);
-                        return;
-                    }
-                    scheduleMain(() -> dispatchClaim(optional.orElseThrow(), uuid, global));
-                });
-    }
-
-    private void dispatchClaim(GrantClaim claim, UUID uuid, boolean global) {
-        GrantDispatcher.DispatchResult result = dispatcher.dispatch(claim);
-        CompletableFuture.runAsync(() -> {
-            switch (result) {
-                case DONE -> ledger.markDoneAfterDispatch(claim.grantId(), claim.claimToken());
-                case NOT_DISPATCHED -> ledger.releaseBeforeDispatch(claim.grantId(), claim.claimToken(), "target unavailable before dispatch");
-                case AMBIGUOUS -> ledger.markAmbiguousAfterDispatch(claim.grantId(), claim.claimToken(), "dispatch returned false or threw");
+        int limit = configService.get().performance().grantClaimBatchSize();
+        Executor grantWriter = writer.executor(WriterQueue.Kind.GRANT);
+        CompletableFuture.supplyAsync(() -> {
+            List<GrantClaim> claims = global ? ledger.claimGlobalGrantBatch(limit) : ledger.claimGrantBatch(uuid, limit);
+            if (claims.isEmpty()) return claims;
+            undispatched.add(claims);
+            if (!accepting.get() && undispatched.remove(claims)) {
+                ledger.completeGrants(released(claims));
+                return List.<GrantClaim>of();
             }
-        }, writer).thenRun(() -> {
-            if (result == GrantDispatcher.DispatchResult.NOT_DISPATCHED) {
+            return claims;
+        }, grantWriter).thenAccept(claims -> {
+            if (claims.isEmpty()) {
                 if (global) drainingGlobal.set(false); else drainingPlayers.remove(uuid);
-            } else {
+                return;
+            }
+            scheduleMain(() -> {
+                if (undispatched.remove(claims)) dispatchClaims(claims, uuid, global);
+            });
+        });
+    }
+
+    private static List<GrantOutcome> released(List<GrantClaim> claims) {
+        return claims.stream().map(claim -> GrantOutcome.released(claim, "plugin stopping")).toList();
+    }
+
+    private void dispatchClaims(List<GrantClaim> claims, UUID uuid, boolean global) {
+        long budget = TimeUnit.MILLISECONDS.toNanos(configService.get().performance().dispatchTickBudgetMs());
+        List<GrantOutcome> outcomes = dispatcher.dispatchAll(claims, budget);
+        boolean progressed = outcomes.stream().anyMatch(outcome -> outcome.deferred() || !outcome.state().equals("PENDING"));
+        CompletableFuture.runAsync(() -> ledger.completeGrants(outcomes), writer.executor(WriterQueue.Kind.GRANT)).thenRun(() -> {
+            if (progressed) {
                 claimAndDispatch(uuid, global);
+            } else if (global) {
+                drainingGlobal.set(false);
+            } else {
+                drainingPlayers.remove(uuid);
             }
         });
     }
 
+    private void loadSnapshot(UUID uuid, String name) {
+        if (!loadingSnapshots.add(uuid)) return;
+        try {
+            reader.execute(() -> {
+                try {
+                    ledger.lookupStats(uuid, name).ifPresent(snapshots::loaded);
+                } finally {
+                    loadingSnapshots.remove(uuid);
+                }
+            });
+        } catch (RejectedExecutionException closing) {
+            loadingSnapshots.remove(uuid);
+        }
+    }
+
+    /**
+     * Runs on whichever thread noticed midnight, inside the clock's monitor, so it only swaps in-memory state; the
+     * month hook is posted to the main thread and runs once that state is already rolled.
+     */
+    private void rollover(PeriodClock.Rollover rollover) {
+        snapshots.rollover(rollover.current().dayKey());
+        if (!rollover.monthChanged()) return;
+        leaderboard.roll(rollover.current().monthKey());
+        Runnable hook = monthStarted;
+        if (hook != null && accepting.get()) mainThread.post(hook);
+    }
+
+    /** Main-thread action for the start of a month (the automatic draw); set before {@link #start()}. */
+    public void onMonthStarted(Runnable hook) {
+        monthStarted = hook;
+    }
+
+    /**
+     * Writer-only, before accepting, so no player write can commit between the reads and the load. The independent
+     * reads run concurrently on the read pool.
+     */
+    private void warmSnapshots(PerformanceSettings performance) {
+        String month = currentMonth();
+        CompletableFuture<Map<UUID, Boolean>> preferences = CompletableFuture.supplyAsync(ledger::readAllPreferences, reader);
+        CompletableFuture<Double> global = CompletableFuture.supplyAsync(ledger::readGlobalDaily, reader);
+        CompletableFuture<List<MonthlyStanding>> standings =
+                CompletableFuture.supplyAsync(() -> ledger.readMonthlyStandings(month), reader);
+        CompletableFuture<Map<Integer, Integer>> histogram = boundedSnapshots
+                ? CompletableFuture.supplyAsync(ledger::readTotalHistogram, reader) : null;
+        CompletableFuture<WarmStats> stats = CompletableFuture.supplyAsync(() -> readSnapshotStats(performance), reader);
+        loadSnapshots(stats.join(), preferences.join(), global.join());
+        imageEnabled = !boundedSnapshots && performance.snapshotImageMinutes() > 0;
+        leaderboard.seed(month, standings.join());
+        totalRanks.seed(histogram != null ? histogram.join() : snapshots.totalHistogram());
+    }
+
+    /**
+     * Full mode starts from the image when it belongs to this ledger and is not ahead of it, replaying only players
+     * written after it; anything else is a full scan.
+     */
+    private WarmStats readSnapshotStats(PerformanceSettings performance) {
+        if (boundedSnapshots) return new WarmStats(ledger.readRecentStats(recentVoteCutoff(performance)), null);
+        SnapshotImage.Loaded loaded = performance.snapshotImageMinutes() > 0 ? image.read(ledger.ledgerId()) : null;
+        if (loaded != null && loaded.changeSequence() <= ledger.changeSequence()) {
+            return new WarmStats(ledger.readStatsChangedSince(loaded.changeSequence()), loaded);
+        }
+        return new WarmStats(ledger.readAllStats(), null);
+    }
+
+    private void loadSnapshots(WarmStats warm, Map<UUID, Boolean> preferences, double global) {
+        SnapshotImage.Loaded loaded = warm.image();
+        if (loaded == null) {
+            snapshots.load(warm.stats(), preferences, global, currentDay());
+            return;
+        }
+        snapshots.load(loaded.rows(), warm.stats(), preferences, global, currentDay());
+        imageSequence = warm.stats().isEmpty() ? loaded.changeSequence() : -1;
+        plugin.getLogger().info("Snapshot image loaded: " + loaded.rows().size() + " players, "
+                + warm.stats().size() + " replayed from the ledger");
+    }
+
+    private void scheduleSnapshotImage() {
+        CompletableFuture.runAsync(() -> {
+            if (!accepting.get()) return;
+            writeSnapshotImage(false);
+            scheduleSnapshotImage();
+        }, CompletableFuture.delayedExecutor(configService.get().performance().snapshotImageMinutes(),
+                TimeUnit.MINUTES, writer.executor(WriterQueue.Kind.BACKGROUND)));
+    }
+
+    /**
+     * Writer-only, so every committed player write is already in the snapshot when the sequence is read. Rows are
+     * copied here and serialized on a reader thread unless the plugin is shutting down.
+     */
+    private void writeSnapshotImage(boolean inline) {
+        long sequence = ledger.changeSequence();
+        if (sequence == imageSequence) return;
+        PlayerStatsTable.Rows rows = snapshots.export();
+        UUID ledgerId = ledger.ledgerId();
+        Runnable write = () -> {
+            try {
+                image.write(rows, sequence, ledgerId);
+            } catch (IOException | RuntimeException exception) {
+                imageSequence = -1;
+                plugin.getLogger().warning("Snapshot image not written: " + exception.getMessage());
+            }
+        };
+        imageSequence = sequence;
+        if (inline) {
+            write.run();
+            return;
+        }
+        try {
+            reader.execute(write);
+        } catch (RejectedExecutionException closing) {
+            imageSequence = -1; // close() writes it inline
+        }
+    }
+
+    private void scheduleSnapshotSweep() {
+        CompletableFuture.runAsync(this::sweepSnapshots,
+                CompletableFuture.delayedExecutor(SNAPSHOT_SWEEP_SECONDS, TimeUnit.SECONDS, reader));
+    }
+
+    private void sweepSnapshots() {
+        if (!accepting.get()) return;
+        PerformanceSettings performance = configService.get().performance();
+        int idleSweeps = (int) Math.max(1, performance.snapshotIdleMinutes() * 60L / SNAPSHOT_SWEEP_SECONDS);
+        snapshots.evict(performance.snapshotMaxPlayers(), idleSweeps, recentVoteCutoff(performance));
+        scheduleSnapshotSweep();
+    }
+
+    private long recentVoteCutoff(PerformanceSettings performance) {
+        return Instant.now().getEpochSecond() - performance.snapshotRecentDays() * 86_400L;
+    }
+
     private void scheduleMain(Runnable task) {
         if (!accepting.get() || !plugin.isEnabled()) return;
-        Bukkit.getScheduler().runTask(plugin, () -> {
+        mainThread.post(() -> {
             if (accepting.get() && plugin.isEnabled()) task.run();
         });
     }
 
+    /** Runs {@code task} on the main thread through the per-tick mailbox, after everything already queued. */
+    public void runOnMain(Runnable task) {
+        if (plugin.isEnabled()) mainThread.post(task);
+    }
+
+    public MainThreadMailbox.Stats mainThreadStats() { return mainThread.stats(); }
+
+    public WriterQueue.Stats writerStats() { return writer.stats(); }
+
+    /** Provider votes queued for the writer, not counting those waiting in the spool. */
+    public int ingestBacklog() { return ingestDepth.get(); }
+
+    private void drainMainThread() {
+        mainThread.drain(TimeUnit.MILLISECONDS.toNanos(configService.get().performance().mainThreadBudgetMs()));
+    }
+
     private void requireMainThread() {
         if (!Bukkit.isPrimaryThread()) throw new IllegalStateException("vVotes main-thread boundary violated");
     }
 
     private String shortId(String id) { return id == null ? "unknown" : id.substring(0, Math.min(12, id.length())); }
-    private String currentDay() { return LocalDate.now(ZoneId.of(configService.get().timezone())).toString(); }
-    private String currentMonth() { return YearMonth.now(ZoneId.of(configService.get().timezone())).toString(); }
+    private String currentDay() { return periods.dayKey(); }
+    private String currentMonth() { return periods.monthKey(); }
 
     public boolean isAccepting() { return accepting.get(); }
+    /** Accepting, or warming and buffering provider votes until snapshots are loaded. */
+    public boolean isIngesting() { return warming || accepting.get(); }
 
     static VoteEnvelope applyProviderPolicy(VoteEnvelope event, boolean processTestVotes) {
         return event.testVote() && !processTestVotes ? event.quarantined() : event;
@@ -3,42 +3,96 @@ package com.valerinsmp.vvotes.service;
 import com.valerinsmp.vvotes.model.PlayerStats;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
-/** Lock-free read model used by commands and PlaceholderAPI; it never opens SQLite. */
+/**
+ * Read model used by commands and PlaceholderAPI; it never opens SQLite and counter reads are optimistic and
+ * allocation-free. In bounded mode only pinned
+ * (online) players are guaranteed to stay; everyone else may be evicted and is reloaded off-thread on demand.
+ * The global counter and the triple-site set belong to one day: {@link #rollover} resets them and writes tagged
+ * with another day are dropped, so reads never compare keys.
+ */
 final class VoteSnapshots {
-    private final Map<UUID, PlayerStats> stats = new ConcurrentHashMap<>();
+    private final PlayerStatsTable stats = new PlayerStatsTable();
+    private final Set<UUID> pinned = ConcurrentHashMap.newKeySet();
     private final Map<UUID, Boolean> muted = new ConcurrentHashMap<>();
     private final Map<UUID, Boolean> triple = new ConcurrentHashMap<>();
     private volatile double globalDaily;
-    private volatile String globalDay = "";
-    private volatile String tripleDay = "";
+    private volatile String day = "";
 
-    void load(Map<UUID, PlayerStats> allStats, Map<UUID, Boolean> allMuted, double global, String day) {
-        stats.clear(); stats.putAll(allStats);
+    synchronized void load(Map<UUID, PlayerStats> allStats, Map<UUID, Boolean> allMuted, double global, String today) {
+        stats.load(allStats.values(), allStats.size());
+        loadShared(allMuted, global, today);
+    }
+
+    /** Starts from an image and applies the players changed after it. */
+    synchronized void load(PlayerStatsTable.Rows image, Map<UUID, PlayerStats> changed, Map<UUID, Boolean> allMuted,
+                           double global, String today) {
+        stats.load(image);
+        changed.values().forEach(stats::put);
+        loadShared(allMuted, global, today);
+    }
+
+    PlayerStatsTable.Rows export() { return stats.export(); }
+    Map<Integer, Integer> totalHistogram() { return stats.totalHistogram(); }
+
+    private void loadShared(Map<UUID, Boolean> allMuted, double global, String today) {
         muted.clear(); muted.putAll(allMuted);
-        globalDaily = global; globalDay = day; tripleDay = day;
+        triple.clear();
+        globalDaily = global; day = today;
     }
 
-    void updatePlayer(PlayerStats value, boolean tripleToday, String day) {
-        stats.put(value.uuid(), value);
-        if (!day.equals(tripleDay)) triple.clear();
-        tripleDay = day;
+    synchronized void updatePlayer(PlayerStats value, boolean tripleToday, String valueDay) {
+        stats.put(value);
+        if (!valueDay.equals(day)) return;
         if (tripleToday) triple.put(value.uuid(), true); else triple.remove(value.uuid());
     }
 
+    synchronized void rollover(String today) {
+        day = today;
+        globalDaily = 0;
+        triple.clear();
+    }
+
+    /** Publishes an on-demand read unless a committed vote already published a newer projection. */
+    void loaded(PlayerStats value) {
+        stats.putIfAbsent(value);
+    }
+
+    boolean known(UUID uuid) { return stats.contains(uuid); }
+
     PlayerStats stats(UUID uuid, String name, String day, String month) {
-        PlayerStats stored = stats.getOrDefault(uuid, PlayerStats.empty(uuid, name));
+        PlayerStats stored = stats.get(uuid);
+        if (stored == null) stored = PlayerStats.empty(uuid, name);
         return new PlayerStats(stored.uuid(), stored.name(), stored.totalVotes(),
                 day.equals(stored.lastVoteDay()) ? stored.dailyVotes() : 0,
                 month.equals(stored.lastMonthKey()) ? stored.monthlyVotes() : 0,
                 stored.streakMonthly(), stored.lastVoteDay(), stored.lastMonthKey(), stored.lastVoteEpoch());
     }
 
-    void setGlobal(double value, String day) { globalDaily = value; globalDay = day; }
-    double global(String day) { return day.equals(globalDay) ? globalDaily : 0; }
+    /** Allocation-free counter read for placeholders and commands; see {@link PlayerStatsTable#value}. */
+    long counter(UUID uuid, PlayerStatsTable.Column column, int epochDay, int epochMonth) {
+        return stats.value(uuid, column, epochDay, epochMonth);
+    }
+
+    void pin(UUID uuid) { pinned.add(uuid); }
+    void unpin(UUID uuid) { pinned.remove(uuid); }
+    boolean pinned(UUID uuid) { return pinned.contains(uuid); }
+    int size() { return stats.size(); }
+
+    /**
+     * Drops unpinned players unread for more than {@code idleSweeps} sweeps unless they voted since
+     * {@code keepVotedSince}, then the least recently read ones until at most {@code maxPlayers} remain.
+     */
+    int evict(int maxPlayers, int idleSweeps, long keepVotedSince) {
+        return stats.evict(maxPlayers, idleSweeps, keepVotedSince, pinned::contains);
+    }
+
+    synchronized void setGlobal(double value, String valueDay) { if (valueDay.equals(day)) globalDaily = value; }
+    double global() { return globalDaily; }
     void setMuted(UUID uuid, boolean value) { muted.put(uuid, value); }
     boolean muted(UUID uuid) { return muted.getOrDefault(uuid, false); }
-    boolean triple(UUID uuid, String day) { return day.equals(tripleDay) && triple.containsKey(uuid); }
+    boolean triple(UUID uuid) { return triple.containsKey(uuid); }
 }
@@ -0,0 +1,219 @@
+package com.valerinsmp.vvotes.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The single SQLite writer thread, fed by one FIFO per {@link Kind} and always taking from the most urgent non-empty
+ * one. Only admin work is refused once {@code capacity} tasks are waiting: ingest is coalesced into one drain task
+ * and spills to the spool, grant rounds are one per player, and background work schedules its next step only after
+ * the current one ran, so none of them can grow the queue on their own.
+ */
+public final class WriterQueue {
+    /** In priority order; {@code ADMIN} covers every command write, player preferences included. */
+    public enum Kind { INGEST, GRANT, ADMIN, BACKGROUND }
+
+    private static final Kind[] KINDS = Kind.values();
+
+    private final IntSupplier capacity;
+    private final Logger logger;
+    private final LongSupplier nanoTime;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition ready = lock.newCondition();
+    private final List<ArrayDeque<Task>> queues = new ArrayList<>(KINDS.length);
+    private final Executor[] executors = new Executor[KINDS.length];
+    private final LongAdder[] completed = new LongAdder[KINDS.length];
+    private final LongAdder[] busyNanos = new LongAdder[KINDS.length];
+    private final AtomicLong[] maxNanos = new AtomicLong[KINDS.length];
+    private final LongAdder rejected = new LongAdder();
+    private final Thread thread;
+    private int depth; // guarded by lock
+    private boolean saturated; // guarded by lock
+    private boolean shutdown; // guarded by lock
+
+    WriterQueue(String threadName, IntSupplier capacity, Logger logger) {
+        this(threadName, capacity, logger, System::nanoTime);
+    }
+
+    WriterQueue(String threadName, IntSupplier capacity, Logger logger, LongSupplier nanoTime) {
+        this.capacity = capacity;
+        this.logger = logger;
+        this.nanoTime = nanoTime;
+        for (Kind kind : KINDS) {
+            queues.add(new ArrayDeque<>());
+            executors[kind.ordinal()] = task -> execute(kind, task);
+            completed[kind.ordinal()] = new LongAdder();
+            busyNanos[kind.ordinal()] = new LongAdder();
+            maxNanos[kind.ordinal()] = new AtomicLong();
+        }
+        this.thread = new Thread(this::work, threadName);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Throws {@link RejectedExecutionException} after {@link #shutdown()}, or for admin work while saturated. */
+    void execute(Kind kind, Runnable task) {
+        lock.lock();
+        try {
+            if (shutdown) throw new RejectedExecutionException("writer stopped");
+            int limit = capacity.getAsInt();
+            if (kind == Kind.ADMIN && depth >= limit) {
+                rejected.increment();
+                String reason = "writer queue full (" + depth + " tasks, oldest "
+                        + TimeUnit.NANOSECONDS.toMillis(oldestAgeNanos()) + " ms)";
+                logger.warning("Admin write rejected: " + reason);
+                throw new RejectedExecutionException(reason);
+            }
+            queues.get(kind.ordinal()).add(new Task(task, nanoTime.getAsLong()));
+            if (++depth >= limit && !saturated) {
+                saturated = true;
+                logger.warning("Writer queue reached " + depth + " tasks; admin writes are rejected until it drains");
+            }
+            ready.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Executor executor(Kind kind) {
+        return executors[kind.ordinal()];
+    }
+
+    /** Like {@code supplyAsync}, but a refused task fails the future instead of throwing. */
+    <T> CompletableFuture<T> supply(Kind kind, Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            execute(kind, () -> {
+                try {
+                    future.complete(task.get());
+                } catch (Throwable failure) {
+                    future.completeExceptionally(failure);
+                }
+            });
+        } catch (RejectedExecutionException refused) {
+            future.completeExceptionally(refused);
+        }
+        return future;
+    }
+
+    CompletableFuture<Void> run(Kind kind, Runnable task) {
+        return supply(kind, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /** Queued tasks still run; new ones are refused. */
+    void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            ready.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean isShutdown() {
+        lock.lock();
+        try {
+            return shutdown;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        thread.join(Math.max(1, unit.toMillis(timeout)));
+        return !thread.isAlive();
+    }
+
+    Stats stats() {
+        int[] depths = new int[KINDS.length];
+        long oldest;
+        lock.lock();
+        try {
+            for (Kind kind : KINDS) depths[kind.ordinal()] = queues.get(kind.ordinal()).size();
+            oldest = oldestAgeNanos();
+        } finally {
+            lock.unlock();
+        }
+        List<KindStats> kinds = new ArrayList<>(KINDS.length);
+        int total = 0;
+        for (Kind kind : KINDS) {
+            int index = kind.ordinal();
+            long count = completed[index].sum();
+            kinds.add(new KindStats(kind, depths[index], count, count == 0 ? 0 : busyNanos[index].sum() / count,
+                    maxNanos[index].get()));
+            total += depths[index];
+        }
+        return new Stats(total, oldest, rejected.sum(), List.copyOf(kinds));
+    }
+
+    private long oldestAgeNanos() {
+        long now = nanoTime.getAsLong();
+        long oldest = 0;
+        for (ArrayDeque<Task> queue : queues) {
+            Task head = queue.peek();
+            if (head != null) oldest = Math.max(oldest, now - head.queuedAt());
+        }
+        return oldest;
+    }
+
+    private void work() {
+        while (true) {
+            Kind kind = null;
+            Task task = null;
+            lock.lock();
+            try {
+                while (task == null) {
+                    for (Kind candidate : KINDS) {
+                        task = queues.get(candidate.ordinal()).poll();
+                        if (task != null) {
+                            kind = candidate;
+                            break;
+                        }
+                    }
+                    if (task != null) break;
+                    if (shutdown) return;
+                    ready.awaitUninterruptibly();
+                }
+                if (--depth < capacity.getAsInt() / 2) saturated = false;
+            } finally {
+                lock.unlock();
+            }
+            long startedAt = nanoTime.getAsLong();
+            try {
+                task.body().run();
+            } catch (Throwable failure) { // an Error must not kill the only writer thread
+                logger.log(Level.SEVERE, "vVotes writer task failed", failure);
+            }
+            long elapsed = nanoTime.getAsLong() - startedAt;
+            int index = kind.ordinal();
+            completed[index].increment();
+            busyNanos[index].add(elapsed);
+            maxNanos[index].accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    private record Task(Runnable body, long queuedAt) {}
+
+    /** {@code oldestAgeNanos} is how long the oldest waiting task has been queued; times are per completed task. */
+    public record Stats(int depth, long oldestAgeNanos, long rejected, List<KindStats> kinds) {}
+
+    public record KindStats(Kind kind, int depth, long completed, long averageNanos, long maxNanos) {}
+}
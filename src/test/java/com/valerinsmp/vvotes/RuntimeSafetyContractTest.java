@@ -37,14 +37,19 @@ class RuntimeSafetyContractTest {
     }
 
     @Test
-    void providerListenerCapturesPrimitivesBeforeItsOnlyMainThreadHop() throws Exception {
+    void providerListenerResolvesIdentityFromTheOnlineIndexWithoutMainThreadHop() throws Exception {
         String listener = Files.readString(project.resolve("src/main/java/com/valerinsmp/vvotes/listener/VoteListener.java"));
-        int capture = listener.indexOf("VoteEnvelope.capture(");
-        int mainHop = listener.indexOf("Bukkit.getScheduler().runTask");
-        assertTrue(capture >= 0 && mainHop > capture);
-        assertEquals(1, occurrences(listener, "Bukkit.getScheduler().runTask"));
-        assertFalse(listener.substring(0, mainHop).contains("getPlayer"));
-        assertFalse(listener.contains("Bukkit.getPlayer("), "partial player lookup must never return");
+        String onVote = listener.substring(listener.indexOf("public void onVote("), listener.indexOf("public void onPlayerJoin("));
+        int capture = onVote.indexOf("VoteEnvelope.capture(");
+        int ingest = onVote.indexOf("voteService.ingestProviderEvent(");
+        assertTrue(capture >= 0 && ingest > capture);
+        assertTrue(onVote.contains("voteService.onlineIdentity("));
+        assertFalse(listener.contains("Bukkit."), "provider threads must not touch Bukkit state");
+        assertFalse(onVote.contains("getPlayer"), "partial player lookup must never return");
+        String service = Files.readString(project.resolve("src/main/java/com/valerinsmp/vvotes/service/VoteService.java"));
+        String ingestBody = service.substring(service.indexOf("public void ingestProviderEvent("),
+                service.indexOf("public void resolvePending("));
+        assertFalse(ingestBody.contains("Bukkit."));
     }
 
     @Test
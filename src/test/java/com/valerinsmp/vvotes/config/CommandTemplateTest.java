@@ -0,0 +1,61 @@
+package com.valerinsmp.vvotes.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandTemplateTest {
+    private static final String UUID = "00000000-0000-0001-0000-000000000002";
+
+    @Test
+    void rendersLikeTheReplaceChainForConfiguredCommands() {
+        Map<String, String> values = Map.of("goal", "12", "service", "minecraft-mp", "timestamp", "1786449600");
+        for (String command : List.of("rec purse add <player> 5000", "lp user %player% meta set uuid <uuid> %uuid%",
+                "broadcast <player> llegó a <goal> votos en %service% (<timestamp>)", "crate key giveall fire 1",
+                "say <player><player>%player%", "<<player>> %%goal%%", "msg %player <green>%goal% %vault_eco_balance%")) {
+            assertEquals(replaceChain(command, "Steve", values), CommandTemplate.compile(command).render("Steve", UUID, values));
+        }
+    }
+
+    @Test
+    void slotsWithoutValueAndForeignTokensStayAsTyped() {
+        CommandTemplate template = CommandTemplate.compile("give %player% <goal> <green>%papi_x%</green> <month>");
+
+        assertEquals(Set.of("player", "goal", "month"), template.placeholders());
+        assertEquals("give %player% 75 <green>%papi_x%</green> <month>", template.render(null, null, Map.of("goal", "75")));
+        assertSame(CommandTemplate.of("say hola"), CommandTemplate.of("say hola"));
+    }
+
+    @Test
+    void substitutedValuesAreNotScannedAgain() {
+        CommandTemplate template = CommandTemplate.compile("vote %service% <timestamp>");
+
+        assertEquals("vote <timestamp> 100", template.render("Steve", UUID, Map.of("service", "<timestamp>", "timestamp", "100")));
+    }
+
+    @Test
+    void scopesOnlyOfferWhatTheirSectionFills() {
+        assertFalse(CommandTemplate.Scope.GLOBAL_GOAL.placeholders().contains(CommandTemplate.PLAYER));
+        assertFalse(CommandTemplate.Scope.VOTE.placeholders().contains("goal"));
+        assertTrue(CommandTemplate.Scope.DRAW.placeholders().contains("month"));
+        for (CommandTemplate.Scope scope : CommandTemplate.Scope.values()) {
+            assertTrue(CommandTemplate.PLACEHOLDERS.containsAll(scope.placeholders()));
+        }
+    }
+
+    /** The materialization this template replaced. */
+    private static String replaceChain(String command, String player, Map<String, String> values) {
+        String result = command.replace("<player>", player).replace("%player%", player)
+                .replace("<uuid>", UUID).replace("%uuid%", UUID);
+        for (Map.Entry<String, String> entry : new TreeMap<>(values).entrySet()) {
+            result = result.replace("<" + entry.getKey() + ">", entry.getValue())
+                    .replace("%" + entry.getKey() + "%", entry.getValue());
+        }
+        return result;
+    }
+}
@@ -23,7 +23,7 @@ class PluginConfigTest {
                 defaults.monthlyDrawRewardCommand(), defaults.monthlyDrawAutoCheckMinutes(),
                 defaults.doubleSiteBonusEnabled(), defaults.doubleSiteBonusRequiredSites(),
                 defaults.doubleSiteBonusMessage(), defaults.doubleSiteBonusCommands(),
-                defaults.doubleSiteTodayIcon());
+                defaults.doubleSiteTodayIcon(), defaults.performance());
 
         assertEquals(List.of("reward %player%"), config.forcedServiceCommands("PlanetMinecraft"));
         assertTrue(config.forcedServiceCommands("unknown").isEmpty());
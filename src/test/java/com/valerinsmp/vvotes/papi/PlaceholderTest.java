@@ -0,0 +1,20 @@
+package com.valerinsmp.vvotes.papi;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PlaceholderTest {
+    @Test
+    void resolvesEveryAliasIgnoringCase() {
+        assertEquals(Placeholder.TOTAL, Placeholder.resolve("votes_total").placeholder());
+        assertEquals(Placeholder.TOTAL, Placeholder.resolve("Votes_Total").placeholder());
+        assertEquals(Placeholder.UNSUPPORTED_STREAK, Placeholder.resolve("STREAK_WEEKLY").placeholder());
+        assertEquals(Placeholder.ANNOUNCEMENTS_STATE, Placeholder.resolve("announcements_state").placeholder());
+        assertEquals(new Placeholder.Resolved(Placeholder.TOP_MONTHLY_VOTES, 7), Placeholder.resolve("top_monthly_7_votes"));
+        assertNull(Placeholder.resolve("top_monthly_0_name"));
+        assertNull(Placeholder.resolve("top_monthly_101_name"));
+        assertNull(Placeholder.resolve("unknown"));
+    }
+}
@@ -1,8 +1,10 @@
 package com.valerinsmp.vvotes.reward;
 
 import com.valerinsmp.vvotes.service.GrantClaim;
+import com.valerinsmp.vvotes.service.GrantOutcome;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -43,25 +45,51 @@ class GrantDispatcherTest {
         assertEquals(0, runtime.dispatchCalls);
     }
 
+    @Test
+    void roundStopsABatchAtItsFirstNonDoneAndDefersPastTheTickBudget() {
+        FakeRuntime runtime = new FakeRuntime();
+        runtime.accepted = false;
+        GrantDispatcher dispatcher = new GrantDispatcher(runtime);
+        List<GrantOutcome> outcomes = dispatcher.dispatchAll(List.of(claim("a", 0), claim("a", 1), claim("b", 0)), 1_000);
+        assertEquals(List.of("AMBIGUOUS", "PENDING", "AMBIGUOUS"), outcomes.stream().map(GrantOutcome::state).toList());
+        assertEquals(2, runtime.dispatchCalls);
+
+        runtime.accepted = true;
+        runtime.nanosPerDispatch = 600;
+        outcomes = dispatcher.dispatchAll(List.of(claim("a", 0), claim("b", 0), claim("c", 0), claim("c", 1)), 1_000);
+        assertEquals(List.of("DONE", "DONE", "PENDING", "PENDING"), outcomes.stream().map(GrantOutcome::state).toList());
+        assertEquals(List.of(false, false, true, false), outcomes.stream().map(GrantOutcome::deferred).toList());
+        assertEquals(4, runtime.dispatchCalls);
+    }
+
     private static GrantClaim claim(String mode) {
         return new GrantClaim("grant", "batch", 0, "VOTE", "/reward Steve", mode,
                 UUID.fromString("11111111-1111-1111-1111-111111111111"), "Steve", "token", "CLAIMED", "");
     }
 
+    private static GrantClaim claim(String batch, int sequence) {
+        return new GrantClaim(batch + sequence, batch, sequence, "VOTE", "reward Steve", "CONSOLE",
+                null, "Steve", "token", "CLAIMED", "");
+    }
+
     private static final class FakeRuntime implements GrantDispatcher.CommandRuntime {
         private boolean primary = true;
         private boolean playerOnline = true;
         private boolean accepted = true;
         private RuntimeException failure;
         private int dispatchCalls;
+        private long nanos;
+        private long nanosPerDispatch;
 
         @Override public boolean isPrimaryThread() { return primary; }
         @Override public boolean isExactPlayerOnline(GrantClaim claim) { return playerOnline; }
         @Override public boolean dispatchPlayer(GrantClaim claim, String command) { return dispatch(); }
         @Override public boolean dispatchConsole(String command) { return dispatch(); }
+        @Override public long nanoTime() { return nanos; }
 
         private boolean dispatch() {
             dispatchCalls++;
+            nanos += nanosPerDispatch;
             if (failure != null) throw failure;
             return accepted;
         }
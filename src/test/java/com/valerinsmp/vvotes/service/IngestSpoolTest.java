@@ -0,0 +1,117 @@
+package com.valerinsmp.vvotes.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngestSpoolTest {
+    private static final UUID STEVE = UUID.fromString("11111111-1111-1111-1111-111111111111");
+
+    @TempDir Path tempDir;
+
+    @Test
+    void unacknowledgedEntriesAreReplayedInOrderAfterRestart() throws Exception {
+        Path file = tempDir.resolve("votes.db.spool");
+        VoteEnvelope first = VoteEnvelope.capture("site-a", "Steve", "a", "100", "s");
+        VoteEnvelope second = VoteEnvelope.capture("site-b", "Alex", "a", "101", "s");
+        VoteEnvelope third = VoteEnvelope.capture("site-c", "Steve", "a", "102", "s");
+        try (IngestSpool spool = new IngestSpool(file)) {
+            assertEquals(List.of(), spool.open());
+            long a = spool.append(first, new PlayerIdentity(STEVE, "Steve"));
+            spool.append(second, null);
+            spool.append(third, new PlayerIdentity(STEVE, "Steve"));
+            spool.force();
+            spool.acknowledge(a);
+        }
+
+        try (IngestSpool spool = new IngestSpool(file)) {
+            List<IngestSpool.Entry> replay = spool.open();
+            assertEquals(List.of(second, third), replay.stream().map(IngestSpool.Entry::event).toList());
+            assertNull(replay.get(0).identity());
+            assertEquals(new PlayerIdentity(STEVE, "Steve"), replay.get(1).identity());
+            replay.forEach(entry -> spool.acknowledge(entry.offset()));
+            assertEquals(0, spool.pending());
+        }
+
+        try (IngestSpool spool = new IngestSpool(file)) {
+            assertEquals(List.of(), spool.open());
+        }
+    }
+
+    @Test
+    void spilledRecordsAreReadBackInPagesWithoutAcknowledging() throws Exception {
+        try (IngestSpool spool = new IngestSpool(tempDir.resolve("spill.spool"))) {
+            spool.open();
+            spool.append(VoteEnvelope.capture("site-a", "Steve", "a", "100", "s"), null);
+            long spilled = spool.append(VoteEnvelope.capture("site-b", "Steve", "a", "101", "s"), null);
+            spool.append(VoteEnvelope.capture("site-c", "Steve", "a", "102", "s"), null);
+            spool.append(VoteEnvelope.capture("site-d", "Steve", "a", "103", "s"), null);
+
+            List<IngestSpool.Entry> page = spool.readFrom(spilled, 2);
+            assertEquals(List.of("site-b", "site-c"), page.stream().map(entry -> entry.event().normalizedService()).toList());
+            List<IngestSpool.Entry> rest = spool.readFrom(page.getLast().end(), 2);
+            assertEquals(List.of("site-d"), rest.stream().map(entry -> entry.event().normalizedService()).toList());
+            assertEquals(List.of(), spool.readFrom(rest.getLast().end(), 2));
+            assertEquals(4, spool.pending());
+        }
+    }
+
+    @Test
+    void retiredEntryNoLongerBlocksTheRewindAndReplaysAfterRestart() throws Exception {
+        Path file = tempDir.resolve("retired.spool");
+        VoteEnvelope failing = VoteEnvelope.capture("site-a", "Steve", "a", "100", "s");
+        try (IngestSpool spool = new IngestSpool(file)) {
+            spool.open();
+            long stuck = spool.append(failing, new PlayerIdentity(STEVE, "Steve"));
+            for (int i = 0; i < 5_000; i++) {
+                spool.acknowledge(spool.append(VoteEnvelope.capture("site-b", "Alex", "a", Integer.toString(i), "s"), null));
+            }
+            assertEquals(1, spool.pending());
+
+            assertTrue(spool.retire(stuck));
+            assertFalse(spool.retire(stuck));
+            assertEquals(0, spool.pending());
+            long rewound = spool.append(VoteEnvelope.capture("site-c", "Alex", "a", "200", "s"), null);
+            assertEquals(stuck, rewound);
+            spool.acknowledge(rewound);
+        }
+
+        try (IngestSpool spool = new IngestSpool(file)) {
+            List<IngestSpool.Entry> replay = spool.open();
+            assertEquals(List.of(failing), replay.stream().map(IngestSpool.Entry::event).toList());
+            assertEquals(new PlayerIdentity(STEVE, "Steve"), replay.get(0).identity());
+            spool.acknowledge(replay.get(0).offset());
+        }
+
+        try (IngestSpool spool = new IngestSpool(file)) {
+            assertEquals(List.of(), spool.open());
+        }
+    }
+
+    @Test
+    void tornOrCorruptTailEndsTheReplay() throws Exception {
+        Path file = tempDir.resolve("torn.spool");
+        long second;
+        try (IngestSpool spool = new IngestSpool(file)) {
+            spool.open();
+            spool.append(VoteEnvelope.capture("site-a", "Steve", "a", "100", "s"), null);
+            second = spool.append(VoteEnvelope.capture("site-b", "Steve", "a", "101", "s"), null);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x7f}), second + 20);
+        }
+
+        try (IngestSpool spool = new IngestSpool(file)) {
+            assertEquals(1, spool.open().size());
+            assertEquals(1, spool.pending());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.valerinsmp.vvotes.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MainThreadMailboxTest {
+
+    @Test
+    void budgetCarriesTheRestIntoTheNextTickInPostedOrder() {
+        AtomicLong now = new AtomicLong();
+        MainThreadMailbox mailbox = new MainThreadMailbox(Logger.getAnonymousLogger(), now::get);
+        List<String> ran = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            String name = "steve-" + i;
+            mailbox.post(() -> {
+                ran.add(name);
+                now.addAndGet(2);
+            });
+        }
+
+        assertEquals(3, mailbox.drain(5));
+        assertEquals(List.of("steve-0", "steve-1", "steve-2"), ran);
+        assertEquals(2, mailbox.backlog());
+        assertEquals(1, mailbox.carriedTicks());
+
+        assertEquals(2, mailbox.drain(5));
+        assertEquals(List.of("steve-0", "steve-1", "steve-2", "steve-3", "steve-4"), ran);
+        assertEquals(0, mailbox.backlog());
+        assertEquals(5, mailbox.peakBacklog());
+    }
+
+    @Test
+    void spentBudgetStillRunsOneTaskAndRepostsWaitForTheNextTick() {
+        AtomicLong now = new AtomicLong();
+        MainThreadMailbox mailbox = new MainThreadMailbox(Logger.getAnonymousLogger(), now::get);
+        List<String> ran = new ArrayList<>();
+        mailbox.post(() -> {
+            ran.add("first");
+            mailbox.post(() -> ran.add("reposted"));
+        });
+        mailbox.post(() -> { throw new IllegalStateException("boom"); });
+        mailbox.post(() -> ran.add("after-failure"));
+
+        assertEquals(3, mailbox.drain(Long.MAX_VALUE));
+        assertEquals(List.of("first", "after-failure"), ran);
+        assertEquals(1, mailbox.backlog());
+
+        now.set(1_000);
+        assertEquals(1, mailbox.drain(0));
+        assertEquals(List.of("first", "after-failure", "reposted"), ran);
+    }
+}
@@ -0,0 +1,58 @@
+package com.valerinsmp.vvotes.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MonthlyLeaderboardTest {
+    private static final ZoneId ZONE = ZoneId.of("America/Santiago");
+
+    @TempDir Path tempDir;
+
+    @Test
+    void followsCommittedVotesExactlyLikeTheLedgerRanking() throws Exception {
+        MonthlyLeaderboard board = new MonthlyLeaderboard(3);
+        VotePlan plan = VotePlan.simple(List.of());
+        try (VoteLedger ledger = new VoteLedger(tempDir.resolve("top.db"), 5_000,
+                Clock.fixed(Instant.parse("2026-08-11T12:00:00Z"), ZONE), ZONE)) {
+            ledger.initialize();
+            board.seed("2026-08", ledger.readMonthlyStandings("2026-08"));
+            String[] voters = {"Steve", "Alex", "Zed", "Alex", "Bob", "Zed", "Zed", "Bob"};
+            for (int i = 0; i < voters.length; i++) {
+                PlayerIdentity identity = new PlayerIdentity(UUID.nameUUIDFromBytes(voters[i].getBytes()), voters[i]);
+                LedgerPostState post = ledger.accept(VoteEnvelope.capture("site", voters[i], "a", "t" + i, "s"),
+                        identity, plan).postState();
+                board.update(post.standingMonth(), new MonthlyStanding(identity.uuid(), identity.exactName(), post.standingVotes()));
+            }
+
+            assertEquals(ledger.readTopMonth("2026-08", 3), board.top("2026-08", 3));
+            MonthlyLeaderboard reseeded = new MonthlyLeaderboard(3);
+            reseeded.seed("2026-08", ledger.readMonthlyStandings("2026-08"));
+            assertEquals(board.top("2026-08", 3), reseeded.top("2026-08", 3));
+        }
+        assertEquals(new TopMonthEntry(1, "Zed", 3), board.at("2026-08", 1));
+        assertNull(board.at("2026-08", 4));
+        assertNull(board.at("2026-09", 1));
+        assertEquals(1, board.rank("2026-08", UUID.nameUUIDFromBytes("Zed".getBytes())));
+        assertEquals(2, board.rank("2026-08", UUID.nameUUIDFromBytes("Bob".getBytes())));
+        assertEquals(2, board.rank("2026-08", UUID.nameUUIDFromBytes("Alex".getBytes())));
+        assertEquals(4, board.rank("2026-08", UUID.nameUUIDFromBytes("Steve".getBytes())));
+        assertEquals(0, board.rank("2026-08", new UUID(0, 1)));
+
+        board.update("2026-07", new MonthlyStanding(new UUID(0, 1), "Late", 50));
+        assertEquals("Zed", board.at("2026-08", 1).playerName());
+        board.update("2026-09", new MonthlyStanding(new UUID(0, 1), "Early", 1));
+        assertEquals(List.of(new TopMonthEntry(1, "Early", 1)), board.top("2026-09", 10));
+        assertEquals(0, board.rank("2026-09", UUID.nameUUIDFromBytes("Zed".getBytes())));
+        assertEquals(1, board.rank("2026-09", new UUID(0, 1)));
+    }
+}
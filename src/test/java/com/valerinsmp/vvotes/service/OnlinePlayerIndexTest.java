@@ -0,0 +1,30 @@
+package com.valerinsmp.vvotes.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OnlinePlayerIndexTest {
+    private static final UUID STEVE = UUID.fromString("11111111-1111-1111-1111-111111111111");
+    private static final UUID OTHER = UUID.fromString("22222222-2222-2222-2222-222222222222");
+
+    @Test
+    void resolvesByLowercaseNameAndOnlyTheMatchingQuitRemoves() {
+        OnlinePlayerIndex index = new OnlinePlayerIndex();
+        PlayerIdentity steve = new PlayerIdentity(STEVE, "Steve");
+        index.add(steve);
+
+        assertEquals(steve, index.find(VoteEnvelope.capture("site", "STEVE", "", "1", "").normalizedName()));
+        assertNull(index.find("alex"));
+        assertNull(index.find(null));
+
+        PlayerIdentity renamed = new PlayerIdentity(OTHER, "steve");
+        index.add(renamed); // the name moved to another account before the old quit arrived
+        index.remove(steve);
+        assertEquals(renamed, index.find("steve"));
+        index.remove(renamed);
+        assertEquals(0, index.size());
+    }
+}
@@ -0,0 +1,62 @@
+package com.valerinsmp.vvotes.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PeriodClockTest {
+    private static final ZoneId ZONE = ZoneId.of("America/Santiago");
+
+    @Test
+    void rollsOverOnceAtTheZoneMidnightAndPublishesBeforeReadersSeeIt() {
+        AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2026-08-31T12:00:00Z"));
+        PeriodClock periods = new PeriodClock(new MutableClock(now), ZONE);
+        List<PeriodClock.Rollover> seen = new ArrayList<>();
+        List<String> keysInsideListener = new ArrayList<>();
+        periods.subscribe(rollover -> {
+            seen.add(rollover);
+            keysInsideListener.add(periods.dayKey());
+        });
+
+        assertEquals("2026-08-31", periods.dayKey());
+        assertEquals("2026-07", periods.current().previousMonthKey());
+        now.set(Instant.parse("2026-09-01T03:59:59Z")); // 23:59:59 in Santiago (UTC-4)
+        assertEquals("2026-08-31", periods.dayKey());
+        assertTrue(seen.isEmpty());
+
+        now.set(Instant.parse("2026-09-01T04:00:00Z"));
+        assertEquals("2026-09", periods.monthKey());
+        assertEquals("2026-09-01", periods.dayKey());
+        assertEquals(1, seen.size());
+        assertTrue(seen.get(0).monthChanged());
+        assertEquals("2026-08-31", seen.get(0).previous().dayKey());
+        assertEquals(List.of("2026-09-01"), keysInsideListener);
+        assertEquals(PlayerStatsTable.epochDay("2026-09-01"), periods.current().epochDay());
+        assertEquals(PlayerStatsTable.epochMonth("2026-09"), periods.current().epochMonth());
+
+        now.set(Instant.parse("2026-09-02T05:00:00Z"));
+        periods.current();
+        assertEquals(2, seen.size());
+        assertFalse(seen.get(1).monthChanged());
+    }
+
+    private static final class MutableClock extends Clock {
+        private final AtomicReference<Instant> now;
+
+        private MutableClock(AtomicReference<Instant> now) { this.now = now; }
+
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return now.get(); }
+    }
+}
@@ -0,0 +1,63 @@
+package com.valerinsmp.vvotes.service;
+
+import com.valerinsmp.vvotes.model.PlayerStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PlayerStatsTableTest {
+    private static final int DAY = PlayerStatsTable.epochDay("2026-08-11");
+    private static final int MONTH = PlayerStatsTable.epochMonth("2026-08");
+
+    @Test
+    void growsAndEvictsWithoutLosingProbeChains() {
+        PlayerStatsTable table = new PlayerStatsTable();
+        Map<UUID, PlayerStats> model = new HashMap<>();
+        Random random = new Random(11);
+        table.load(List.of(), 0);
+        for (int i = 0; i < 20_000; i++) {
+            UUID uuid = new UUID(random.nextInt(64), random.nextInt(4_000)); // colliding high bits force long chains
+            PlayerStats row = stats(uuid, i);
+            table.put(row);
+            model.put(uuid, row);
+        }
+        assertEquals(model.size(), table.size());
+        table.evict(Integer.MAX_VALUE, 0, Long.MAX_VALUE, uuid -> uuid.getMostSignificantBits() % 2 == 0);
+        model.keySet().removeIf(uuid -> uuid.getMostSignificantBits() % 2 != 0);
+
+        assertEquals(model.size(), table.size());
+        for (PlayerStats expected : model.values()) {
+            assertEquals(expected, table.get(expected.uuid()));
+            assertEquals((long) expected.totalVotes(),
+                    table.value(expected.uuid(), PlayerStatsTable.Column.TOTAL, DAY, MONTH));
+        }
+        assertNull(table.get(new UUID(1, 1)));
+        assertEquals(-1, table.value(new UUID(1, 1), PlayerStatsTable.Column.TOTAL, DAY, MONTH));
+    }
+
+    @Test
+    void periodCountersExpireAndLoadsNeverReplaceNewerRows() {
+        UUID uuid = new UUID(0, 42);
+        PlayerStatsTable table = new PlayerStatsTable();
+        table.put(stats(uuid, 5));
+        table.putIfAbsent(stats(uuid, 1));
+
+        assertEquals(5, table.value(uuid, PlayerStatsTable.Column.TOTAL, DAY, MONTH));
+        assertEquals(5, table.value(uuid, PlayerStatsTable.Column.DAILY, DAY, MONTH));
+        assertEquals(0, table.value(uuid, PlayerStatsTable.Column.DAILY, DAY + 1, MONTH));
+        assertEquals(0, table.value(uuid, PlayerStatsTable.Column.MONTHLY, DAY + 30, MONTH + 1));
+        assertEquals(PlayerStatsTable.NO_PERIOD, PlayerStatsTable.epochDay(""));
+    }
+
+    private PlayerStats stats(UUID uuid, int votes) {
+        return new PlayerStats(uuid, "P" + uuid.getLeastSignificantBits(), votes, votes, votes, 2,
+                "2026-08-11", "2026-08", 1_786_000_000L);
+    }
+}
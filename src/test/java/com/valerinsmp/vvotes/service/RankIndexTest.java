@@ -0,0 +1,40 @@
+package com.valerinsmp.vvotes.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RankIndexTest {
+    @Test
+    void matchesBruteForceRanksWhileCountsGrowPastTheTree() {
+        RankIndex index = new RankIndex();
+        Random random = new Random(15);
+        long[] counts = new long[500];
+        Map<Integer, Integer> seed = new HashMap<>();
+        for (int player = 0; player < counts.length; player++) {
+            counts[player] = random.nextInt(40);
+            if (counts[player] > 0) seed.merge((int) counts[player], 1, Integer::sum);
+        }
+        index.seed(seed);
+        for (int step = 0; step < 5_000; step++) {
+            int player = random.nextInt(counts.length);
+            long next = step % 7 == 0 ? 0 : counts[player] + random.nextInt(step / 10 + 2);
+            index.move(counts[player], next);
+            counts[player] = next;
+        }
+
+        int ranked = 0;
+        for (long count : counts) if (count > 0) ranked++;
+        assertEquals(ranked, index.players());
+        for (long count : counts) {
+            int above = 0;
+            for (long other : counts) if (other > count) above++;
+            assertEquals(count > 0 ? above + 1 : 0, index.rank(count));
+        }
+        assertEquals(1, index.rank(Long.MAX_VALUE));
+    }
+}
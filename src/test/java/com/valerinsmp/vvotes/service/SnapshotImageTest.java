@@ -0,0 +1,46 @@
+package com.valerinsmp.vvotes.service;
+
+import com.valerinsmp.vvotes.model.PlayerStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SnapshotImageTest {
+    @TempDir Path tempDir;
+
+    @Test
+    void roundTripsEveryRowAndRejectsForeignOrDamagedImages() throws Exception {
+        UUID ledgerId = UUID.randomUUID();
+        PlayerStatsTable table = new PlayerStatsTable();
+        List<PlayerStats> rows = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            rows.add(new PlayerStats(new UUID(i, -i), i % 7 == 0 ? "Ñandú" + i : "Player" + i, i, i % 3, i % 11, i % 4,
+                    i % 2 == 0 ? "2026-08-11" : "", "2026-08", 1_786_000_000L + i));
+        }
+        table.load(rows, rows.size());
+        Path path = tempDir.resolve("votes.db.image");
+        SnapshotImage image = new SnapshotImage(path);
+        image.write(table.export(), 42, ledgerId);
+
+        SnapshotImage.Loaded loaded = image.read(ledgerId);
+        assertEquals(42, loaded.changeSequence());
+        PlayerStatsTable restored = new PlayerStatsTable();
+        restored.load(loaded.rows());
+        assertEquals(rows.size(), restored.size());
+        for (PlayerStats row : rows) assertEquals(row, restored.get(row.uuid()));
+
+        assertNull(image.read(UUID.randomUUID()));
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(path, bytes);
+        assertNull(image.read(ledgerId));
+    }
+}
@@ -10,12 +10,15 @@ import java.nio.file.Files;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -92,6 +95,34 @@ class VoteLedgerTest {
         }
     }
 
+    @Test
+    void identicalPlansAreStoredOnceAndInlinePlansAreDeduplicatedOnReopen() throws Exception {
+        Path db = tempDir.resolve("plans.db");
+        try (VoteLedger ledger = ledger(db, "2026-08-11T12:00:00Z")) {
+            ledger.accept(vote("site-a", "Steve", "100"), null, VotePlan.simple(List.of("old <player>")));
+            ledger.accept(vote("site-b", "Steve", "101"), null, VotePlan.simple(List.of("old <player>")));
+            ledger.accept(vote("site-c", "Alex", "102"), new PlayerIdentity(ALEX, "Alex"), VotePlan.simple(List.of("other")));
+        }
+        assertEquals(2, countRows(db, "SELECT COUNT(*) FROM vote_plans"));
+        assertEquals(0, countRows(db, "SELECT COUNT(*) FROM vote_events WHERE plan_json <> '' OR plan_id IS NULL"));
+
+        try (var connection = DriverManager.getConnection("jdbc:sqlite:" + db.toAbsolutePath());
+             var statement = connection.createStatement()) {
+            statement.execute("""
+                    UPDATE vote_events SET plan_json = (SELECT plan_json FROM vote_plans p WHERE p.plan_id = vote_events.plan_id),
+                      plan_id = NULL
+                    """);
+            statement.execute("DELETE FROM vote_plans");
+        }
+
+        try (VoteLedger ledger = ledger(db, "2026-08-11T12:00:01Z")) {
+            assertEquals(2, countRows(db, "SELECT COUNT(*) FROM vote_plans"));
+            assertEquals(0, countRows(db, "SELECT COUNT(*) FROM vote_events WHERE plan_json <> '' OR plan_id IS NULL"));
+            assertEquals(2, ledger.resolvePending(new PlayerIdentity(STEVE, "Steve")).size());
+            assertEquals("old Steve", ledger.claimNextGrant(STEVE).orElseThrow().commandSnapshot());
+        }
+    }
+
     @Test
     void exactIdentityMismatchFailsClosedWithoutPartialNameResolution() throws Exception {
         try (VoteLedger ledger = ledger(tempDir.resolve("identity.db"), "2026-08-11T12:00:00Z")) {
@@ -119,6 +150,123 @@ class VoteLedgerTest {
         }
     }
 
+    @Test
+    void groupCommitKeepsPerEventOutcomesAndFallsBackWhenOneEventFails() throws Exception {
+        Path db = tempDir.resolve("batch.db");
+        VotePlan plan = VotePlan.simple(List.of("reward <player>"));
+        PlayerIdentity steve = new PlayerIdentity(STEVE, "Steve");
+        try (VoteLedger ledger = ledger(db, "2026-08-11T12:00:00Z")) {
+            VoteEnvelope first = vote("site-a", "Steve", "100");
+            List<VoteEventResult> results = ledger.acceptBatch(List.of(
+                    new VoteIngest(first, steve, plan),
+                    new VoteIngest(first, steve, plan),
+                    new VoteIngest(VoteEnvelope.capture("site", "Steve", "address", "", "source"), steve, plan),
+                    new VoteIngest(vote("site-b", "Steve", "101"), steve, plan)));
+            assertEquals(List.of(VoteEventState.PLANNED, VoteEventState.DUPLICATE, VoteEventState.QUARANTINED,
+                    VoteEventState.PLANNED), results.stream().map(VoteEventResult::state).toList());
+            assertEquals(2, ledger.readStats(STEVE, "Steve").totalVotes());
+
+            try (var connection = DriverManager.getConnection("jdbc:sqlite:" + db.toAbsolutePath());
+                 var statement = connection.createStatement()) {
+                statement.execute("CREATE TRIGGER fail_alex BEFORE INSERT ON reward_grants WHEN NEW.target_name = 'Alex' "
+                        + "BEGIN SELECT RAISE(ABORT, 'test rollback'); END;");
+            }
+            results = ledger.acceptBatch(List.of(
+                    new VoteIngest(vote("site-c", "Steve", "102"), steve, plan),
+                    new VoteIngest(vote("site-a", "Alex", "103"), new PlayerIdentity(ALEX, "Alex"), plan),
+                    new VoteIngest(first, steve, plan)));
+            assertEquals(List.of(VoteEventState.PLANNED, VoteEventState.ERROR, VoteEventState.DUPLICATE),
+                    results.stream().map(VoteEventResult::state).toList());
+            assertEquals(3, ledger.readStats(STEVE, "Steve").totalVotes());
+            assertEquals(0, ledger.readStats(ALEX, "Alex").totalVotes());
+        }
+    }
+
+    @Test
+    void grantsPreparedOffTheWriterMatchTheOnesBuiltInsideTheTransaction() throws Exception {
+        VotePlan plan = new VotePlan(List.of("reward <player> %service% <timestamp>", "key <uuid>"),
+                new TreeMap<>(Map.of(1, List.of("monthly <player> <goal>"), 5, List.of("unused <player>"))),
+                new TreeMap<>(Map.of(1, List.of("global <goal> %service%"))), 0, 0, List.of(), true, 1,
+                List.of("bonus <player>"), List.of("say <player>"));
+        PlayerIdentity steve = new PlayerIdentity(STEVE, "Steve");
+        List<VoteEnvelope> votes = List.of(vote("site-a", "Steve", "100"), vote("site-b", "Steve", "101"));
+        List<List<String>> grantIds = new ArrayList<>();
+        for (String mode : List.of("all", "stale", "inline")) {
+            try (VoteLedger ledger = ledger(tempDir.resolve(mode + ".db"), "2026-08-11T12:00:00Z")) {
+                List<VoteIngest> batch = new ArrayList<>();
+                for (VoteEnvelope vote : votes) {
+                    // "stale" counters skip the goals this vote crosses, so the writer has to build them itself.
+                    GrantCandidates candidates = switch (mode) {
+                        case "all" -> GrantCandidates.prepare(vote, steve, plan);
+                        case "stale" -> GrantCandidates.prepare(vote, steve, plan, 1, -1, 1);
+                        default -> null;
+                    };
+                    batch.add(new VoteIngest(vote, steve, plan, -1, 0, candidates == null
+                            ? null : java.util.concurrent.CompletableFuture.completedFuture(candidates)));
+                }
+                grantIds.add(ledger.acceptBatch(batch).stream().flatMap(result -> result.grantIds().stream()).toList());
+            }
+        }
+        assertEquals(9, grantIds.get(0).size()); // vote, player, monthly, global and triple batches, then vote and player
+        assertEquals(grantIds.get(2), grantIds.get(0));
+        assertEquals(grantIds.get(2), grantIds.get(1));
+    }
+
+    @Test
+    void singleVoteBatchUsesItsPreparedGrants() {
+        VotePlan plan = VotePlan.simple(List.of("reward <player>"));
+        VoteEnvelope vote = vote("site-a", "Steve", "100");
+        PlayerIdentity steve = new PlayerIdentity(STEVE, "Steve");
+        // Prepared from another plan, so a grant built inside the transaction would show the configured command.
+        GrantCandidates prepared = GrantCandidates.prepare(vote, steve, VotePlan.simple(List.of("prepared <player>")));
+        try (VoteLedger ledger = ledger(tempDir.resolve("single.db"), "2026-08-11T12:00:00Z")) {
+            ledger.acceptBatch(List.of(new VoteIngest(vote, steve, plan, -1, 0,
+                    java.util.concurrent.CompletableFuture.completedFuture(prepared))));
+
+            assertEquals("prepared Steve", ledger.claimNextGrant(STEVE).orElseThrow().commandSnapshot());
+        }
+    }
+
+    @Test
+    void committedPostStateMatchesWhatALaterReadReturns() throws Exception {
+        try (VoteLedger ledger = ledger(tempDir.resolve("post-state.db"), "2026-08-11T12:00:00Z")) {
+            PlayerIdentity steve = new PlayerIdentity(STEVE, "Steve");
+            VotePlan plan = VotePlan.simple(List.of("reward"));
+            ledger.accept(vote("site-a", "Steve", "100"), steve, plan);
+            VoteEventResult result = ledger.accept(vote("site-b", "Steve", "101"), steve, plan);
+
+            LedgerPostState post = result.postState();
+            assertEquals(ledger.readStats(STEVE, "Steve"), post.stats());
+            assertEquals(2, post.distinctServicesToday());
+            assertEquals(ledger.readGlobalDaily(), post.globalDaily());
+            assertEquals("2026-08-11", post.dayKey());
+            assertNull(ledger.accept(vote("site-b", "Steve", "101"), steve, plan).postState());
+
+            LedgerPostState adjusted = ledger.adjustPlayerDaily(steve, -1).orElseThrow();
+            assertEquals(ledger.readStats(STEVE, "Steve"), adjusted.stats());
+            assertEquals(1, adjusted.stats().dailyVotes());
+        }
+    }
+
+    @Test
+    void readsUseThePoolWithoutWaitingForTheWriterMonitor() throws Exception {
+        try (VoteLedger ledger = ledger(tempDir.resolve("readers.db"), "2026-08-11T12:00:00Z")) {
+            ledger.accept(vote("site", "Steve", "100"), new PlayerIdentity(STEVE, "Steve"), VotePlan.simple(List.of("reward")));
+
+            var pool = Executors.newFixedThreadPool(8);
+            try {
+                synchronized (ledger) {
+                    List<Future<Integer>> reads = new ArrayList<>();
+                    for (int i = 0; i < 8; i++) reads.add(pool.submit(() -> ledger.readTopMonth("2026-08", 10).size()));
+                    for (var read : reads) assertEquals(1, read.get(5, TimeUnit.SECONDS));
+                    assertEquals(1, pool.submit(ledger::countEvents).get(5, TimeUnit.SECONDS));
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+
     @Test
     void grantTransitionsAreCrashSafeAndOrdered() throws Exception {
         Path db = tempDir.resolve("grants.db");
@@ -143,6 +291,65 @@ class VoteLedgerTest {
         }
     }
 
+    @Test
+    void claimLookupUsesHeadIndexWithMillionDoneGrants() throws Exception {
+        Path db = tempDir.resolve("history.db");
+        try (VoteLedger ledger = ledger(db, "2026-08-11T12:00:00Z")) {
+            try (var connection = DriverManager.getConnection("jdbc:sqlite:" + db.toAbsolutePath());
+                 var statement = connection.createStatement()) {
+                statement.execute("""
+                        WITH RECURSIVE n(x) AS (SELECT 1 UNION ALL SELECT x + 1 FROM n WHERE x < 1000000)
+                        INSERT INTO reward_grants(grant_id, batch_key, kind, sequence, command_snapshot, executor_mode,
+                          target_uuid, target_name, state, created_at, completed_at, updated_at)
+                        SELECT unhex(printf('%064x', x)), 'old-batch-' || (x / 3), 'VOTE', x % 3, 'reward', 'CONSOLE',
+                          CASE WHEN x % 2 = 0 THEN unhex('11111111111111111111111111111111') END, 'Steve', 'DONE', x, x, x
+                        FROM n
+                        """);
+                for (boolean global : new boolean[]{false, true}) {
+                    try (var plan = connection.prepareStatement("EXPLAIN QUERY PLAN " + VoteLedger.claimQuery(global))) {
+                        if (!global) plan.setBytes(1, VoteLedger.uuidBytes(STEVE));
+                        try (var rs = plan.executeQuery()) {
+                            while (rs.next()) {
+                                String detail = rs.getString("detail");
+                                assertFalse(detail.startsWith("SCAN"), detail);
+                                assertFalse(detail.contains("TEMP B-TREE"), detail);
+                            }
+                        }
+                    }
+                }
+            }
+
+            ledger.accept(vote("site", "Steve", "100"), new PlayerIdentity(STEVE, "Steve"), VotePlan.simple(List.of("a", "b")));
+            GrantClaim first = ledger.claimNextGrant(STEVE).orElseThrow();
+            assertEquals(0, first.sequence());
+            assertTrue(ledger.claimNextGrant(STEVE).isEmpty());
+            assertTrue(ledger.markDoneAfterDispatch(first.grantId(), first.claimToken()));
+            assertEquals(1, ledger.claimNextGrant(STEVE).orElseThrow().sequence());
+        }
+    }
+
+    @Test
+    void batchClaimKeepsSequenceOrderAndOneTransactionCompletesTheRound() throws Exception {
+        try (VoteLedger ledger = ledger(tempDir.resolve("batch-claim.db"), "2026-08-11T12:00:00Z")) {
+            PlayerIdentity steve = new PlayerIdentity(STEVE, "Steve");
+            ledger.accept(vote("site-a", "Steve", "100"), steve, VotePlan.simple(List.of("a", "b", "c")));
+            List<GrantClaim> round = ledger.claimGrantBatch(STEVE, 2);
+            assertEquals(List.of("a", "b"), round.stream().map(GrantClaim::commandSnapshot).toList());
+            assertTrue(ledger.claimGrantBatch(STEVE, 2).isEmpty());
+            assertEquals(2, ledger.completeGrants(List.of(GrantOutcome.done(round.get(0)),
+                    GrantOutcome.ambiguous(round.get(1), "uncertain"))));
+            assertTrue(ledger.claimGrantBatch(STEVE, 2).isEmpty(), "AMBIGUOUS keeps blocking later sequences");
+            assertEquals(1, ledger.listAmbiguous().size());
+
+            ledger.accept(vote("site-b", "Steve", "101"), steve, VotePlan.simple(List.of("d", "e")));
+            List<GrantClaim> next = ledger.claimGrantBatch(STEVE, 10);
+            assertEquals(List.of("d", "e"), next.stream().map(GrantClaim::commandSnapshot).toList());
+            ledger.completeGrants(List.of(GrantOutcome.done(next.get(0)), GrantOutcome.deferred(next.get(1))));
+            assertEquals(List.of("e"), ledger.claimGrantBatch(STEVE, 10).stream().map(GrantClaim::commandSnapshot).toList());
+            assertEquals(0, ledger.completeGrants(List.of(GrantOutcome.done(round.get(0)))));
+        }
+    }
+
     @Test
     void claimedAtRestartBecomesAmbiguousAndPendingBeforeClaimRemainsRetryable() throws Exception {
         Path db = tempDir.resolve("restart-grants.db");
@@ -180,6 +387,32 @@ class VoteLedgerTest {
         }
     }
 
+    @Test
+    void goalsAreClaimedOnCrossingAndAdminChangesAreReconciledByTheNextVote() throws Exception {
+        VotePlan plan = new VotePlan(List.of(), new TreeMap<>(Map.of(2, List.of("m2"), 3, List.of("m3"))),
+                new TreeMap<>(Map.of(2, List.of("g2"), 5, List.of("g5"), 6, List.of("g6"))), 0, 0, List.of(),
+                false, 3, List.of(), List.of());
+        PlayerIdentity steve = new PlayerIdentity(STEVE, "Steve");
+        try (VoteLedger ledger = ledger(tempDir.resolve("crossing.db"), "2026-08-11T12:00:00Z")) {
+            ledger.accept(vote("site", "Steve", "100"), steve, plan);
+            ledger.accept(vote("site", "Steve", "101"), steve, plan);
+            assertEquals(1, ledger.countGrantsByKind("MONTHLY_GOAL"));
+            assertEquals(1, ledger.countGrantsByKind("GLOBAL_GOAL"));
+
+            ledger.adjustGlobalDaily(3);
+            VoteEventResult reconciled = ledger.accept(vote("site", "Steve", "102"), steve, plan);
+            assertEquals(VoteEventState.PLANNED, reconciled.state());
+            assertEquals(List.of(3, 5, 6), reconciled.notices().stream().map(VoteNotice::threshold).sorted().toList());
+            assertEquals(3, ledger.countGrantsByKind("GLOBAL_GOAL"));
+
+            ledger.adjustGlobalDaily(-3);
+            ledger.accept(vote("site", "Steve", "103"), steve, plan);
+            ledger.accept(vote("site", "Steve", "104"), steve, plan);
+            assertEquals(3, ledger.countGrantsByKind("GLOBAL_GOAL"), "lowered counter never re-grants a goal");
+            assertEquals(2, ledger.countGrantsByKind("MONTHLY_GOAL"));
+        }
+    }
+
     @Test
     void consecutiveMonthStreakGrantIsJournaledOnce() throws Exception {
         Path db = tempDir.resolve("streak.db");
@@ -234,7 +467,7 @@ class VoteLedgerTest {
             try (var connection = DriverManager.getConnection("jdbc:sqlite:" + db.toAbsolutePath());
                  var statement = connection.prepareStatement(
                          "SELECT month_key,votes FROM monthly_snapshots WHERE uuid=? ORDER BY month_key")) {
-                statement.setString(1, STEVE.toString());
+                statement.setBytes(1, VoteLedger.uuidBytes(STEVE));
                 try (var result = statement.executeQuery()) {
                     assertTrue(result.next()); assertEquals("2026-08", result.getString(1)); assertEquals(1, result.getDouble(2));
                     assertTrue(result.next()); assertEquals("2026-09", result.getString(1)); assertEquals(1, result.getDouble(2));
@@ -284,6 +517,33 @@ class VoteLedgerTest {
         }
     }
 
+    @Test
+    void legacyPendingMigrationCommitsInChunksAndResumesAfterRestart() throws Exception {
+        Path db = tempDir.resolve("legacy-chunks.db");
+        try (var connection = DriverManager.getConnection("jdbc:sqlite:" + db.toAbsolutePath());
+             var statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE pending_votes(id INTEGER PRIMARY KEY AUTOINCREMENT, player_name TEXT NOT NULL, service_name TEXT NOT NULL, created_epoch INTEGER NOT NULL)");
+            statement.execute("""
+                    WITH RECURSIVE n(i) AS (SELECT 1 UNION ALL SELECT i + 1 FROM n WHERE i < 1200)
+                    INSERT INTO pending_votes(player_name, service_name, created_epoch) SELECT 'Player' || i, 'site', i FROM n
+                    """);
+        }
+        VotePlan plan = VotePlan.simple(List.of("legacy <player>"));
+
+        try (VoteLedger ledger = ledger(db, "2026-08-11T12:00:00Z")) {
+            assertEquals(1200, ledger.countUnmigratedLegacyPending());
+            assertEquals(new LegacyChunk(500, 500, 500), ledger.migrateLegacyPending(plan, 0, 500));
+            assertEquals(700, ledger.countUnmigratedLegacyPending());
+        }
+        try (VoteLedger ledger = ledger(db, "2026-08-11T12:00:01Z")) {
+            assertEquals(new LegacyChunk(500, 500, 1000), ledger.migrateLegacyPending(plan, 0, 500)); // mapped rows skipped
+            assertEquals(200, ledger.migrateLegacyPending(plan));
+            assertEquals(new LegacyChunk(0, 0, 0), ledger.migrateLegacyPending(plan, 0, 500));
+            assertEquals(0, ledger.countUnmigratedLegacyPending());
+            assertEquals(1200, ledger.countEvents());
+        }
+    }
+
     @Test
     void migrationCreatesIntegrityCheckedBackupAndRejectsVersionDisagreement() throws Exception {
         Path db = tempDir.resolve("migration.db");
@@ -305,6 +565,147 @@ class VoteLedgerTest {
         assertThrows(IllegalStateException.class, incompatible::initialize);
     }
 
+    @Test
+    void textKeyedTablesMigrateToCompactKeysAndIntegerCounters() throws Exception {
+        Path db = tempDir.resolve("compact.db");
+        String hash = "ab".repeat(32);
+        try (var connection = DriverManager.getConnection("jdbc:sqlite:" + db.toAbsolutePath());
+             var statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE players (uuid TEXT PRIMARY KEY, name TEXT NOT NULL, total_votes REAL NOT NULL DEFAULT 0,
+                      daily_votes REAL NOT NULL DEFAULT 0, monthly_votes REAL NOT NULL DEFAULT 0,
+                      streak_monthly INTEGER NOT NULL DEFAULT 0, last_vote_day TEXT NOT NULL DEFAULT '',
+                      last_month_key TEXT NOT NULL DEFAULT '', last_vote_epoch INTEGER NOT NULL DEFAULT 0)
+                    """);
+            statement.execute("""
+                    CREATE TABLE monthly_snapshots (uuid TEXT NOT NULL, player_name TEXT NOT NULL, month_key TEXT NOT NULL,
+                      votes REAL NOT NULL, last_update_epoch INTEGER NOT NULL, PRIMARY KEY(uuid, month_key))
+                    """);
+            statement.execute("""
+                    CREATE TABLE vote_events (event_hash TEXT PRIMARY KEY, normalized_name TEXT NOT NULL,
+                      display_name TEXT NOT NULL, service TEXT NOT NULL, provider_timestamp TEXT NOT NULL,
+                      state TEXT NOT NULL, resolved_uuid TEXT, day_key TEXT, month_key TEXT, plan_json TEXT NOT NULL,
+                      created_at INTEGER NOT NULL, updated_at INTEGER NOT NULL, failure TEXT NOT NULL DEFAULT '')
+                    """);
+            statement.execute("CREATE INDEX idx_vote_events_pending ON vote_events(state, normalized_name)");
+            statement.execute("""
+                    INSERT INTO players VALUES ('%s', 'Steve', 7, 2, 5, 1, '2026-08-11', '2026-08', 1)
+                    """.formatted(STEVE));
+            statement.execute("INSERT INTO monthly_snapshots VALUES ('%s', 'Steve', '2026-08', 5, 1)".formatted(STEVE));
+            statement.execute("""
+                    INSERT INTO vote_events VALUES ('%s', 'steve', 'Steve', 'site', '100', 'UNRESOLVED', NULL,
+                      '2026-08-11', '2026-08', '%s', 1, 1, '')
+                    """.formatted(hash, VotePlan.simple(List.of("kept <player>")).toJson()));
+            statement.execute("CREATE TABLE schema_version(version INTEGER PRIMARY KEY, applied_at INTEGER NOT NULL)");
+            statement.execute("INSERT INTO schema_version VALUES (3, 1)");
+            statement.execute("PRAGMA user_version=3");
+        }
+
+        try (VoteLedger ledger = ledger(db, "2026-08-11T12:00:00Z")) {
+            assertTrue(Files.isRegularFile(tempDir.resolve("compact.db.backup-v3")));
+            assertEquals(7, ledger.readStats(STEVE, "Steve").totalVotes());
+            List<VoteEventResult> resolved = ledger.resolvePending(new PlayerIdentity(STEVE, "Steve"));
+            assertEquals(List.of(hash), resolved.stream().map(VoteEventResult::eventHash).toList());
+            assertEquals(6, resolved.get(0).postState().stats().monthlyVotes());
+            assertEquals("kept Steve", ledger.claimNextGrant(STEVE).orElseThrow().commandSnapshot());
+        }
+        assertEquals(0, countRows(db, "SELECT COUNT(*) FROM players WHERE typeof(uuid) <> 'blob' OR length(uuid) <> 16"));
+        assertEquals(0, countRows(db, "SELECT COUNT(*) FROM players WHERE typeof(total_votes) <> 'integer'"));
+        assertEquals(0, countRows(db, "SELECT COUNT(*) FROM vote_events WHERE length(event_hash) <> 32"));
+        assertEquals(1, countRows(db, "SELECT COUNT(*) FROM sqlite_master WHERE name = 'idx_vote_events_pending'"));
+        assertEquals(0, countRows(db, "SELECT COUNT(*) FROM sqlite_master WHERE name LIKE '%_text_keys'"));
+    }
+
+    @Test
+    void changeSequenceStampsCommittedPlayerWritesAndSurvivesTheV5Upgrade() throws Exception {
+        Path db = tempDir.resolve("sequence.db");
+        VotePlan plan = VotePlan.simple(List.of());
+        UUID ledgerId;
+        try (VoteLedger ledger = ledger(db, "2026-08-11T12:00:00Z")) {
+            ledger.accept(vote("site", "Steve", "1"), new PlayerIdentity(STEVE, "Steve"), plan);
+            ledgerId = ledger.ledgerId();
+        }
+        try (var connection = DriverManager.getConnection("jdbc:sqlite:" + db.toAbsolutePath());
+             var statement = connection.createStatement()) {
+            for (ChangeFeed feed : ChangeFeed.values()) {
+                statement.execute("DROP INDEX idx_" + feed.table() + "_change_seq");
+                statement.execute("ALTER TABLE " + feed.table() + " DROP COLUMN change_seq");
+            }
+            statement.execute("DELETE FROM schema_version WHERE version >= 5");
+            statement.execute("PRAGMA user_version=4");
+        }
+
+        try (VoteLedger ledger = ledger(db, "2026-08-11T12:00:01Z")) {
+            assertTrue(Files.isRegularFile(tempDir.resolve("sequence.db.backup-v4")));
+            assertEquals(ledgerId, ledger.ledgerId());
+            assertEquals(1, ledger.changeSequence()); // rows from before the upgrade share the migration's sequence
+            for (ChangeFeed feed : List.of(ChangeFeed.PLAYERS, ChangeFeed.MONTHLY_SNAPSHOTS, ChangeFeed.DAILY_GLOBAL_SNAPSHOTS)) {
+                List<LedgerChange> upgraded = new ArrayList<>();
+                assertEquals(1, ledger.streamChanges(feed, 0, 10, upgraded::add));
+                assertEquals(1, upgraded.size(), feed.table());
+            }
+            ledger.acceptBatch(List.of(
+                    new VoteIngest(vote("site", "Steve", "2"), new PlayerIdentity(STEVE, "Steve"), plan),
+                    new VoteIngest(vote("site", "Alex", "3"), new PlayerIdentity(ALEX, "Alex"), plan)));
+            assertEquals(2, ledger.changeSequence()); // one transaction, one sequence value
+            ledger.adjustPlayerDaily(new PlayerIdentity(ALEX, "Alex"), 1);
+            assertEquals(3, ledger.changeSequence());
+
+            assertEquals(Map.of(ALEX, ledger.readStats(ALEX, "Alex")), ledger.readStatsChangedSince(2));
+            assertEquals(2, ledger.readStatsChangedSince(0).size());
+            assertEquals(2, ledger.readStats(STEVE, "Steve").totalVotes());
+        }
+        try (VoteLedger ledger = ledger(db, "2026-08-11T12:00:02Z")) {
+            assertEquals(3, ledger.changeSequence());
+        }
+    }
+
+    @Test
+    void changeFeedsStreamEveryStampedTableWithoutSplittingATransaction() {
+        Path db = tempDir.resolve("feed.db");
+        VotePlan plan = VotePlan.simple(List.of("reward <player>"));
+        try (VoteLedger ledger = ledger(db, "2026-08-11T12:00:00Z")) {
+            ledger.acceptBatch(List.of(
+                    new VoteIngest(vote("site", "Steve", "1"), new PlayerIdentity(STEVE, "Steve"), plan),
+                    new VoteIngest(vote("site", "Alex", "2"), new PlayerIdentity(ALEX, "Alex"), plan)));
+            GrantClaim claim = ledger.claimNextGrant(STEVE).orElseThrow();
+            assertEquals(2, ledger.changeSequence());
+
+            List<LedgerChange> players = new ArrayList<>();
+            assertEquals(1, ledger.streamChanges(ChangeFeed.PLAYERS, 0, 1, players::add));
+            assertEquals(2, players.size()); // the limit never cuts a transaction in half
+            assertEquals(1, ledger.streamChanges(ChangeFeed.PLAYERS, 1, 10, players::add));
+            assertEquals(2, players.size());
+
+            List<LedgerChange> grants = new ArrayList<>();
+            assertEquals(2, ledger.streamChanges(ChangeFeed.REWARD_GRANTS, 0, 10, grants::add));
+            assertEquals(List.of(1L, 2L), grants.stream().map(LedgerChange::sequence).toList());
+            LedgerChange claimed = grants.get(1);
+            assertEquals(claim.grantId(), claimed.columns().get("grant_id"));
+            assertEquals(STEVE, claimed.columns().get("target_uuid"));
+            assertEquals("CLAIMED", claimed.columns().get("state"));
+
+            List<LedgerChange> monthly = new ArrayList<>();
+            ledger.streamChanges(ChangeFeed.MONTHLY_SNAPSHOTS, 0, 10, monthly::add);
+            assertEquals(2, monthly.size());
+            List<LedgerChange> global = new ArrayList<>();
+            ledger.streamChanges(ChangeFeed.DAILY_GLOBAL_SNAPSHOTS, 0, 10, global::add);
+            assertEquals(1, global.size());
+            assertEquals(2L, global.get(0).columns().get("votes"));
+            assertEquals(2, ledger.streamChanges(ChangeFeed.DAILY_GLOBAL_SNAPSHOTS, 2, 10, global::add));
+            assertEquals(1, global.size());
+        }
+        try (VoteLedger ledger = ledger(db, "2026-08-11T12:00:01Z")) {
+            assertEquals(3, ledger.changeSequence()); // the interrupted claim turned AMBIGUOUS at startup
+            List<LedgerChange> recovered = new ArrayList<>();
+            assertEquals(3, ledger.streamChanges(ChangeFeed.REWARD_GRANTS, 2, 10, recovered::add));
+            assertEquals("AMBIGUOUS", recovered.get(0).columns().get("state"));
+        }
+        try (VoteLedger ledger = ledger(db, "2026-08-11T12:00:02Z")) {
+            assertEquals(3, ledger.changeSequence()); // an idle restart reserves no sequence
+        }
+    }
+
     @Test
     void planDocumentIsVersionedAndCommandsAreBounded() {
         VotePlan plan = VotePlan.simple(List.of("reward <player>"));
@@ -317,6 +718,15 @@ class VoteLedgerTest {
                 () -> VotePlan.fromJson("{\"schemaVersion\":99,\"plan\":{}}"));
     }
 
+    private long countRows(Path db, String sql) throws Exception {
+        try (var connection = DriverManager.getConnection("jdbc:sqlite:" + db.toAbsolutePath());
+             var statement = connection.createStatement();
+             var result = statement.executeQuery(sql)) {
+            assertTrue(result.next());
+            return result.getLong(1);
+        }
+    }
+
     private VoteLedger ledger(Path db, String instant) {
         VoteLedger ledger = new VoteLedger(db, 5_000, Clock.fixed(Instant.parse(instant), ZONE), ZONE);
         ledger.initialize();
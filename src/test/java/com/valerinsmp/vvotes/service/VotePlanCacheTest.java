@@ -0,0 +1,22 @@
+package com.valerinsmp.vvotes.service;
+
+import com.valerinsmp.vvotes.config.PluginConfig;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VotePlanCacheTest {
+    @Test
+    void plansAreReusedPerServiceUntilTheConfigInstanceChanges() {
+        VotePlanCache cache = new VotePlanCache();
+        PluginConfig config = PluginConfig.defaultConfig();
+
+        VotePlan first = cache.plan(config, "site-a");
+        assertSame(first, cache.plan(config, "site-a"));
+        assertNotSame(first, cache.plan(config, "site-b"));
+
+        VotePlan reloaded = cache.plan(PluginConfig.defaultConfig(), "site-a");
+        assertNotSame(first, reloaded);
+        assertEquals(first, reloaded);
+    }
+}
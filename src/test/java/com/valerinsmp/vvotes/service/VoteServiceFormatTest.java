@@ -3,6 +3,7 @@ package com.valerinsmp.vvotes.service;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 class VoteServiceFormatTest {
     @Test
@@ -10,4 +11,13 @@ class VoteServiceFormatTest {
         assertEquals("4", VoteService.formatDoubleStatic(4));
         assertEquals("4.25", VoteService.formatDoubleStatic(4.25));
     }
+
+    @Test
+    void cachedCountsMatchPlainFormatting() {
+        for (double value : new double[]{0, -0.0, -1, 16_383, 16_384, 1e15, -3}) {
+            assertEquals(String.format(java.util.Locale.US, "%.0f", value), VoteService.formatDoubleStatic(value));
+        }
+        assertSame(VoteService.formatCount(12), VoteService.formatCount(12));
+        assertEquals("-1", VoteService.formatCount(-1));
+    }
 }
@@ -10,6 +10,8 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class VoteSnapshotsTest {
     @Test
@@ -30,9 +32,9 @@ class VoteSnapshotsTest {
                         } else {
                             PlayerStats value = snapshots.stats(uuid, "Steve", "2026-08-11", "2026-08");
                             value.name().length();
-                            snapshots.global("2026-08-11");
+                            snapshots.global();
                             snapshots.muted(uuid);
-                            snapshots.triple(uuid, "2026-08-11");
+                            snapshots.triple(uuid);
                         }
                     }
                 }));
@@ -42,10 +44,39 @@ class VoteSnapshotsTest {
             pool.shutdown();
             if (!pool.awaitTermination(20, TimeUnit.SECONDS)) pool.shutdownNow();
         }
-        assertEquals(0, snapshots.global("2026-08-12"));
+        snapshots.updatePlayer(stats(uuid, 2), true, "2026-08-11");
+        snapshots.rollover("2026-08-12");
+        snapshots.setGlobal(99, "2026-08-11"); // committed before midnight, applied after the rollover
+        snapshots.updatePlayer(stats(uuid, 3), true, "2026-08-11");
+        assertEquals(0, snapshots.global());
+        assertFalse(snapshots.triple(uuid));
         assertEquals(0, snapshots.stats(uuid, "Steve", "2026-09-01", "2026-09").dailyVotes());
     }
 
+    @Test
+    void boundedEvictionKeepsPinnedRecentAndFreshlyPublishedPlayers() {
+        UUID online = new UUID(0, 1);
+        UUID recent = new UUID(0, 2);
+        UUID idle = new UUID(0, 3);
+        VoteSnapshots snapshots = new VoteSnapshots();
+        snapshots.load(Map.of(online, stats(online, 1), idle, stats(idle, 1)), Map.of(), 0, "2026-08-11");
+        snapshots.loaded(new PlayerStats(recent, "Recent", 1, 1, 1, 0, "2026-08-11", "2026-08", 500));
+        snapshots.pin(online);
+
+        snapshots.loaded(stats(idle, 9));
+        assertEquals(1, snapshots.stats(idle, "Steve", "2026-08-11", "2026-08").totalVotes(),
+                "an on-demand read never replaces a projection that is already published");
+
+        assertEquals(1, snapshots.evict(100, 0, 100));
+        assertTrue(snapshots.known(online));
+        assertTrue(snapshots.known(recent));
+        assertFalse(snapshots.known(idle));
+
+        assertEquals(1, snapshots.evict(1, 30, 100));
+        assertTrue(snapshots.known(online), "online players survive the size cap");
+        assertFalse(snapshots.known(recent));
+    }
+
     private PlayerStats stats(UUID uuid, double votes) {
         return new PlayerStats(uuid, "Steve", votes, votes, votes, 1,
                 "2026-08-11", "2026-08", 1);
@@ -0,0 +1,84 @@
+package com.valerinsmp.vvotes.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriterQueueTest {
+
+    @Test
+    void ingestAndGrantsOvertakeQueuedAdminAndBackgroundWork() throws Exception {
+        WriterQueue writer = new WriterQueue("writer-test", () -> 100, Logger.getAnonymousLogger());
+        CountDownLatch stalled = new CountDownLatch(1);
+        List<String> ran = new CopyOnWriteArrayList<>();
+        writer.execute(WriterQueue.Kind.BACKGROUND, () -> awaitQuietly(stalled)); // an external lock holder
+        while (writer.stats().depth() > 0) Thread.onSpinWait();
+        writer.execute(WriterQueue.Kind.BACKGROUND, () -> ran.add("image"));
+        writer.execute(WriterQueue.Kind.ADMIN, () -> ran.add("adjust"));
+        writer.execute(WriterQueue.Kind.GRANT, () -> ran.add("claim"));
+        writer.execute(WriterQueue.Kind.INGEST, () -> ran.add("vote-1"));
+        writer.execute(WriterQueue.Kind.INGEST, () -> ran.add("vote-2"));
+        assertEquals(5, writer.stats().depth());
+        stalled.countDown();
+        writer.shutdown();
+
+        assertTrue(writer.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(List.of("vote-1", "vote-2", "claim", "adjust", "image"), ran);
+        WriterQueue.Stats stats = writer.stats();
+        assertEquals(0, stats.depth());
+        assertEquals(2, stats.kinds().get(WriterQueue.Kind.INGEST.ordinal()).completed());
+        assertEquals(2, stats.kinds().get(WriterQueue.Kind.BACKGROUND.ordinal()).completed());
+        assertThrows(RejectedExecutionException.class, () -> writer.execute(WriterQueue.Kind.INGEST, () -> { }));
+    }
+
+    @Test
+    void anErrorFromATaskDoesNotStopTheWriter() throws Exception {
+        WriterQueue writer = new WriterQueue("writer-test", () -> 100, Logger.getAnonymousLogger());
+        writer.execute(WriterQueue.Kind.INGEST, () -> { throw new StackOverflowError("deep plan"); });
+        CompletableFuture<Integer> vote = writer.supply(WriterQueue.Kind.INGEST, () -> 7);
+
+        assertEquals(7, vote.get(5, TimeUnit.SECONDS));
+        writer.shutdown();
+        assertTrue(writer.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void saturatedQueueRefusesAdminWritesWithAReasonButKeepsIngest() throws Exception {
+        WriterQueue writer = new WriterQueue("writer-test", () -> 2, Logger.getAnonymousLogger());
+        CountDownLatch stalled = new CountDownLatch(1);
+        writer.execute(WriterQueue.Kind.BACKGROUND, () -> awaitQuietly(stalled));
+        while (writer.stats().depth() > 0) Thread.onSpinWait();
+        writer.execute(WriterQueue.Kind.ADMIN, () -> { });
+        writer.execute(WriterQueue.Kind.ADMIN, () -> { });
+
+        CompletableFuture<Integer> refused = writer.supply(WriterQueue.Kind.ADMIN, () -> 1);
+        ExecutionException failure = assertThrows(ExecutionException.class, refused::get);
+        assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+        assertTrue(failure.getCause().getMessage().startsWith("writer queue full (2 tasks"));
+        CompletableFuture<Integer> vote = writer.supply(WriterQueue.Kind.INGEST, () -> 7);
+        assertEquals(1, writer.stats().rejected());
+        assertEquals(3, writer.stats().depth());
+
+        stalled.countDown();
+        assertEquals(7, vote.get(5, TimeUnit.SECONDS));
+        writer.shutdown();
+        assertTrue(writer.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}